@@ -4,30 +4,76 @@ import com.itb.inf2fm.projetoback.service.RegiaoService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.Executor;
+
+/**
+ * Data Initializer - Dados padrão gravados fora do caminho crítico da inicialização
+ *
+ * Otimizações:
+ * - A gravação roda no taskExecutor: o servidor sobe sem esperar as idas e voltas ao banco
+ * - Enquanto não termina, a aplicação fica REFUSING_TRAFFIC (/actuator/health/readiness),
+ *   mesmo depois que o Spring Boot a marca como pronta
+ *
+ * Em caso de erro a aplicação continua sem receber tráfego e o erro fica no log.
+ */
 @Component
 public class DataInitializer implements CommandLineRunner {
 
     private static final Logger logger = LoggerFactory.getLogger(DataInitializer.class);
 
     private final RegiaoService regiaoService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Executor taskExecutor;
+
+    private boolean concluido;
 
-    public DataInitializer(RegiaoService regiaoService) {
+    public DataInitializer(RegiaoService regiaoService,
+                           ApplicationEventPublisher eventPublisher,
+                           @Qualifier("taskExecutor") Executor taskExecutor) {
 
         this.regiaoService = regiaoService;
+        this.eventPublisher = eventPublisher;
+        this.taskExecutor = taskExecutor;
     }
 
     @Override
-    public void run(String... args) throws DataAccessException {
+    public void run(String... args) {
+        AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.REFUSING_TRAFFIC);
+        taskExecutor.execute(this::inicializar);
+    }
+
+    private void inicializar() {
+        long inicio = System.currentTimeMillis();
         try {
-            regiaoService.initializeDefaultRegioes();
-            logger.info("Dados padrão inicializados com sucesso");
+            int inseridas = regiaoService.initializeDefaultRegioes();
+            synchronized (this) {
+                concluido = true;
+                AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.ACCEPTING_TRAFFIC);
+            }
+            logger.info("Dados padrão inicializados com sucesso: {} regiões inseridas em {} ms",
+                    inseridas, System.currentTimeMillis() - inicio);
         } catch (DataAccessException e) {
-            logger.error("Erro ao inicializar dados padrão", e);
-            throw e;
+            logger.error("Erro ao inicializar dados padrão, aplicação continuará sem receber tráfego", e);
+        }
+    }
+
+    /**
+     * O Spring Boot publica ACCEPTING_TRAFFIC ao final da inicialização; se os dados padrão
+     * ainda não foram gravados, a aplicação volta para REFUSING_TRAFFIC até a gravação terminar
+     */
+    @EventListener
+    public synchronized void onReadinessChange(AvailabilityChangeEvent<ReadinessState> event) {
+        if (event.getState() == ReadinessState.ACCEPTING_TRAFFIC && !concluido) {
+            AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.REFUSING_TRAFFIC);
         }
     }
 }
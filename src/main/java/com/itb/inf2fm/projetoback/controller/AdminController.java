@@ -5,9 +5,17 @@
 // Para ReactJS + Vite, utilize fetch/Axios para consumir endpoints REST
 package com.itb.inf2fm.projetoback.controller;
 
+import com.itb.inf2fm.projetoback.dto.ImportacaoResultado;
+import com.itb.inf2fm.projetoback.dto.StatusLoteRequest;
+import com.itb.inf2fm.projetoback.dto.TecnicoResumo;
+import com.itb.inf2fm.projetoback.dto.response.PagedResponse;
 import com.itb.inf2fm.projetoback.model.Servico;
 import com.itb.inf2fm.projetoback.model.Tecnico;
-import com.itb.inf2fm.projetoback.service.PasswordEncryptService;
+import com.itb.inf2fm.projetoback.service.AdminService;
+import com.itb.inf2fm.projetoback.service.CriptografarSenhasJob;
+import com.itb.inf2fm.projetoback.service.ImportacaoService;
+import com.itb.inf2fm.projetoback.service.JobService;
+import com.itb.inf2fm.projetoback.service.MidiaMigracaoService;
 import com.itb.inf2fm.projetoback.service.ServicoService;
 import com.itb.inf2fm.projetoback.service.TecnicoService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -16,36 +24,48 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
 import java.util.List;
+import java.util.Map;
 
 @Tag(name = "Admin", description = "API para operações administrativas")
 @RestController
 @RequestMapping("/admin")
 public class AdminController {
 
-    private final PasswordEncryptService passwordEncryptService;
+    private final JobService jobService;
     private final ServicoService servicoService;
     private final TecnicoService tecnicoService;
+    private final ImportacaoService importacaoService;
+    private final MidiaMigracaoService midiaMigracaoService;
+    private final AdminService adminService;
 
-    public AdminController(PasswordEncryptService passwordEncryptService, ServicoService servicoService, TecnicoService tecnicoService) {
-        this.passwordEncryptService = passwordEncryptService;
+    public AdminController(JobService jobService, ServicoService servicoService, TecnicoService tecnicoService,
+                           ImportacaoService importacaoService, MidiaMigracaoService midiaMigracaoService,
+                           AdminService adminService) {
+        this.jobService = jobService;
         this.servicoService = servicoService;
         this.tecnicoService = tecnicoService;
+        this.importacaoService = importacaoService;
+        this.midiaMigracaoService = midiaMigracaoService;
+        this.adminService = adminService;
     }
 
+    @Operation(summary = "Criptografar senhas existentes",
+               description = "Inicia o job criptografar-senhas, que gera em background o hash BCrypt das senhas " +
+                             "ainda em texto puro. Acompanhe em GET /admin/jobs/{id}")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "Job iniciado"),
+        @ApiResponse(responseCode = "422", description = "Job já está em execução")
+    })
     @PostMapping("/encrypt-passwords")
-    public ResponseEntity<String> encryptExistingPasswords() {
-        try {
-            passwordEncryptService.encryptExistingPasswords();
-            return ResponseEntity.ok("Senhas criptografadas com sucesso");
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body("Erro ao criptografar senhas");
-        }
+    public ResponseEntity<JobService.Resumo> encryptExistingPasswords() {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(jobService.iniciar(CriptografarSenhasJob.TIPO, Map.of()));
     }
 
     @Operation(summary = "Criar novo serviço", description = "Permite ao admin criar um novo serviço no sistema")
@@ -83,6 +103,21 @@ public class AdminController {
         }
     }
 
+    @Operation(summary = "Listar serviços paginado",
+               description = "size máximo 100; sort: id, nome, tipo ou preco (campo,asc|desc); count=false não calcula os totais")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Página retornada com sucesso"),
+        @ApiResponse(responseCode = "400", description = "Página, tamanho ou ordenação inválidos")
+    })
+    @GetMapping("/servicos/paginado")
+    public ResponseEntity<PagedResponse<Servico>> getServicosPaginado(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String sort,
+            @RequestParam(defaultValue = "true") boolean count) {
+        return ResponseEntity.ok(PagedResponse.of(servicoService.listarPaginado(page, size, sort, count)));
+    }
+
     @Operation(summary = "Deletar serviço", description = "Permite ao admin remover um serviço do sistema")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "204", description = "Serviço deletado com sucesso"),
@@ -125,21 +160,37 @@ public class AdminController {
         }
     }
 
-    @Operation(summary = "Listar todos os técnicos", description = "Retorna uma lista com todos os técnicos cadastrados")
+    @Operation(summary = "Listar todos os técnicos", description = "Retorna o cartão resumido de todos os técnicos cadastrados")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Lista de técnicos retornada com sucesso"),
         @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
     })
     @GetMapping("/tecnicos")
-    public ResponseEntity<List<Tecnico>> getAllTecnicos() {
+    public ResponseEntity<List<TecnicoResumo>> getAllTecnicos() {
         try {
-            List<Tecnico> tecnicos = tecnicoService.findAll();
+            List<TecnicoResumo> tecnicos = tecnicoService.listarResumos();
             return new ResponseEntity<>(tecnicos, HttpStatus.OK);
         } catch (RuntimeException e) {
             return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 
+    @Operation(summary = "Listar técnicos paginado",
+               description = "size máximo 100; sort: id, nome, especialidade ou statusTecnico (campo,asc|desc); " +
+                             "count=false não calcula os totais")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Página retornada com sucesso"),
+        @ApiResponse(responseCode = "400", description = "Página, tamanho ou ordenação inválidos")
+    })
+    @GetMapping("/tecnicos/paginado")
+    public ResponseEntity<PagedResponse<TecnicoResumo>> getTecnicosPaginado(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String sort,
+            @RequestParam(defaultValue = "true") boolean count) {
+        return ResponseEntity.ok(PagedResponse.of(tecnicoService.listarResumosPaginado(page, size, sort, count)));
+    }
+
     @Operation(summary = "Remover técnico", description = "Permite ao admin remover um técnico do sistema")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "204", description = "Técnico removido com sucesso"),
@@ -183,4 +234,68 @@ public class AdminController {
             return new ResponseEntity<>("Erro interno do servidor: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
+
+    @Operation(summary = "Ativar ou inativar em massa",
+               description = "Aplica ATIVO ou INATIVO aos ids de usuarios, clientes ou tecnicos. " +
+                             "Clientes e técnicos levam junto o status do usuário vinculado. Retorna as linhas alteradas")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Status aplicado"),
+        @ApiResponse(responseCode = "400", description = "Tipo, status ou lista de ids inválidos"),
+        @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    @PutMapping("/status/{tipo}")
+    public ResponseEntity<AdminService.AlteracaoStatus> alterarStatusEmMassa(
+            @Parameter(description = "usuarios, clientes ou tecnicos", required = true, example = "tecnicos")
+            @PathVariable String tipo,
+            @RequestBody StatusLoteRequest request) {
+        return ResponseEntity.ok(adminService.alterarStatusEmMassa(tipo, request.getIds(), request.getStatus()));
+    }
+
+    @Operation(summary = "Importar técnicos em massa",
+               description = "Corpo em CSV (text/csv) ou NDJSON (application/x-ndjson), lido em streaming. " +
+                             "Retorna o total importado e os erros por linha")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Importação processada (verifique os erros por linha)"),
+        @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    @PostMapping("/importacao/tecnicos")
+    public ResponseEntity<ImportacaoResultado> importarTecnicos(
+            @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+            InputStream corpo) {
+        return ResponseEntity.ok(importacaoService.importar(ImportacaoService.Tipo.TECNICO, corpo,
+                ImportacaoService.Formato.deContentType(contentType)));
+    }
+
+    @Operation(summary = "Importar clientes em massa",
+               description = "Corpo em CSV (text/csv) ou NDJSON (application/x-ndjson), lido em streaming. " +
+                             "Retorna o total importado e os erros por linha")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Importação processada (verifique os erros por linha)"),
+        @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    @PostMapping("/importacao/clientes")
+    public ResponseEntity<ImportacaoResultado> importarClientes(
+            @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+            InputStream corpo) {
+        return ResponseEntity.ok(importacaoService.importar(ImportacaoService.Tipo.CLIENTE, corpo,
+                ImportacaoService.Formato.deContentType(contentType)));
+    }
+
+    @Operation(summary = "Migrar fotos para o armazenamento de mídia",
+               description = "Move em background as fotos ainda gravadas no banco para o armazenamento de mídia. " +
+                             "Acompanhe o andamento pelo GET do mesmo caminho")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "Migração iniciada"),
+        @ApiResponse(responseCode = "422", description = "Migração já está em andamento")
+    })
+    @PostMapping("/midia/migracao")
+    public ResponseEntity<MidiaMigracaoService.Status> iniciarMigracaoMidia() {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(midiaMigracaoService.iniciar());
+    }
+
+    @Operation(summary = "Andamento da migração de fotos")
+    @GetMapping("/midia/migracao")
+    public ResponseEntity<MidiaMigracaoService.Status> statusMigracaoMidia() {
+        return ResponseEntity.ok(midiaMigracaoService.getStatus());
+    }
 }
\ No newline at end of file
@@ -2,19 +2,25 @@ package com.itb.inf2fm.projetoback.controller;
 
 import com.itb.inf2fm.projetoback.dto.AgendamentoRequest;
 import com.itb.inf2fm.projetoback.dto.AgendamentoResponse;
+import com.itb.inf2fm.projetoback.dto.SituacaoRequest;
+import com.itb.inf2fm.projetoback.dto.TecnicoResumo;
 import com.itb.inf2fm.projetoback.model.Agendamento;
+import com.itb.inf2fm.projetoback.service.AgendamentoEventoService;
 import com.itb.inf2fm.projetoback.service.AgendamentoService;
+import com.itb.inf2fm.projetoback.service.AgendamentoSituacaoService;
 import com.itb.inf2fm.projetoback.repository.TecnicoRepository;
 import com.itb.inf2fm.projetoback.repository.UsuarioRepository;
 import com.itb.inf2fm.projetoback.repository.ServicoRepository;
-import com.itb.inf2fm.projetoback.model.Tecnico;
 import com.itb.inf2fm.projetoback.model.Usuario;
 import com.itb.inf2fm.projetoback.model.Servico;
 import com.itb.inf2fm.projetoback.model.Cliente;
 import com.itb.inf2fm.projetoback.repository.ClienteRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
@@ -27,6 +33,12 @@ public class AgendamentoController {
     @Autowired  
     private AgendamentoService agendamentoService;
 
+    @Autowired
+    private AgendamentoEventoService agendamentoEventoService;
+
+    @Autowired
+    private AgendamentoSituacaoService agendamentoSituacaoService;
+
     @Autowired
     private TecnicoRepository tecnicoRepository;
 
@@ -69,6 +81,14 @@ public class AgendamentoController {
         return ResponseEntity.ok(new AgendamentoResponse(agendamento));
     }
 
+    // Transição leve de situação: enfileirada e aplicada em lote pelo flusher (202),
+    // ou aplicada na hora se a fila estiver cheia (200)
+    @PatchMapping("/{id}/situacao")
+    public ResponseEntity<Void> updateSituacao(@PathVariable Long id, @RequestBody SituacaoRequest request) {
+        boolean enfileirado = agendamentoSituacaoService.enfileirar(id, request.getSituacao());
+        return ResponseEntity.status(enfileirado ? HttpStatus.ACCEPTED : HttpStatus.OK).build();
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> delete(@PathVariable Long id) {
         if (!agendamentoService.findById(id).isPresent()) {
@@ -92,6 +112,16 @@ public class AgendamentoController {
                 .collect(java.util.stream.Collectors.toList());
     }
 
+    // Stream SSE com criações, atualizações e remoções de agendamentos do técnico.
+    // Reconexões enviam o header Last-Event-ID (ou ?lastEventId=) para retomar de onde pararam.
+    @GetMapping(value = "/tecnico/{tecnicoId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamByTecnicoId(@PathVariable Long tecnicoId,
+                                        @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventIdHeader,
+                                        @RequestParam(value = "lastEventId", required = false) Long lastEventIdParam) {
+        Long lastEventId = lastEventIdHeader != null ? lastEventIdHeader : lastEventIdParam;
+        return agendamentoEventoService.assinar(tecnicoId, lastEventId);
+    }
+
     @GetMapping("/data/{dataAgendamento}")
     public List<AgendamentoResponse> findByDataAgendamento(@PathVariable LocalDate dataAgendamento) {
         return agendamentoService.findByDataAgendamento(dataAgendamento).stream()
@@ -101,12 +131,14 @@ public class AgendamentoController {
     
     // Endpoints para facilitar o cadastro de agendamentos
     
+    // regiaoId pode ser repetido (?regiaoId=1&regiaoId=2): o técnico precisa atender todas as regiões
     @GetMapping("/tecnicos-disponiveis")
-    public List<Tecnico> getTecnicosDisponiveis(@RequestParam(required = false) Long servicoId) {
+    public List<TecnicoResumo> getTecnicosDisponiveis(@RequestParam(required = false) Long servicoId,
+                                                @RequestParam(value = "regiaoId", required = false) List<Long> regiaoIds) {
         if (servicoId != null) {
-            return agendamentoService.findTecnicosByServicoId(servicoId);
+            return agendamentoService.findTecnicosByServicoId(servicoId, regiaoIds);
         }
-        return tecnicoRepository.findByStatusTecnico("ATIVO");
+        return agendamentoService.findTecnicosDisponiveis(regiaoIds);
     }
     
     @GetMapping("/usuarios-disponiveis")
@@ -125,9 +157,10 @@ public class AgendamentoController {
     }
     
     @GetMapping("/tecnicos-por-servico/{servicoId}")
-    public ResponseEntity<List<Tecnico>> getTecnicosPorServico(@PathVariable Long servicoId) {
+    public ResponseEntity<List<TecnicoResumo>> getTecnicosPorServico(@PathVariable Long servicoId,
+                                                               @RequestParam(value = "regiaoId", required = false) List<Long> regiaoIds) {
         try {
-            List<Tecnico> tecnicos = agendamentoService.findTecnicosByServicoId(servicoId);
+            List<TecnicoResumo> tecnicos = agendamentoService.findTecnicosByServicoId(servicoId, regiaoIds);
             return ResponseEntity.ok(tecnicos);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().build();
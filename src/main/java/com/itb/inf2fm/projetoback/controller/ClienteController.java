@@ -5,6 +5,7 @@
 // Para ReactJS + Vite, utilize fetch/Axios para consumir endpoints REST
 package com.itb.inf2fm.projetoback.controller;
 
+import com.itb.inf2fm.projetoback.dto.response.PagedResponse;
 import com.itb.inf2fm.projetoback.model.Cliente;
 import com.itb.inf2fm.projetoback.service.ClienteService;
 import com.itb.inf2fm.projetoback.service.PasswordEncryptService;
@@ -102,6 +103,29 @@ public class ClienteController {
         return ResponseEntity.status(HttpStatus.OK)
                 .body(clienteService.findAll());
     }
+
+    /**
+     * READ - Listar clientes paginado
+     * GET /cliente/paginado?page=0&size=20&sort=nome,asc&count=true
+     * 
+     * size máximo 100; sort: id, nome, email, cpf, dataNascimento ou statusCliente.
+     * Com count=false não calcula totalElements/totalPages; use hasNext para paginar.
+     * 
+     * Retorna: PagedResponse<Cliente>
+     */
+    @Operation(summary = "Listar clientes paginado", description = "Página de clientes com ordenação por campos permitidos")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Página retornada com sucesso"),
+        @ApiResponse(responseCode = "400", description = "Página, tamanho ou ordenação inválidos")
+    })
+    @GetMapping("/paginado")
+    public ResponseEntity<PagedResponse<Cliente>> getClientesPaginado(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String sort,
+            @RequestParam(defaultValue = "true") boolean count) {
+        return ResponseEntity.ok(PagedResponse.of(clienteService.listarPaginado(page, size, sort, count)));
+    }
     
     @Operation(summary = "Buscar clientes por nome", description = "Retorna uma lista de clientes que contenham o nome fornecido")
     @ApiResponses(value = {
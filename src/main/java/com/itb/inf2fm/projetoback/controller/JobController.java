@@ -0,0 +1,88 @@
+// Controller REST para Jobs em lote
+// Inicia, retoma e cancela operações em lote longas; o andamento também fica em /actuator/jobs
+package com.itb.inf2fm.projetoback.controller;
+
+import com.itb.inf2fm.projetoback.exception.ResourceNotFoundException;
+import com.itb.inf2fm.projetoback.service.JobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@Tag(name = "Jobs", description = "Operações em lote retomáveis, com checkpoint")
+@RestController
+@RequestMapping("/admin/jobs")
+public class JobController {
+
+    private final JobService jobService;
+
+    public JobController(JobService jobService) {
+        this.jobService = jobService;
+    }
+
+    @Operation(summary = "Listar jobs", description = "Os 20 jobs mais recentes, com checkpoint, contadores e linhas por segundo")
+    @GetMapping
+    public ResponseEntity<JobService.Panorama> listar() {
+        return ResponseEntity.ok(jobService.listar());
+    }
+
+    @Operation(summary = "Andamento de um job")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Job encontrado"),
+        @ApiResponse(responseCode = "404", description = "Job não encontrado")
+    })
+    @GetMapping("/{id}")
+    public ResponseEntity<JobService.Resumo> buscar(
+            @Parameter(description = "ID do job", required = true, example = "1")
+            @PathVariable Long id) {
+        JobService.Resumo resumo = jobService.buscarResumo(id);
+        if (resumo == null) {
+            throw new ResourceNotFoundException("Job", "id", id);
+        }
+        return ResponseEntity.ok(resumo);
+    }
+
+    @Operation(summary = "Iniciar job",
+               description = "Tipos: criptografar-senhas (sem parâmetros) e status-em-massa " +
+                             "({ tipo, statusAtual, status }). Roda em background")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "Job iniciado"),
+        @ApiResponse(responseCode = "400", description = "Tipo ou parâmetros inválidos"),
+        @ApiResponse(responseCode = "422", description = "Já existe um job desse tipo em execução")
+    })
+    @PostMapping("/{tipo}")
+    public ResponseEntity<JobService.Resumo> iniciar(
+            @Parameter(description = "Tipo do job", required = true, example = "criptografar-senhas")
+            @PathVariable String tipo,
+            @RequestBody(required = false) Map<String, String> parametros) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(jobService.iniciar(tipo, parametros));
+    }
+
+    @Operation(summary = "Retomar job", description = "Continua um job que falhou, foi cancelado ou parou, a partir do último checkpoint")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "Job retomado"),
+        @ApiResponse(responseCode = "404", description = "Job não encontrado"),
+        @ApiResponse(responseCode = "422", description = "Job concluído ou já em execução")
+    })
+    @PostMapping("/{id}/retomar")
+    public ResponseEntity<JobService.Resumo> retomar(@PathVariable Long id) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(jobService.retomar(id));
+    }
+
+    @Operation(summary = "Cancelar job", description = "O job termina os blocos em andamento e para, mantendo o checkpoint")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Cancelamento registrado"),
+        @ApiResponse(responseCode = "404", description = "Job não encontrado"),
+        @ApiResponse(responseCode = "422", description = "Job já concluído ou cancelado")
+    })
+    @PostMapping("/{id}/cancelar")
+    public ResponseEntity<JobService.Resumo> cancelar(@PathVariable Long id) {
+        return ResponseEntity.ok(jobService.cancelar(id));
+    }
+}
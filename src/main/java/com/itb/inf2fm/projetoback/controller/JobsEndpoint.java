@@ -0,0 +1,34 @@
+package com.itb.inf2fm.projetoback.controller;
+
+import com.itb.inf2fm.projetoback.service.JobService;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+/**
+ * Endpoint do Actuator com o andamento dos jobs em lote: GET /actuator/jobs e /actuator/jobs/{id}
+ *
+ * Somente leitura; iniciar, retomar e cancelar ficam em /admin/jobs.
+ */
+@Component
+@Endpoint(id = "jobs")
+public class JobsEndpoint {
+
+    private final JobService jobService;
+
+    public JobsEndpoint(JobService jobService) {
+        this.jobService = jobService;
+    }
+
+    @ReadOperation
+    public JobService.Panorama jobs() {
+        return jobService.listar();
+    }
+
+    // null vira 404 no Actuator
+    @ReadOperation
+    public JobService.Resumo job(@Selector Long id) {
+        return jobService.buscarResumo(id);
+    }
+}
@@ -5,8 +5,11 @@
 // Para ReactJS + Vite, utilize fetch/Axios para consumir endpoints REST
 package com.itb.inf2fm.projetoback.controller;
 
+import com.itb.inf2fm.projetoback.dto.TecnicoResumo;
+import com.itb.inf2fm.projetoback.dto.response.PagedResponse;
 import com.itb.inf2fm.projetoback.model.Regiao;
 import com.itb.inf2fm.projetoback.service.RegiaoService;
+import com.itb.inf2fm.projetoback.service.TecnicoService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -20,9 +23,11 @@ import java.util.List;
  * 
  * Endpoints principais:
  * GET /regiao - Listar todas
+ * GET /regiao/paginado - Listar paginado (page, size, sort, count)
  * GET /regiao/ativas - Listar apenas ativas (para dropdowns)
  * GET /regiao/{id} - Buscar por ID
  * GET /regiao/cidade/{cidade} - Buscar por cidade
+ * GET /regiao/{id}/tecnicos - Técnicos vinculados à região
  * POST /regiao - Criar nova
  * PUT /regiao/{id} - Atualizar
  * DELETE /regiao/{id} - Deletar
@@ -34,6 +39,9 @@ public class RegiaoController {
     @Autowired
     private RegiaoService regiaoService;
 
+    @Autowired
+    private TecnicoService tecnicoService;
+
     @PostMapping
     public ResponseEntity<Regiao> createRegiao(@RequestBody Regiao regiao) {
         Regiao regiaoSalva = regiaoService.save(regiao);
@@ -46,6 +54,16 @@ public class RegiaoController {
         return new ResponseEntity<>(regioes, HttpStatus.OK);
     }
 
+    // sort: id, nome, cidade ou statusRegiao (campo,asc|desc); size máximo 100
+    @GetMapping("/paginado")
+    public ResponseEntity<PagedResponse<Regiao>> getRegioesPaginado(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String sort,
+            @RequestParam(defaultValue = "true") boolean count) {
+        return ResponseEntity.ok(PagedResponse.of(regiaoService.listarPaginado(page, size, sort, count)));
+    }
+
     @GetMapping("/ativas")
     public ResponseEntity<List<Regiao>> getRegioesAtivas() {
         List<Regiao> regioes = regiaoService.findByStatus("ATIVO");
@@ -58,6 +76,12 @@ public class RegiaoController {
         return new ResponseEntity<>(regiao, HttpStatus.OK);
     }
 
+    @GetMapping("/{id}/tecnicos")
+    public ResponseEntity<List<TecnicoResumo>> getTecnicosDaRegiao(@PathVariable Long id) {
+        regiaoService.findById(id);
+        return new ResponseEntity<>(tecnicoService.findResumosByRegiao(id), HttpStatus.OK);
+    }
+
     @GetMapping("/nome/{nome}")
     public ResponseEntity<Regiao> getRegiaoByNome(@PathVariable String nome) {
         Regiao regiao = regiaoService.findByNome(nome);
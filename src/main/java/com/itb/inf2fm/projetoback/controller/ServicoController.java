@@ -1,5 +1,6 @@
 package com.itb.inf2fm.projetoback.controller;
 
+import com.itb.inf2fm.projetoback.dto.response.PagedResponse;
 import com.itb.inf2fm.projetoback.model.Servico;
 import com.itb.inf2fm.projetoback.service.ServicoService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -27,6 +28,17 @@ public class ServicoController {
         return ResponseEntity.ok(servicos);
     }
 
+    @GetMapping("/paginado")
+    @Operation(summary = "Listar serviços paginado",
+               description = "size máximo 100; sort: id, nome, tipo ou preco (campo,asc|desc); count=false não calcula os totais")
+    public ResponseEntity<PagedResponse<Servico>> listarPaginado(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String sort,
+            @RequestParam(defaultValue = "true") boolean count) {
+        return ResponseEntity.ok(PagedResponse.of(servicoService.listarPaginado(page, size, sort, count)));
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Buscar serviço por ID")
     public ResponseEntity<Servico> buscarPorId(@PathVariable Long id) {
@@ -5,8 +5,11 @@
 // Para ReactJS + Vite, utilize fetch/Axios para consumir endpoints REST
 package com.itb.inf2fm.projetoback.controller;
 
+import com.itb.inf2fm.projetoback.dto.TecnicoProximo;
+import com.itb.inf2fm.projetoback.dto.TecnicoResumo;
+import com.itb.inf2fm.projetoback.dto.response.PagedResponse;
 import com.itb.inf2fm.projetoback.model.Tecnico;
-import com.itb.inf2fm.projetoback.model.TecnicoRegiao;
+import com.itb.inf2fm.projetoback.model.Regiao;
 import com.itb.inf2fm.projetoback.service.PasswordEncryptService;
 import com.itb.inf2fm.projetoback.service.TecnicoService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -26,6 +29,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
@@ -110,30 +114,63 @@ public class TecnicoController {
             }
         }
 
-        // ROTA GET
+        // ROTA GET - cartões resumidos; o técnico completo está em GET /tecnico/{id}
         @GetMapping
-        public ResponseEntity<List<Tecnico>> getAllTecnicos(){
+        public ResponseEntity<List<TecnicoResumo>> getAllTecnicos(){
             return ResponseEntity.status(HttpStatus.OK)
-                    .body(tecnicoService.findAll());
+                    .body(tecnicoService.listarResumos());
+        }
+
+        @Operation(summary = "Listar técnicos paginado",
+                   description = "Cartões resumidos (size máximo 100). sort: id, nome, especialidade ou statusTecnico, " +
+                                 "como campo,asc|desc. count=false não calcula os totais")
+        @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página retornada com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Página, tamanho ou ordenação inválidos")
+        })
+        @GetMapping("/paginado")
+        public ResponseEntity<PagedResponse<TecnicoResumo>> getTecnicosPaginado(
+                @RequestParam(defaultValue = "0") int page,
+                @RequestParam(defaultValue = "20") int size,
+                @RequestParam(required = false) String sort,
+                @RequestParam(defaultValue = "true") boolean count) {
+            return ResponseEntity.ok(PagedResponse.of(tecnicoService.listarResumosPaginado(page, size, sort, count)));
         }
         
         @Operation(summary = "Buscar técnicos por nome", description = "Retorna uma lista de técnicos que contenham o nome fornecido")
         @ApiResponse(responseCode = "200", description = "Lista de técnicos encontrados")
         @GetMapping("/buscar/{nome}")
-        public ResponseEntity<List<Tecnico>> buscarTecnicosPorNome(
+        public ResponseEntity<List<TecnicoResumo>> buscarTecnicosPorNome(
                 @Parameter(description = "Nome ou parte do nome do técnico") 
                 @PathVariable String nome) {
-            List<Tecnico> tecnicos = tecnicoService.findByNome(nome);
+            List<TecnicoResumo> tecnicos = tecnicoService.buscarResumosPorNome(nome);
             return ResponseEntity.ok(tecnicos);
         }
         
+        @Operation(summary = "Buscar técnicos próximos", description = "Retorna os k técnicos ativos mais próximos do CEP, opcionalmente filtrados por especialidade")
+        @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Técnicos do mais ao menos próximo, com a distância em km"),
+            @ApiResponse(responseCode = "400", description = "CEP ou quantidade inválidos"),
+            @ApiResponse(responseCode = "404", description = "CEP sem coordenada cadastrada")
+        })
+        @GetMapping("/proximos")
+        public ResponseEntity<List<TecnicoProximo>> buscarTecnicosProximos(
+                @Parameter(description = "CEP de referência", required = true, example = "01310-100")
+                @RequestParam String cep,
+                @Parameter(description = "Especialidade do técnico")
+                @RequestParam(required = false) String especialidade,
+                @Parameter(description = "Quantidade de técnicos (1 a 50)", example = "5")
+                @RequestParam(defaultValue = "5") int k) {
+            return ResponseEntity.ok(tecnicoService.buscarProximos(cep, especialidade, k));
+        }
+        
         @GetMapping("/especialidades")
         public List<String> getEspecialidades() {
             return tecnicoService.getEspecialidades();
         }
         
         @GetMapping("/{id}/regioes")
-        public ResponseEntity<List<TecnicoRegiao>> getRegioesTecnico(@PathVariable Long id) {
+        public ResponseEntity<List<Regiao>> getRegioesTecnico(@PathVariable Long id) {
             try {
                 return ResponseEntity.ok(tecnicoService.getRegioesByTecnico(id));
             } catch (Exception e) {
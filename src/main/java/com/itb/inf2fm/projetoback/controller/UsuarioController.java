@@ -6,15 +6,20 @@
 package com.itb.inf2fm.projetoback.controller;
 
 import com.itb.inf2fm.projetoback.model.Usuario;
+import com.itb.inf2fm.projetoback.service.UsuarioFotoService;
 import com.itb.inf2fm.projetoback.service.UsuarioService;
 import com.itb.inf2fm.projetoback.dto.request.LoginRequest;
+import com.itb.inf2fm.projetoback.dto.response.PagedResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -23,7 +28,11 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
 
 import java.util.List;
 
@@ -33,9 +42,11 @@ import java.util.List;
 public class UsuarioController {
 
     private final UsuarioService usuarioService;
+    private final UsuarioFotoService usuarioFotoService;
     
-    public UsuarioController(UsuarioService usuarioService) {
+    public UsuarioController(UsuarioService usuarioService, UsuarioFotoService usuarioFotoService) {
         this.usuarioService = usuarioService;
+        this.usuarioFotoService = usuarioFotoService;
     }
 
     @Operation(summary = "Criar novo usuário", description = "Cria um novo usuário no sistema")
@@ -59,6 +70,22 @@ public class UsuarioController {
         return ResponseEntity.ok(usuarios);
     }
 
+    @Operation(summary = "Listar usuários paginado",
+               description = "Página de usuários (size máximo 100). sort: id, nome, email, dataCadastro, statusUsuario ou nivelAcesso, " +
+                             "como campo,asc|desc. count=false não calcula os totais")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Página retornada com sucesso"),
+        @ApiResponse(responseCode = "400", description = "Página, tamanho ou ordenação inválidos")
+    })
+    @GetMapping("/paginado")
+    public ResponseEntity<PagedResponse<Usuario>> getUsuariosPaginado(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String sort,
+            @RequestParam(defaultValue = "true") boolean count) {
+        return ResponseEntity.ok(PagedResponse.of(usuarioService.listarPaginado(page, size, sort, count)));
+    }
+
     @Operation(summary = "Buscar usuário por ID", description = "Retorna um usuário específico baseado no ID fornecido")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Usuário encontrado"),
@@ -128,6 +155,47 @@ public class UsuarioController {
         return login(loginRequest); // Delega para o método login existente
     }
     
+    @Operation(summary = "Foto do usuário", description = "Retorna a imagem da foto do usuário (URL usada em fotoUrl), " +
+            "ou a miniatura quadrada com size=64 ou size=128. Aceita Range (206) e If-None-Match (304)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Imagem da foto"),
+        @ApiResponse(responseCode = "206", description = "Trecho da imagem pedido no header Range"),
+        @ApiResponse(responseCode = "304", description = "Foto não mudou desde o ETag informado"),
+        @ApiResponse(responseCode = "400", description = "Tamanho de miniatura inválido"),
+        @ApiResponse(responseCode = "404", description = "Usuário sem foto ou não encontrado")
+    })
+    @GetMapping("/{id}/foto")
+    public ResponseEntity<Resource> getFotoUsuario(
+            @Parameter(description = "ID do usuário") 
+            @PathVariable Long id,
+            @Parameter(description = "Lado da miniatura em px (64 ou 128); sem o parâmetro, a foto original") 
+            @RequestParam(required = false) Integer size) {
+        UsuarioFotoService.Foto foto = usuarioFotoService.buscar(id, size);
+        // Content-Length, Accept-Ranges/206 e o 304 do If-None-Match ficam com o Spring MVC
+        return ResponseEntity.ok()
+                .contentType(foto.tipo())
+                .eTag(foto.etag())
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(foto.conteudo());
+    }
+
+    @Operation(summary = "Enviar foto do usuário", description = "Upload multipart da foto (JPEG, PNG ou GIF, até 5 MB), " +
+            "gravado por stream sem carregar o arquivo em memória")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "204", description = "Foto gravada"),
+        @ApiResponse(responseCode = "400", description = "Arquivo vazio, acima do limite ou formato não suportado"),
+        @ApiResponse(responseCode = "404", description = "Usuário não encontrado")
+    })
+    @PutMapping(value = "/{id}/foto", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<Void> atualizarFotoUsuario(
+            @Parameter(description = "ID do usuário") 
+            @PathVariable Long id,
+            @Parameter(description = "Arquivo da imagem") 
+            @RequestParam("foto") MultipartFile foto) throws IOException {
+        usuarioFotoService.salvar(id, foto.getInputStream(), foto.getSize());
+        return ResponseEntity.noContent().build();
+    }
+    
     @Operation(summary = "Buscar usuários por nome", description = "Retorna uma lista de usuários que contenham o nome fornecido")
     @ApiResponse(responseCode = "200", description = "Lista de usuários encontrados")
     @GetMapping("/buscar/{nome}")
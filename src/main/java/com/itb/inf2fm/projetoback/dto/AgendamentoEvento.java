@@ -0,0 +1,39 @@
+package com.itb.inf2fm.projetoback.dto;
+
+/**
+ * Evento de alteração de agendamento enviado aos técnicos via Server-Sent Events
+ */
+public class AgendamentoEvento {
+
+    public enum Tipo { CRIADO, ATUALIZADO, REMOVIDO }
+
+    private final long sequencia;
+    private final Tipo tipo;
+    private final Long agendamentoId;
+    private final Long tecnicoId;
+    private final AgendamentoResponse agendamento;
+
+    public AgendamentoEvento(long sequencia, Tipo tipo, Long agendamentoId, Long tecnicoId,
+                             AgendamentoResponse agendamento) {
+        this.sequencia = sequencia;
+        this.tipo = tipo;
+        this.agendamentoId = agendamentoId;
+        this.tecnicoId = tecnicoId;
+        this.agendamento = agendamento;
+    }
+
+    public AgendamentoEvento comSequencia(long sequencia) {
+        return new AgendamentoEvento(sequencia, tipo, agendamentoId, tecnicoId, agendamento);
+    }
+
+    public AgendamentoEvento comTipo(Tipo tipo) {
+        return new AgendamentoEvento(sequencia, tipo, agendamentoId, tecnicoId, agendamento);
+    }
+
+    // Getters
+    public long getSequencia() { return sequencia; }
+    public Tipo getTipo() { return tipo; }
+    public Long getAgendamentoId() { return agendamentoId; }
+    public Long getTecnicoId() { return tecnicoId; }
+    public AgendamentoResponse getAgendamento() { return agendamento; }
+}
@@ -17,6 +17,9 @@ public class AgendamentoRequest {
     private double preco;
     private String status;
     private String situacao;
+    // Atribuição automática: sem tecnicoId, o técnico é escolhido pelo tipo do serviço, região e horário
+    private boolean autoAtribuir;
+    private Long regiaoId;
 
     public Long getUsuarioId() {
         return usuarioId;
@@ -129,4 +132,20 @@ public class AgendamentoRequest {
     public void setSituacao(String situacao) {
         this.situacao = situacao;
     }
+
+    public boolean isAutoAtribuir() {
+        return autoAtribuir;
+    }
+
+    public void setAutoAtribuir(boolean autoAtribuir) {
+        this.autoAtribuir = autoAtribuir;
+    }
+
+    public Long getRegiaoId() {
+        return regiaoId;
+    }
+
+    public void setRegiaoId(Long regiaoId) {
+        this.regiaoId = regiaoId;
+    }
 }
\ No newline at end of file
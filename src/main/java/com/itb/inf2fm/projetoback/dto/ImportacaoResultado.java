@@ -0,0 +1,68 @@
+package com.itb.inf2fm.projetoback.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resumo de uma importação em massa, com os erros por linha do arquivo
+ */
+public class ImportacaoResultado {
+
+    private final String tipo;
+    private final int limiteErros;
+    private long totalLinhas;
+    private long importados;
+    private long comErro;
+    private long duracaoMs;
+    private final List<ErroLinha> erros = new ArrayList<>();
+
+    public ImportacaoResultado(String tipo, int limiteErros) {
+        this.tipo = tipo;
+        this.limiteErros = limiteErros;
+    }
+
+    public void registrarLinha() {
+        totalLinhas++;
+    }
+
+    public void registrarImportados(int quantidade) {
+        importados += quantidade;
+    }
+
+    /**
+     * Conta o erro; só guarda a mensagem até o limite, para manter a memória constante
+     */
+    public void registrarErro(long linha, String mensagem) {
+        comErro++;
+        if (erros.size() < limiteErros) {
+            erros.add(new ErroLinha(linha, mensagem));
+        }
+    }
+
+    public void setDuracaoMs(long duracaoMs) {
+        this.duracaoMs = duracaoMs;
+    }
+
+    // Getters
+    public String getTipo() { return tipo; }
+    public long getTotalLinhas() { return totalLinhas; }
+    public long getImportados() { return importados; }
+    public long getComErro() { return comErro; }
+    public long getDuracaoMs() { return duracaoMs; }
+    public List<ErroLinha> getErros() { return erros; }
+    public long getErrosOmitidos() { return comErro - erros.size(); }
+    public long getLinhasPorSegundo() { return duracaoMs > 0 ? importados * 1000 / duracaoMs : importados; }
+
+    public static class ErroLinha {
+        private final long linha;
+        private final String mensagem;
+
+        public ErroLinha(long linha, String mensagem) {
+            this.linha = linha;
+            this.mensagem = mensagem;
+        }
+
+        public long getLinha() { return linha; }
+        public String getMensagem() { return mensagem; }
+    }
+}
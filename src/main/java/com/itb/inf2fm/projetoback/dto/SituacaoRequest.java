@@ -0,0 +1,13 @@
+package com.itb.inf2fm.projetoback.dto;
+
+public class SituacaoRequest {
+    private String situacao;
+
+    public String getSituacao() {
+        return situacao;
+    }
+
+    public void setSituacao(String situacao) {
+        this.situacao = situacao;
+    }
+}
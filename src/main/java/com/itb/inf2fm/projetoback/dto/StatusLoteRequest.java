@@ -0,0 +1,27 @@
+package com.itb.inf2fm.projetoback.dto;
+
+import java.util.List;
+
+/**
+ * Ativação/inativação em massa: ids do recurso e o novo status (ATIVO ou INATIVO)
+ */
+public class StatusLoteRequest {
+    private List<Long> ids;
+    private String status;
+
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+}
@@ -0,0 +1,7 @@
+package com.itb.inf2fm.projetoback.dto;
+
+/**
+ * Técnico retornado pela busca por proximidade, com a distância até o CEP informado
+ */
+public record TecnicoProximo(TecnicoResumo tecnico, double distanciaKm) {
+}
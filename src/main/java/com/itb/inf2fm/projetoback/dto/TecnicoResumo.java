@@ -0,0 +1,39 @@
+package com.itb.inf2fm.projetoback.dto;
+
+import com.itb.inf2fm.projetoback.model.Regiao;
+import com.itb.inf2fm.projetoback.model.Tecnico;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Cartão resumido do técnico para listagens e buscas
+ *
+ * Não carrega a foto (apenas a URL para baixá-la), nem o usuário completo ou as regiões.
+ */
+public record TecnicoResumo(Long id,
+                            String nome,
+                            String especialidade,
+                            String status,
+                            List<Long> regiaoIds,
+                            String fotoUrl) {
+
+    public static String urlFoto(Long usuarioId, boolean possuiFoto) {
+        return possuiFoto ? "/usuario/" + usuarioId + "/foto" : null;
+    }
+
+    /**
+     * Monta o resumo a partir da entidade (regiões já carregadas)
+     */
+    public static TecnicoResumo de(Tecnico tecnico) {
+        Long usuarioId = tecnico.getUsuario() != null ? tecnico.getUsuario().getId() : null;
+        List<Long> regiaoIds = tecnico.getRegioes() == null ? List.of()
+                : tecnico.getRegioes().stream().map(Regiao::getId).filter(Objects::nonNull).toList();
+        return new TecnicoResumo(tecnico.getId(),
+                tecnico.getUsuario() != null ? tecnico.getUsuario().getNome() : null,
+                tecnico.getEspecialidade(),
+                tecnico.getStatusTecnico(),
+                regiaoIds,
+                urlFoto(usuarioId, tecnico.getUsuario() != null && tecnico.getUsuario().isPossuiFoto()));
+    }
+}
@@ -3,12 +3,16 @@ package com.itb.inf2fm.projetoback.dto.response;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import io.swagger.v3.oas.annotations.media.Schema;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
 
 /**
  * Classe para respostas paginadas
  * Encapsula dados de paginação de forma padronizada
+ *
+ * Montada a partir de um Slice (sem COUNT), totalElements e totalPages ficam de fora do JSON;
+ * use hasNext para saber se há próxima página.
  */
 @JsonInclude(JsonInclude.Include.NON_NULL)
 @Schema(description = "Resposta paginada da API")
@@ -23,11 +27,11 @@ public class PagedResponse<T> {
     @Schema(description = "Tamanho da página", example = "20")
     private int size;
 
-    @Schema(description = "Total de elementos", example = "150")
-    private long totalElements;
+    @Schema(description = "Total de elementos (ausente no modo sem contagem)", example = "150")
+    private Long totalElements;
 
-    @Schema(description = "Total de páginas", example = "8")
-    private int totalPages;
+    @Schema(description = "Total de páginas (ausente no modo sem contagem)", example = "8")
+    private Integer totalPages;
 
     @Schema(description = "Indica se é a primeira página", example = "true")
     private boolean first;
@@ -41,23 +45,29 @@ public class PagedResponse<T> {
     @Schema(description = "Indica se a página está vazia", example = "false")
     private boolean empty;
 
+    @Schema(description = "Indica se existe uma próxima página", example = "true")
+    private boolean hasNext;
+
     public PagedResponse() {}
 
-    public PagedResponse(Page<T> page) {
-        this.content = page.getContent();
-        this.page = page.getNumber();
-        this.size = page.getSize();
-        this.totalElements = page.getTotalElements();
-        this.totalPages = page.getTotalPages();
-        this.first = page.isFirst();
-        this.last = page.isLast();
-        this.numberOfElements = page.getNumberOfElements();
-        this.empty = page.isEmpty();
+    public PagedResponse(Slice<T> slice) {
+        this.content = slice.getContent();
+        this.page = slice.getNumber();
+        this.size = slice.getSize();
+        if (slice instanceof Page<T> page) {
+            this.totalElements = page.getTotalElements();
+            this.totalPages = page.getTotalPages();
+        }
+        this.first = slice.isFirst();
+        this.last = slice.isLast();
+        this.numberOfElements = slice.getNumberOfElements();
+        this.empty = slice.isEmpty();
+        this.hasNext = slice.hasNext();
     }
 
     // Factory method
-    public static <T> PagedResponse<T> of(Page<T> page) {
-        return new PagedResponse<>(page);
+    public static <T> PagedResponse<T> of(Slice<T> slice) {
+        return new PagedResponse<>(slice);
     }
 
     // Getters e Setters
@@ -85,19 +95,19 @@ public class PagedResponse<T> {
         this.size = size;
     }
 
-    public long getTotalElements() {
+    public Long getTotalElements() {
         return totalElements;
     }
 
-    public void setTotalElements(long totalElements) {
+    public void setTotalElements(Long totalElements) {
         this.totalElements = totalElements;
     }
 
-    public int getTotalPages() {
+    public Integer getTotalPages() {
         return totalPages;
     }
 
-    public void setTotalPages(int totalPages) {
+    public void setTotalPages(Integer totalPages) {
         this.totalPages = totalPages;
     }
 
@@ -132,4 +142,12 @@ public class PagedResponse<T> {
     public void setEmpty(boolean empty) {
         this.empty = empty;
     }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public void setHasNext(boolean hasNext) {
+        this.hasNext = hasNext;
+    }
 }
@@ -1,5 +1,6 @@
 package com.itb.inf2fm.projetoback.exception;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.itb.inf2fm.projetoback.dto.response.ApiResponse;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.ConstraintViolationException;
@@ -9,6 +10,7 @@ import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.AuthenticationException;
@@ -17,6 +19,7 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -308,6 +311,42 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
     }
 
+    /**
+     * Trata corpo de requisição ilegível (JSON malformado, Base64 inválido ou arquivo acima do limite)
+     */
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<ApiResponse<Object>> handleHttpMessageNotReadableException(
+            HttpMessageNotReadableException ex, HttpServletRequest request) {
+        
+        String detalhe = ex.getCause() instanceof JsonProcessingException jsonException
+            ? jsonException.getOriginalMessage()
+            : "Verifique o formato do corpo enviado";
+        ApiResponse<Object> response = ApiResponse.error("Corpo da requisição inválido", detalhe);
+        response.setPath(request.getRequestURI());
+
+        logger.warn("Corpo ilegível na rota {}: {}", sanitizeForLog(request.getRequestURI()), sanitizeForLog(detalhe));
+        
+        return ResponseEntity.badRequest().body(response);
+    }
+
+    /**
+     * Trata uploads acima do limite do multipart (spring.servlet.multipart.max-file-size)
+     */
+    @ExceptionHandler(MaxUploadSizeExceededException.class)
+    public ResponseEntity<ApiResponse<Object>> handleMaxUploadSizeExceededException(
+            MaxUploadSizeExceededException ex, HttpServletRequest request) {
+        
+        ApiResponse<Object> response = ApiResponse.error(
+            "Arquivo muito grande",
+            "O arquivo enviado excede o tamanho máximo permitido"
+        );
+        response.setPath(request.getRequestURI());
+
+        logger.warn("Upload acima do limite na rota {}", sanitizeForLog(request.getRequestURI()));
+        
+        return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(response);
+    }
+
     /**
      * Trata todas as outras exceções não previstas
      */
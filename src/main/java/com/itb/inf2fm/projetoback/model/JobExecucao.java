@@ -0,0 +1,168 @@
+package com.itb.inf2fm.projetoback.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * Execução de um job em lote (ver JobService)
+ *
+ * ultimoId é o checkpoint: todos os ids até ele já foram processados. Depois de uma queda ou
+ * deploy, o job continua a partir dele em vez de recomeçar do zero.
+ */
+@Entity
+@Table(name = "JobExecucao", indexes = {
+    @Index(name = "idx_job_status", columnList = "status")
+})
+public class JobExecucao {
+
+    public static final String EXECUTANDO = "EXECUTANDO";
+    public static final String CONCLUIDO = "CONCLUIDO";
+    public static final String FALHOU = "FALHOU";
+    public static final String CANCELADO = "CANCELADO";
+
+    public JobExecucao() {
+    }
+
+    public JobExecucao(String tipo, String parametros) {
+        this.tipo = tipo;
+        this.parametros = parametros;
+        this.status = EXECUTANDO;
+        this.ultimoId = 0L;
+        this.processados = 0L;
+        this.alterados = 0L;
+        this.inicio = LocalDateTime.now();
+        this.atualizadoEm = this.inicio;
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "tipo", length = 50, nullable = false)
+    private String tipo;
+
+    // Parâmetros do job em JSON (objeto com valores texto)
+    @Column(name = "parametros", length = 1000, nullable = false)
+    private String parametros;
+
+    @Column(name = "status", length = 20, nullable = false)
+    private String status; // EXECUTANDO, CONCLUIDO, FALHOU ou CANCELADO
+
+    @Column(name = "ultimoId", nullable = false)
+    private Long ultimoId;
+
+    // Ids percorridos até o checkpoint
+    @Column(name = "processados", nullable = false)
+    private Long processados;
+
+    // Linhas efetivamente alteradas até o checkpoint
+    @Column(name = "alterados", nullable = false)
+    private Long alterados;
+
+    @Column(name = "inicio", nullable = false)
+    private LocalDateTime inicio;
+
+    @Column(name = "atualizadoEm", nullable = false)
+    private LocalDateTime atualizadoEm;
+
+    @Column(name = "fim")
+    private LocalDateTime fim;
+
+    @Column(name = "erro", length = 1000)
+    private String erro;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTipo() {
+        return tipo;
+    }
+
+    public void setTipo(String tipo) {
+        this.tipo = tipo;
+    }
+
+    public String getParametros() {
+        return parametros;
+    }
+
+    public void setParametros(String parametros) {
+        this.parametros = parametros;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Long getUltimoId() {
+        return ultimoId;
+    }
+
+    public void setUltimoId(Long ultimoId) {
+        this.ultimoId = ultimoId;
+    }
+
+    public Long getProcessados() {
+        return processados;
+    }
+
+    public void setProcessados(Long processados) {
+        this.processados = processados;
+    }
+
+    public Long getAlterados() {
+        return alterados;
+    }
+
+    public void setAlterados(Long alterados) {
+        this.alterados = alterados;
+    }
+
+    public LocalDateTime getInicio() {
+        return inicio;
+    }
+
+    public void setInicio(LocalDateTime inicio) {
+        this.inicio = inicio;
+    }
+
+    public LocalDateTime getAtualizadoEm() {
+        return atualizadoEm;
+    }
+
+    public void setAtualizadoEm(LocalDateTime atualizadoEm) {
+        this.atualizadoEm = atualizadoEm;
+    }
+
+    public LocalDateTime getFim() {
+        return fim;
+    }
+
+    public void setFim(LocalDateTime fim) {
+        this.fim = fim;
+    }
+
+    public String getErro() {
+        return erro;
+    }
+
+    public void setErro(String erro) {
+        this.erro = erro;
+    }
+}
@@ -2,6 +2,8 @@ package com.itb.inf2fm.projetoback.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
+import org.springframework.data.domain.Persistable;
 import org.springframework.format.annotation.DateTimeFormat;
 
 import java.time.LocalDate;
@@ -9,8 +11,9 @@ import java.util.List;
 
 @Entity
 @Table(name = "Tecnico")
-public class Tecnico {
+public class Tecnico implements Persistable<Long> {
 
+    // Chave primária compartilhada: o id do técnico é o id do seu usuário (atribuído em @PrePersist)
     @Id
     private Long id;
 
@@ -46,7 +49,10 @@ public class Tecnico {
     @Column(name = "statusTecnico", length = 20, nullable = false)
     private String statusTecnico;
 
-    @ManyToMany(fetch = FetchType.EAGER)
+    // LAZY: carregado só quando necessário; em listas, inicializado em lotes via @BatchSize
+    // ou junto com o técnico pelos métodos @EntityGraph do TecnicoRepository
+    @ManyToMany(fetch = FetchType.LAZY)
+    @BatchSize(size = 50)
     @JoinTable(
             name = "TecnicoRegiao",
             joinColumns = @JoinColumn(name = "tecnico_id"),
@@ -60,6 +66,12 @@ public class Tecnico {
     @Transient
     private boolean isValid = true;
 
+    // Com id atribuído, o Spring Data não sabe se a entidade é nova pelo id nulo;
+    // o flag evita o SELECT do merge e faz o save() virar um INSERT (agrupável em lote)
+    @Transient
+    @JsonIgnore
+    private boolean novo = true;
+
     public Tecnico() {
     }
 
@@ -191,4 +203,31 @@ public class Tecnico {
         this.regioes = regioes;
     }
 
+    @Override
+    @JsonIgnore
+    public boolean isNew() {
+        return novo;
+    }
+
+    /**
+     * Marca um técnico montado fora do contexto de persistência como já existente no banco,
+     * para que o save() faça merge em vez de INSERT
+     */
+    public void marcarExistente() {
+        this.novo = false;
+    }
+
+    @PrePersist
+    private void definirIdPeloUsuario() {
+        if (id == null && usuario != null) {
+            id = usuario.getId();
+        }
+    }
+
+    @PostLoad
+    @PostPersist
+    private void marcarPersistido() {
+        this.novo = false;
+    }
+
 }
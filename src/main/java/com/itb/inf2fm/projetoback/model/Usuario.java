@@ -4,8 +4,10 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.itb.inf2fm.projetoback.util.Base64ToByteArrayDeserializer;
+import jakarta.persistence.Basic;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -17,6 +19,7 @@ import jakarta.persistence.Transient;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Formula;
 import org.springframework.format.annotation.DateTimeFormat;
 
 import java.io.Serializable;
@@ -67,11 +70,26 @@ public class Usuario implements Serializable {
     @Column(name = "nivelAcesso", length = 10)
     private String nivelAcesso; // ADMIN ou USER
 
+    // LAZY via bytecode enhancement (hibernate-enhance-maven-plugin): só é lido quando getFoto() é chamado.
+    // Não sai no JSON; a imagem é servida por GET /usuario/{id}/foto
+    // foto e fotoHash ficam fora do UPDATE da entidade: só mudam pelas UPDATEs do UsuarioRepository
     @Lob
-    @Column(name = "foto")
+    @Basic(fetch = FetchType.LAZY)
+    @Column(name = "foto", updatable = false)
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     @JsonDeserialize(using = Base64ToByteArrayDeserializer.class)
     private byte[] foto;
 
+    // SHA-256 da foto no MidiaStore; fotos antigas ficam no blob até a migração
+    @Column(name = "fotoHash", length = 64, updatable = false)
+    @JsonIgnore
+    private String fotoHash;
+
+    // Calculado no SELECT, sem ler o blob
+    @Formula("CASE WHEN foto IS NULL AND fotoHash IS NULL THEN 0 ELSE 1 END")
+    @JsonIgnore
+    private Boolean possuiFoto;
+
     @Column(name = "dataCadastro", nullable = false)
     @DateTimeFormat(pattern = "dd/MM/yyyy HH:mm:ss")
     private LocalDateTime dataCadastro;
@@ -136,6 +154,39 @@ public class Usuario implements Serializable {
 
     public void setFoto(byte[] foto) {
         this.foto = foto;
+        this.possuiFoto = foto != null || fotoHash != null;
+    }
+
+    public String getFotoHash() {
+        return fotoHash;
+    }
+
+    public void setFotoHash(String fotoHash) {
+        this.fotoHash = fotoHash;
+        // Não consulta o campo foto: a leitura carregaria o blob LAZY
+        if (fotoHash != null) {
+            this.possuiFoto = true;
+        }
+    }
+
+    @JsonIgnore
+    public boolean isPossuiFoto() {
+        return Boolean.TRUE.equals(possuiFoto);
+    }
+
+    /**
+     * Copia o estado da foto do usuário gravado, para uma atualização sem foto nova
+     */
+    public void manterFotoDe(Usuario atual) {
+        this.fotoHash = atual.fotoHash;
+        this.possuiFoto = atual.possuiFoto;
+    }
+
+    /**
+     * Endereço da foto para os clientes; null se o usuário não tiver foto
+     */
+    public String getFotoUrl() {
+        return id != null && isPossuiFoto() ? "/usuario/" + id + "/foto" : null;
     }
 
     public LocalDateTime getDataCadastro() {
@@ -2,9 +2,14 @@ package com.itb.inf2fm.projetoback.repository;
 
 import com.itb.inf2fm.projetoback.model.Agendamento;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -12,4 +17,14 @@ public interface AgendamentoRepository extends JpaRepository<Agendamento, Long>
     List<Agendamento> findByUsuarioId(Long usuarioId);
     List<Agendamento> findByTecnicoId(Long tecnicoId);
     List<Agendamento> findByDataAgendamento(LocalDate dataAgendamento);
-}
\ No newline at end of file
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Agendamento a SET a.situacao = :situacao WHERE a.id IN :ids")
+    int atualizarSituacao(@Param("situacao") String situacao, @Param("ids") Collection<Long> ids);
+
+    // Base da atribuição automática: id, tecnicoId, data, hora, situação
+    @Query("SELECT a.id, a.tecnico.id, a.dataAgendamento, a.horaAgendamento, a.situacao FROM Agendamento a " +
+           "WHERE a.tecnico IS NOT NULL AND a.dataAgendamento >= :inicio")
+    List<Object[]> findComTecnicoAPartirDe(@Param("inicio") LocalDate inicio);
+}
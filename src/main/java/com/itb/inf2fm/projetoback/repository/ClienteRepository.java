@@ -1,28 +1,62 @@
-// Repositório JPA para Cliente
-// Use este repositório para operações CRUD e consultas customizadas
-// Integração com Frontend: endpoints REST consomem métodos deste repositório
-// Flutter/ReactJS: Utilize endpoints como /cliente, /cliente/{id}, /cliente?email= para buscar dados
-// Métodos findByEmail, findByCpf e findByUsuarioEmail facilitam autenticação e busca por dados únicos
-// Para integração com Vite/ReactJS, utilize fetch/Axios para consumir endpoints REST
-// Para integração com Flutter, utilize pacotes como http/dio para consumir endpoints REST
-package com.itb.inf2fm.projetoback.repository;
-
-import com.itb.inf2fm.projetoback.model.Cliente;
-import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.stereotype.Repository;
-
-import java.util.List;
-import java.util.Optional;
-
-@Repository
-public interface ClienteRepository extends JpaRepository<Cliente, Long> {
-    Optional<Cliente> findByCpf(String cpf);
-
-    Optional<Cliente> findByUsuarioEmail(String email);
-    
-    List<Cliente> findByStatusCliente(String statusCliente);
-    
-    boolean existsByCpf(String cpf);
-    
-    List<Cliente> findByUsuarioNomeContainingIgnoreCase(String nome);
-}
+// Repositório JPA para Cliente
+// Use este repositório para operações CRUD e consultas customizadas
+// Integração com Frontend: endpoints REST consomem métodos deste repositório
+// Flutter/ReactJS: Utilize endpoints como /cliente, /cliente/{id}, /cliente?email= para buscar dados
+// Métodos findByEmail, findByCpf e findByUsuarioEmail facilitam autenticação e busca por dados únicos
+// Para integração com Vite/ReactJS, utilize fetch/Axios para consumir endpoints REST
+// Para integração com Flutter, utilize pacotes como http/dio para consumir endpoints REST
+package com.itb.inf2fm.projetoback.repository;
+
+import com.itb.inf2fm.projetoback.model.Cliente;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+@Repository
+public interface ClienteRepository extends JpaRepository<Cliente, Long> {
+    Optional<Cliente> findByCpf(String cpf);
+
+    Optional<Cliente> findByUsuarioEmail(String email);
+    
+    List<Cliente> findByStatusCliente(String statusCliente);
+    
+    boolean existsByCpf(String cpf);
+    
+    // Leitura em stream (precisa de transação aberta) para montar o filtro de unicidade
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT c.cpf FROM Cliente c")
+    Stream<String> streamCpfs();
+    
+    // CPFs da lista que já estão cadastrados (importação em massa)
+    @Query("SELECT c.cpf FROM Cliente c WHERE c.cpf IN :cpfs")
+    List<String> findCpfIn(@Param("cpfs") Collection<String> cpfs);
+    
+    List<Cliente> findByUsuarioNomeContainingIgnoreCase(String nome);
+    
+    List<Cliente> findByUsuarioIdIn(Collection<Long> usuarioIds);
+    
+    // Listagem paginada com o usuário na mesma consulta (sem N+1)
+    @EntityGraph(attributePaths = "usuario")
+    @Query(value = "SELECT c FROM Cliente c", countQuery = "SELECT COUNT(c) FROM Cliente c")
+    Page<Cliente> findPaginaComUsuario(Pageable pageable);
+    
+    @EntityGraph(attributePaths = "usuario")
+    @Query("SELECT c FROM Cliente c")
+    Slice<Cliente> findFatiaComUsuario(Pageable pageable);
+    
+    @Query("SELECT c.id FROM Cliente c WHERE c.statusCliente = :status AND c.id > :ultimoId ORDER BY c.id")
+    List<Long> findIdsPorStatus(@Param("status") String status, @Param("ultimoId") Long ultimoId, Pageable pageable);
+}
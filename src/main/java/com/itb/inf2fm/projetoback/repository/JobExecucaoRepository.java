@@ -0,0 +1,34 @@
+package com.itb.inf2fm.projetoback.repository;
+
+import com.itb.inf2fm.projetoback.model.JobExecucao;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface JobExecucaoRepository extends JpaRepository<JobExecucao, Long> {
+
+    List<JobExecucao> findByStatus(String status);
+
+    List<JobExecucao> findTop20ByOrderByIdDesc();
+
+    // Avança o checkpoint e soma os contadores do bloco em um único UPDATE
+    @Modifying
+    @Transactional
+    @Query("UPDATE JobExecucao j SET j.ultimoId = :ultimoId, j.processados = j.processados + :processados, " +
+           "j.alterados = j.alterados + :alterados, j.atualizadoEm = :agora WHERE j.id = :id")
+    int registrarCheckpoint(@Param("id") Long id, @Param("ultimoId") Long ultimoId, @Param("processados") long processados,
+                            @Param("alterados") long alterados, @Param("agora") LocalDateTime agora);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE JobExecucao j SET j.status = :status, j.erro = :erro, j.fim = :agora, j.atualizadoEm = :agora WHERE j.id = :id")
+    int finalizar(@Param("id") Long id, @Param("status") String status, @Param("erro") String erro,
+                  @Param("agora") LocalDateTime agora);
+}
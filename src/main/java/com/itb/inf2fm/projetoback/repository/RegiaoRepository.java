@@ -4,6 +4,7 @@ import com.itb.inf2fm.projetoback.model.Regiao;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,4 +20,6 @@ public interface RegiaoRepository extends JpaRepository<Regiao, Long> {
     boolean existsByNome(String nome);
     
     Optional<Regiao> findByNomeAndCidade(String nome, String cidade);
+    
+    List<Regiao> findByNomeIn(Collection<String> nomes);
 }
@@ -1,6 +1,8 @@
 package com.itb.inf2fm.projetoback.repository;
 
 import com.itb.inf2fm.projetoback.model.Servico;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -17,4 +19,7 @@ public interface ServicoRepository extends JpaRepository<Servico, Long> {
     
     @Query("SELECT s FROM Servico s WHERE s.nome LIKE %:termo% OR s.tipo LIKE %:termo%")
     List<Servico> buscarPorTermo(@Param("termo") String termo);
+    
+    // Página sem COUNT(*): busca size + 1 linhas para saber se há próxima
+    Slice<Servico> findAllBy(Pageable pageable);
 }
\ No newline at end of file
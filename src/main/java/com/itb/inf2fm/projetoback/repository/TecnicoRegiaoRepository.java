@@ -8,6 +8,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -19,6 +20,18 @@ public interface TecnicoRegiaoRepository extends JpaRepository<TecnicoRegiao, Lo
     
     List<TecnicoRegiao> findByStatusTecnicoRegiao(String statusTecnicoRegiao);
     
+    @Query("SELECT tr.tecnico.id, tr.regiao.id FROM TecnicoRegiao tr")
+    List<Object[]> findTecnicoIdERegiaoId();
+    
+    @Query("SELECT tr.tecnico.id, tr.regiao.id FROM TecnicoRegiao tr WHERE tr.tecnico.id IN :tecnicoIds")
+    List<Object[]> findTecnicoIdERegiaoIdByTecnicoIdIn(@Param("tecnicoIds") Collection<Long> tecnicoIds);
+    
+    @Query("SELECT DISTINCT tr.regiao.id FROM TecnicoRegiao tr WHERE tr.tecnico.id = :tecnicoId ORDER BY tr.regiao.id")
+    List<Long> findRegiaoIdsByTecnicoId(@Param("tecnicoId") Long tecnicoId);
+    
+    @Query("SELECT DISTINCT tr.tecnico.id FROM TecnicoRegiao tr WHERE tr.regiao.id = :regiaoId ORDER BY tr.tecnico.id")
+    List<Long> findTecnicoIdsByRegiaoId(@Param("regiaoId") Long regiaoId);
+    
     @Modifying
     @Transactional
     @Query("DELETE FROM TecnicoRegiao tr WHERE tr.tecnico.id = :tecnicoId AND tr.regiao.id = :regiaoId")
@@ -1,28 +1,95 @@
-package com.itb.inf2fm.projetoback.repository;
-
-import com.itb.inf2fm.projetoback.model.Tecnico;
-import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Query;
-import org.springframework.stereotype.Repository;
-
-import java.util.List;
-import java.util.Optional;
-
-@Repository
-public interface TecnicoRepository extends JpaRepository<Tecnico, Long>{
-
-    Optional<Tecnico> findByCpfCnpj(String cpfCnpj);
-
-    Optional<Tecnico> findByUsuarioEmail(String email);
-    
-    List<Tecnico> findByStatusTecnico(String statusTecnico);
-    
-    boolean existsByCpfCnpj(String cpfCnpj);
-    
-    List<Tecnico> findByUsuarioNomeContainingIgnoreCase(String nome);
-    
-    @Query("SELECT DISTINCT t.especialidade FROM Tecnico t WHERE t.statusTecnico = 'ATIVO'")
-    List<String> findDistinctEspecialidades();
-    
-    List<Tecnico> findByEspecialidadeAndStatusTecnico(String especialidade, String statusTecnico);
-}
+package com.itb.inf2fm.projetoback.repository;
+
+import com.itb.inf2fm.projetoback.model.Tecnico;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+@Repository
+public interface TecnicoRepository extends JpaRepository<Tecnico, Long>{
+
+    Optional<Tecnico> findByCpfCnpj(String cpfCnpj);
+
+    Optional<Tecnico> findByUsuarioEmail(String email);
+    
+    @EntityGraph(attributePaths = {"usuario", "regioes"})
+    List<Tecnico> findByStatusTecnico(String statusTecnico);
+    
+    boolean existsByCpfCnpj(String cpfCnpj);
+    
+    // Leitura em stream (precisa de transação aberta) para montar o filtro de unicidade
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT t.cpfCnpj FROM Tecnico t")
+    Stream<String> streamCpfCnpj();
+    
+    // CPF/CNPJs da lista que já estão cadastrados (importação em massa)
+    @Query("SELECT t.cpfCnpj FROM Tecnico t WHERE t.cpfCnpj IN :documentos")
+    List<String> findCpfCnpjIn(@Param("documentos") Collection<String> documentos);
+    
+    @EntityGraph(attributePaths = {"usuario", "regioes"})
+    List<Tecnico> findByUsuarioNomeContainingIgnoreCase(String nome);
+    
+    @EntityGraph(attributePaths = {"usuario", "regioes"})
+    List<Tecnico> findByUsuarioIdIn(Collection<Long> usuarioIds);
+    
+    // Variantes que trazem usuário e regiões na mesma consulta, para respostas que serializam o técnico completo.
+    // O usuário precisa constar do grafo: atributos fora dele viram LAZY e falham na serialização sem sessão
+    @EntityGraph(attributePaths = {"usuario", "regioes"})
+    @Query("SELECT t FROM Tecnico t")
+    List<Tecnico> findAllComRegioes();
+    
+    @EntityGraph(attributePaths = {"usuario", "regioes"})
+    @Query("SELECT t FROM Tecnico t WHERE t.id = :id")
+    Optional<Tecnico> findComRegioesById(@Param("id") Long id);
+    
+    // Projeções do cartão resumido (TecnicoResumo): id, usuarioId, nome, especialidade, status, possuiFoto
+    @Query("SELECT t.id, u.id, u.nome, t.especialidade, t.statusTecnico, CASE WHEN u.foto IS NULL AND u.fotoHash IS NULL THEN false ELSE true END " +
+           "FROM Tecnico t JOIN t.usuario u")
+    List<Object[]> findResumos();
+    
+    @Query(value = "SELECT t.id, u.id, u.nome, t.especialidade, t.statusTecnico, CASE WHEN u.foto IS NULL AND u.fotoHash IS NULL THEN false ELSE true END " +
+                   "FROM Tecnico t JOIN t.usuario u",
+           countQuery = "SELECT COUNT(t) FROM Tecnico t")
+    Page<Object[]> findPaginaResumos(Pageable pageable);
+    
+    @Query("SELECT t.id, u.id, u.nome, t.especialidade, t.statusTecnico, CASE WHEN u.foto IS NULL AND u.fotoHash IS NULL THEN false ELSE true END " +
+           "FROM Tecnico t JOIN t.usuario u")
+    Slice<Object[]> findFatiaResumos(Pageable pageable);
+    
+    @Query("SELECT t.id, u.id, u.nome, t.especialidade, t.statusTecnico, CASE WHEN u.foto IS NULL AND u.fotoHash IS NULL THEN false ELSE true END " +
+           "FROM Tecnico t JOIN t.usuario u WHERE t.id IN :ids")
+    List<Object[]> findResumosByIdIn(@Param("ids") Collection<Long> ids);
+    
+    @Query("SELECT t.id, u.id, u.nome, t.especialidade, t.statusTecnico, CASE WHEN u.foto IS NULL AND u.fotoHash IS NULL THEN false ELSE true END " +
+           "FROM Tecnico t JOIN t.usuario u WHERE u.id IN :usuarioIds")
+    List<Object[]> findResumosByUsuarioIdIn(@Param("usuarioIds") Collection<Long> usuarioIds);
+    
+    @Query("SELECT DISTINCT t.especialidade FROM Tecnico t WHERE t.statusTecnico = 'ATIVO'")
+    List<String> findDistinctEspecialidades();
+    
+    @EntityGraph(attributePaths = {"usuario", "regioes"})
+    List<Tecnico> findByEspecialidadeAndStatusTecnico(String especialidade, String statusTecnico);
+    
+    @Query("SELECT t.id, t.especialidade, t.statusTecnico FROM Tecnico t")
+    List<Object[]> findIdEspecialidadeStatus();
+    
+    // Base do índice de proximidade: id, cep, especialidade
+    @Query("SELECT t.id, t.cep, t.especialidade FROM Tecnico t WHERE t.statusTecnico = 'ATIVO'")
+    List<Object[]> findIdCepEspecialidadeAtivos();
+    
+    @Query("SELECT t.id FROM Tecnico t WHERE t.statusTecnico = :status AND t.id > :ultimoId ORDER BY t.id")
+    List<Long> findIdsPorStatus(@Param("status") String status, @Param("ultimoId") Long ultimoId, Pageable pageable);
+}
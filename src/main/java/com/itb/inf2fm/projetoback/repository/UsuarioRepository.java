@@ -1,11 +1,22 @@
 package com.itb.inf2fm.projetoback.repository;
 
 import com.itb.inf2fm.projetoback.model.Usuario;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
@@ -15,4 +26,56 @@ public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
     boolean existsByEmail(String email);
     
     List<Usuario> findByNomeContainingIgnoreCase(String nome);
+    
+    @Query("SELECT u.id, u.nome FROM Usuario u")
+    List<Object[]> findIdENome();
+    
+    // Página sem COUNT(*): busca size + 1 linhas para saber se há próxima
+    Slice<Usuario> findAllBy(Pageable pageable);
+    
+    @Query("SELECT u.foto FROM Usuario u WHERE u.id = :id")
+    Optional<byte[]> findFotoById(@Param("id") Long id);
+    
+    @Query("SELECT u.fotoHash FROM Usuario u WHERE u.id = :id")
+    Optional<String> findFotoHashById(@Param("id") Long id);
+    
+    // Foto passa para o MidiaStore: guarda só o hash e libera o blob
+    @Modifying
+    @Transactional
+    @Query("UPDATE Usuario u SET u.fotoHash = :hash, u.foto = NULL WHERE u.id = :id")
+    int atualizarFotoHash(@Param("id") Long id, @Param("hash") String hash);
+    
+    // Migração: não sobrescreve uma foto enviada depois que o blob foi lido
+    @Modifying
+    @Transactional
+    @Query("UPDATE Usuario u SET u.fotoHash = :hash, u.foto = NULL WHERE u.id = :id AND u.fotoHash IS NULL")
+    int migrarFotoHash(@Param("id") Long id, @Param("hash") String hash);
+    
+    // Usuários com foto ainda no banco, por id crescente a partir de ultimoId (paginação por chave)
+    @Query("SELECT u.id FROM Usuario u WHERE u.foto IS NOT NULL AND u.fotoHash IS NULL AND u.id > :ultimoId ORDER BY u.id")
+    List<Long> findIdsComFotoNoBanco(@Param("ultimoId") Long ultimoId, Pageable pageable);
+    
+    @Query("SELECT u.id, u.email FROM Usuario u WHERE u.email IN :emails")
+    List<Object[]> findIdEEmailByEmailIn(@Param("emails") Collection<String> emails);
+    
+    // Senhas ainda sem hash BCrypt, por id crescente a partir de ultimoId (paginação por chave)
+    @Query("SELECT u.id FROM Usuario u WHERE u.senha NOT LIKE '$2a$%' AND u.id > :ultimoId ORDER BY u.id")
+    List<Long> findIdsComSenhaSemHash(@Param("ultimoId") Long ultimoId, Pageable pageable);
+    
+    @Query("SELECT u.id, u.senha FROM Usuario u WHERE u.id IN :ids")
+    List<Object[]> findIdESenhaByIdIn(@Param("ids") Collection<Long> ids);
+    
+    // Só troca se a senha ainda é a lida: uma senha alterada enquanto o hash era gerado não é sobrescrita
+    @Modifying
+    @Transactional
+    @Query("UPDATE Usuario u SET u.senha = :nova WHERE u.id = :id AND u.senha = :atual")
+    int substituirSenha(@Param("id") Long id, @Param("atual") String atual, @Param("nova") String nova);
+    
+    @Query("SELECT u.id FROM Usuario u WHERE u.statusUsuario = :status AND u.id > :ultimoId ORDER BY u.id")
+    List<Long> findIdsPorStatus(@Param("status") String status, @Param("ultimoId") Long ultimoId, Pageable pageable);
+    
+    // Leitura em stream (precisa de transação aberta) para montar o filtro de unicidade
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT u.email FROM Usuario u")
+    Stream<String> streamEmails();
 }
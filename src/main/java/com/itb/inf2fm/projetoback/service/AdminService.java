@@ -1,15 +1,36 @@
 package com.itb.inf2fm.projetoback.service;
 
+import com.itb.inf2fm.projetoback.exception.DatabaseException;
+import com.itb.inf2fm.projetoback.exception.ValidationException;
 import com.itb.inf2fm.projetoback.repository.ClienteRepository;
 import com.itb.inf2fm.projetoback.repository.RegiaoRepository;
 import com.itb.inf2fm.projetoback.repository.ServicoRepository;
 import com.itb.inf2fm.projetoback.repository.TecnicoRepository;
+import com.itb.inf2fm.projetoback.util.TransactionUtils;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
 @Service
 public class AdminService {
 
+    private static final Logger logger = LoggerFactory.getLogger(AdminService.class);
+    private static final Set<String> STATUS_PERMITIDOS = Set.of("ATIVO", "INATIVO");
+    private static final int LIMITE_IDS = 100_000;
+    // Tipo no caminho da API -> tabela
+    private static final Map<String, String> TABELAS = Map.of(
+        "usuarios", "Usuario",
+        "clientes", "Cliente",
+        "tecnicos", "Tecnico");
+
     @Autowired
     private TecnicoRepository tecnicoRepository;
 
@@ -22,6 +43,18 @@ public class AdminService {
     @Autowired
     private RegiaoRepository regiaoRepository;
 
+    @Autowired
+    private BatchService batchService;
+
+    @Autowired
+    private TecnicoMatchingService tecnicoMatchingService;
+
+    @Autowired
+    private ProximidadeService proximidadeService;
+
+    @Autowired
+    private CacheService cacheService;
+
     public Long getTotalTecnicos() {
         return tecnicoRepository.count();
     }
@@ -37,4 +70,76 @@ public class AdminService {
     public Long getTotalRegioes() {
         return regiaoRepository.count();
     }
-}
\ No newline at end of file
+
+    /**
+     * Ativa ou inativa em massa usuários, clientes ou técnicos
+     *
+     * Como no inativar de um cliente/técnico, o usuário vinculado recebe o mesmo status.
+     * As alterações vão ao banco em UPDATEs set-based (ver BatchService.batchUpdateStatus);
+     * bitmaps de técnicos, índice de proximidade e cache de usuários são acertados após o commit.
+     */
+    @Transactional
+    public AlteracaoStatus alterarStatusEmMassa(String tipo, List<Long> ids, String status) {
+        String tabela = tabelaDoTipo(tipo);
+        String novoStatus = statusPermitido(status);
+        if (ids == null || ids.isEmpty()) {
+            throw new ValidationException("Informe ao menos um ID");
+        }
+        if (ids.size() > LIMITE_IDS) {
+            throw new ValidationException("No máximo " + LIMITE_IDS + " IDs por requisição");
+        }
+
+        long inicio = System.currentTimeMillis();
+        AlteracaoStatus alteracao = aplicarStatus(tipo.toLowerCase(Locale.ROOT), tabela, ids, novoStatus);
+        logger.info("Status {} aplicado em massa a {}: {} de {} ids alterados, {} usuários em {} ms", novoStatus, tabela,
+                alteracao.alterados(), ids.size(), alteracao.usuariosAlterados(), System.currentTimeMillis() - inicio);
+        return alteracao;
+    }
+
+    /**
+     * Um bloco do job status-em-massa (ver StatusEmMassaJob), na sua própria transação;
+     * tipo e status já validados na criação do job
+     */
+    @Transactional
+    public AlteracaoStatus aplicarStatusEmBloco(String tipo, List<Long> ids, String status) {
+        return aplicarStatus(tipo, tabelaDoTipo(tipo), ids, status);
+    }
+
+    static String tabelaDoTipo(String tipo) {
+        String tabela = TABELAS.get(tipo == null ? null : tipo.toLowerCase(Locale.ROOT));
+        if (tabela == null) {
+            throw new ValidationException("Tipo inválido: use usuarios, clientes ou tecnicos");
+        }
+        return tabela;
+    }
+
+    static String statusPermitido(String status) {
+        String novoStatus = status == null ? null : status.trim().toUpperCase(Locale.ROOT);
+        if (!STATUS_PERMITIDOS.contains(novoStatus)) {
+            throw new ValidationException("Status inválido: use ATIVO ou INATIVO");
+        }
+        return novoStatus;
+    }
+
+    private AlteracaoStatus aplicarStatus(String tipo, String tabela, List<Long> ids, String novoStatus) {
+        try {
+            int alterados = batchService.batchUpdateStatus(ids, novoStatus, tabela);
+            int usuariosAlterados = tabela.equals("Usuario") ? alterados
+                    : batchService.batchUpdateStatusUsuarios(ids, novoStatus, tabela);
+
+            if (tabela.equals("Tecnico")) {
+                tecnicoMatchingService.atualizarStatus(ids, novoStatus);
+                proximidadeService.marcarAlterado();
+            }
+            // Os usuários em cache ficam com o status antigo; operação rara, o cache é recarregado sob demanda
+            TransactionUtils.runAfterCommit(cacheService::clear);
+
+            return new AlteracaoStatus(tipo, novoStatus, ids.size(), alterados, usuariosAlterados);
+        } catch (SQLException e) {
+            throw new DatabaseException("alterar status em massa", e.getMessage());
+        }
+    }
+
+    public record AlteracaoStatus(String tipo, String status, int solicitados, int alterados, int usuariosAlterados) {
+    }
+}
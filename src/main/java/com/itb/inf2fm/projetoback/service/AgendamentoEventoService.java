@@ -0,0 +1,365 @@
+package com.itb.inf2fm.projetoback.service;
+
+import com.itb.inf2fm.projetoback.dto.AgendamentoEvento;
+import com.itb.inf2fm.projetoback.dto.AgendamentoResponse;
+import com.itb.inf2fm.projetoback.model.Agendamento;
+import com.itb.inf2fm.projetoback.util.TransactionUtils;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Agendamento Evento Service - Distribuição de alterações de agendamentos via SSE
+ *
+ * Otimizações:
+ * - Conexões ociosas não ocupam threads (SseEmitter assíncrono)
+ * - Rajadas de alterações do mesmo agendamento são agrupadas antes do envio
+ * - Histórico curto por técnico permite retomar a partir do Last-Event-ID
+ * - O lock do canal só protege sequência, histórico e filas; o envio (I/O bloqueante) acontece
+ *   fora dele, em um pool próprio (app.agendamento.stream.threads-envio), um envio por canal por vez:
+ *   um cliente lento atrasa só o próprio técnico e nunca bloqueia quem publica
+ * - Canais sem conexões e sem eventos há app.agendamento.stream.retencao-canal ms são descartados;
+ *   quem reconectar depois disso recebe RESET
+ */
+@Service
+public class AgendamentoEventoService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AgendamentoEventoService.class);
+    private static final String EVENTO_RESET = "RESET";
+    private static final long INTERVALO_LIMPEZA = 60_000;
+
+    private final Map<Long, Canal> canais = new ConcurrentHashMap<>();
+    // Semeada com o relógio para que ids de uma execução anterior nunca sejam reaproveitados
+    private final AtomicLong sequencia = new AtomicLong(System.currentTimeMillis() * 1000);
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "Agendamento-SSE");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ExecutorService envios;
+
+    private final long timeoutMillis;
+    private final int tamanhoHistorico;
+    private final long retencaoCanal;
+
+    public AgendamentoEventoService(@Value("${app.agendamento.stream.timeout:1800000}") long timeoutMillis,
+                                    @Value("${app.agendamento.stream.historico:100}") int tamanhoHistorico,
+                                    @Value("${app.agendamento.stream.intervalo-envio:250}") long intervaloEnvio,
+                                    @Value("${app.agendamento.stream.heartbeat:25000}") long intervaloHeartbeat,
+                                    @Value("${app.agendamento.stream.threads-envio:4}") int threadsEnvio,
+                                    @Value("${app.agendamento.stream.retencao-canal:600000}") long retencaoCanal) {
+        this.timeoutMillis = timeoutMillis;
+        this.tamanhoHistorico = tamanhoHistorico;
+        this.retencaoCanal = retencaoCanal;
+        AtomicInteger contador = new AtomicInteger();
+        this.envios = Executors.newFixedThreadPool(threadsEnvio, r -> {
+            Thread thread = new Thread(r, "Agendamento-SSE-Envio-" + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervaloLimpeza = Math.min(INTERVALO_LIMPEZA, retencaoCanal);
+        scheduler.scheduleWithFixedDelay(this::enviarPendentes, intervaloEnvio, intervaloEnvio, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::enviarHeartbeat, intervaloHeartbeat, intervaloHeartbeat, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::removerCanaisOciosos, intervaloLimpeza, intervaloLimpeza, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Registra uma nova conexão SSE para o técnico.
+     * Se ultimoEventoId for informado, reenvia os eventos posteriores ainda em histórico;
+     * quando o histórico não cobre o intervalo, envia RESET para o cliente recarregar a lista.
+     * A conexão entra no próximo ciclo de envio, junto com a retomada, para manter a ordem dos eventos.
+     */
+    public SseEmitter assinar(Long tecnicoId, Long ultimoEventoId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Canal canal = comCanal(tecnicoId, c -> c.entrantes.add(new Entrante(emitter, ultimoEventoId)));
+
+        Runnable sair = () -> {
+            synchronized (canal) {
+                canal.entrantes.removeIf(entrante -> entrante.emitter() == emitter);
+                canal.emissores.remove(emitter);
+                canal.ultimaAtividade = System.currentTimeMillis();
+            }
+        };
+        emitter.onCompletion(sair);
+        emitter.onTimeout(sair);
+        emitter.onError(e -> sair.run());
+
+        logger.debug("Nova assinatura SSE para técnico {} ({} conexões)", tecnicoId, canal.emissores.size() + 1);
+        return emitter;
+    }
+
+    /**
+     * Publica a alteração de um agendamento para o técnico responsável.
+     * O evento só é distribuído após o commit da transação corrente.
+     */
+    public void publicar(Agendamento agendamento, AgendamentoEvento.Tipo tipo) {
+        if (agendamento == null || agendamento.getTecnico() == null || agendamento.getTecnico().getId() == null) {
+            return;
+        }
+        Long tecnicoId = agendamento.getTecnico().getId();
+        // Monta a resposta ainda dentro da sessão, enquanto as relações estão carregadas
+        AgendamentoEvento evento = new AgendamentoEvento(0, tipo, agendamento.getId(), tecnicoId,
+                tipo == AgendamentoEvento.Tipo.REMOVIDO ? null : new AgendamentoResponse(agendamento));
+        TransactionUtils.runAfterCommit(() -> enfileirar(evento));
+    }
+
+    public void publicarRemocao(Long tecnicoId, Long agendamentoId) {
+        if (tecnicoId == null || agendamentoId == null) {
+            return;
+        }
+        AgendamentoEvento evento = new AgendamentoEvento(0, AgendamentoEvento.Tipo.REMOVIDO, agendamentoId, tecnicoId, null);
+        TransactionUtils.runAfterCommit(() -> enfileirar(evento));
+    }
+
+    private void enfileirar(AgendamentoEvento evento) {
+        comCanal(evento.getTecnicoId(), canal -> {
+            AgendamentoEvento novo = evento;
+            AgendamentoEvento anterior = canal.pendentes.get(novo.getAgendamentoId());
+            if (anterior != null && anterior.getTipo() == AgendamentoEvento.Tipo.CRIADO) {
+                if (novo.getTipo() == AgendamentoEvento.Tipo.REMOVIDO) {
+                    // Criado e removido na mesma janela: o cliente nunca precisa saber
+                    canal.pendentes.remove(novo.getAgendamentoId());
+                    return;
+                }
+                novo = novo.comTipo(AgendamentoEvento.Tipo.CRIADO);
+            }
+            canal.pendentes.put(novo.getAgendamentoId(), novo);
+        });
+    }
+
+    /**
+     * Sob o lock: admite as novas conexões (com a retomada do histórico), numera os pendentes e
+     * enfileira os envios. O envio em si fica com {@link #drenar(Canal)}, fora do lock.
+     */
+    private void enviarPendentes() {
+        try {
+            for (Canal canal : canais.values()) {
+                synchronized (canal) {
+                    if (canal.entrantes.isEmpty() && canal.pendentes.isEmpty()) {
+                        continue;
+                    }
+                    for (Entrante entrante : canal.entrantes) {
+                        admitir(canal, entrante);
+                    }
+                    canal.entrantes.clear();
+
+                    if (!canal.pendentes.isEmpty()) {
+                        List<SseEmitter> destinos = List.copyOf(canal.emissores);
+                        for (AgendamentoEvento pendente : canal.pendentes.values()) {
+                            AgendamentoEvento evento = pendente.comSequencia(sequencia.incrementAndGet());
+                            canal.historico.addLast(evento);
+                            while (canal.historico.size() > tamanhoHistorico) {
+                                canal.limiteHistorico = canal.historico.removeFirst().getSequencia();
+                            }
+                            if (!destinos.isEmpty()) {
+                                canal.fila.addLast(new Envio(destinos, () -> montar(evento)));
+                            }
+                        }
+                        canal.pendentes.clear();
+                        canal.ultimaAtividade = System.currentTimeMillis();
+                    }
+                    agendarEnvio(canal);
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.error("Erro ao enviar eventos de agendamento: {}", e.getMessage());
+        }
+    }
+
+    // Assume o lock do canal
+    private void admitir(Canal canal, Entrante entrante) {
+        List<SseEmitter> destino = List.of(entrante.emitter());
+        Long ultimoEventoId = entrante.ultimoEventoId();
+        if (ultimoEventoId != null) {
+            if (ultimoEventoId < canal.limiteHistorico) {
+                String id = String.valueOf(sequencia.get());
+                canal.fila.addLast(new Envio(destino, () -> SseEmitter.event()
+                        .id(id)
+                        .name(EVENTO_RESET)
+                        .data("Histórico indisponível, recarregue os agendamentos")));
+            } else {
+                for (AgendamentoEvento evento : canal.historico) {
+                    if (evento.getSequencia() > ultimoEventoId) {
+                        canal.fila.addLast(new Envio(destino, () -> montar(evento)));
+                    }
+                }
+            }
+        }
+        canal.emissores.add(entrante.emitter());
+        canal.ultimaAtividade = System.currentTimeMillis();
+    }
+
+    private void enviarHeartbeat() {
+        try {
+            for (Canal canal : canais.values()) {
+                synchronized (canal) {
+                    if (!canal.emissores.isEmpty()) {
+                        canal.fila.addLast(new Envio(List.copyOf(canal.emissores),
+                                () -> SseEmitter.event().comment("keep-alive")));
+                        agendarEnvio(canal);
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.error("Erro ao enviar heartbeat SSE: {}", e.getMessage());
+        }
+    }
+
+    // Assume o lock do canal; no máximo uma drenagem por canal, para os eventos saírem em ordem
+    private void agendarEnvio(Canal canal) {
+        if (canal.enviando || canal.fila.isEmpty()) {
+            return;
+        }
+        canal.enviando = true;
+        try {
+            envios.execute(() -> drenar(canal));
+        } catch (RejectedExecutionException e) {
+            // Aplicação parando
+            canal.enviando = false;
+            canal.fila.clear();
+        }
+    }
+
+    private void drenar(Canal canal) {
+        while (true) {
+            List<Envio> lote;
+            synchronized (canal) {
+                if (canal.fila.isEmpty()) {
+                    canal.enviando = false;
+                    return;
+                }
+                lote = new ArrayList<>(canal.fila);
+                canal.fila.clear();
+            }
+            for (Envio envio : lote) {
+                for (SseEmitter emitter : envio.destinos()) {
+                    // Conexões encerradas depois do enfileiramento são ignoradas
+                    if (canal.emissores.contains(emitter)) {
+                        enviar(canal, emitter, envio.evento().get());
+                    }
+                }
+            }
+        }
+    }
+
+    private void removerCanaisOciosos() {
+        try {
+            long limite = System.currentTimeMillis() - retencaoCanal;
+            int removidos = 0;
+            for (Map.Entry<Long, Canal> entrada : canais.entrySet()) {
+                Canal canal = entrada.getValue();
+                synchronized (canal) {
+                    if (canal.emissores.isEmpty() && canal.entrantes.isEmpty() && canal.pendentes.isEmpty()
+                            && canal.fila.isEmpty() && !canal.enviando && canal.ultimaAtividade < limite) {
+                        canal.removido = true;
+                        canais.remove(entrada.getKey(), canal);
+                        removidos++;
+                    }
+                }
+            }
+            if (removidos > 0) {
+                logger.debug("{} canais SSE ociosos removidos ({} restantes)", removidos, canais.size());
+            }
+        } catch (RuntimeException e) {
+            logger.error("Erro ao remover canais SSE ociosos: {}", e.getMessage());
+        }
+    }
+
+    private SseEmitter.SseEventBuilder montar(AgendamentoEvento evento) {
+        return SseEmitter.event()
+                .id(String.valueOf(evento.getSequencia()))
+                .name(evento.getTipo().name())
+                .data(evento, MediaType.APPLICATION_JSON);
+    }
+
+    private void enviar(Canal canal, SseEmitter emitter, SseEmitter.SseEventBuilder evento) {
+        try {
+            emitter.send(evento);
+        } catch (IOException | IllegalStateException e) {
+            // Cliente desconectado: o container finaliza a requisição assíncrona
+            canal.emissores.remove(emitter);
+        }
+    }
+
+    /**
+     * Executa a ação sob o lock do canal do técnico, criando o canal se preciso.
+     * Um canal descartado pela limpeza nunca recebe escritas: a ação é refeita no canal novo.
+     */
+    private Canal comCanal(Long tecnicoId, Consumer<Canal> acao) {
+        while (true) {
+            Canal canal = canais.computeIfAbsent(tecnicoId, id -> new Canal(sequencia.get()));
+            synchronized (canal) {
+                if (!canal.removido) {
+                    acao.accept(canal);
+                    return canal;
+                }
+            }
+        }
+    }
+
+    public int getTotalConexoes() {
+        int total = 0;
+        for (Canal canal : canais.values()) {
+            total += canal.emissores.size();
+        }
+        return total;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdown();
+        envios.shutdown();
+        for (Canal canal : canais.values()) {
+            for (SseEmitter emitter : canal.emissores) {
+                emitter.complete();
+            }
+            canal.emissores.clear();
+        }
+    }
+
+    private static final class Canal {
+        final List<SseEmitter> emissores = new CopyOnWriteArrayList<>();
+        final List<Entrante> entrantes = new ArrayList<>();
+        final ArrayDeque<AgendamentoEvento> historico = new ArrayDeque<>();
+        final Map<Long, AgendamentoEvento> pendentes = new LinkedHashMap<>();
+        final ArrayDeque<Envio> fila = new ArrayDeque<>();
+        // Eventos com sequência até este valor não estão mais (ou nunca estiveram) no histórico
+        long limiteHistorico;
+        boolean enviando;
+        boolean removido;
+        volatile long ultimaAtividade = System.currentTimeMillis();
+
+        Canal(long limiteHistorico) {
+            this.limiteHistorico = limiteHistorico;
+        }
+    }
+
+    private record Entrante(SseEmitter emitter, Long ultimoEventoId) {
+    }
+
+    // O builder do SseEmitter não pode ser reutilizado: cada envio monta o seu
+    private record Envio(List<SseEmitter> destinos, Supplier<SseEmitter.SseEventBuilder> evento) {
+    }
+}
@@ -1,6 +1,8 @@
 package com.itb.inf2fm.projetoback.service;
 
+import com.itb.inf2fm.projetoback.dto.AgendamentoEvento;
 import com.itb.inf2fm.projetoback.dto.AgendamentoRequest;
+import com.itb.inf2fm.projetoback.dto.TecnicoResumo;
 import com.itb.inf2fm.projetoback.exception.*;
 import com.itb.inf2fm.projetoback.model.Agendamento;
 import com.itb.inf2fm.projetoback.model.Tecnico;
@@ -13,20 +15,29 @@ import com.itb.inf2fm.projetoback.repository.ClienteRepository;
 import com.itb.inf2fm.projetoback.model.Servico;
 import com.itb.inf2fm.projetoback.model.Cliente;
 import com.itb.inf2fm.projetoback.util.CrudValidationUtils;
+import com.itb.inf2fm.projetoback.util.PlanoValidacao;
+import com.itb.inf2fm.projetoback.util.TransactionUtils;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 
 @Service
 public class AgendamentoService {
 
+    // Com auto-atribuição o tipo do serviço define a especialidade do técnico
+    private static final PlanoValidacao<AgendamentoRequest> VALIDACAO = PlanoValidacao.para(AgendamentoRequest.class)
+        .obrigatorioSe("servicoId", AgendamentoRequest::getServicoId, AgendamentoService::autoAtribuir)
+        .obrigatorioSe("tecnicoId", AgendamentoRequest::getTecnicoId, request -> !autoAtribuir(request))
+        .obrigatorio("usuarioId", AgendamentoRequest::getUsuarioId)
+        .obrigatorio("dataAgendamento", AgendamentoRequest::getDataAgendamento)
+        .obrigatorio("horaAgendamento", AgendamentoRequest::getHoraAgendamento)
+        .compilar();
+
     @Autowired
     private AgendamentoRepository agendamentoRepository;
 
@@ -42,6 +53,21 @@ public class AgendamentoService {
     @Autowired
     private ClienteRepository clienteRepository;
 
+    @Autowired
+    private AgendamentoEventoService agendamentoEventoService;
+
+    @Autowired
+    private TecnicoMatchingService tecnicoMatchingService;
+
+    @Autowired
+    private TecnicoService tecnicoService;
+
+    @Autowired
+    private AtribuicaoService atribuicaoService;
+
+    @Autowired
+    private AgendamentoSituacaoService agendamentoSituacaoService;
+
     public List<Agendamento> findAll() {
         return agendamentoRepository.findAll();
     }
@@ -56,14 +82,10 @@ public class AgendamentoService {
             throw new ValidationException("Dados do agendamento são obrigatórios");
         }
         
-        // Validações de campos obrigatórios
-        Map<String, Object> requiredFields = new HashMap<>();
-        requiredFields.put("tecnicoId", request.getTecnicoId());
-        requiredFields.put("usuarioId", request.getUsuarioId());
-        requiredFields.put("dataAgendamento", request.getDataAgendamento());
-        requiredFields.put("horaAgendamento", request.getHoraAgendamento());
+        boolean autoAtribuir = autoAtribuir(request);
         
-        CrudValidationUtils.validateRequiredFields(requiredFields);
+        // Validações de campos obrigatórios
+        VALIDACAO.validar(request);
         
         try {
             Agendamento agendamento = new Agendamento();
@@ -74,13 +96,6 @@ public class AgendamentoService {
             agendamento.setSituacao(request.getSituacao());
             agendamento.setPreco(request.getPreco());
 
-            // Valida e busca técnico
-            Tecnico tecnico = CrudValidationUtils.validateResourceExists(
-                () -> tecnicoRepository.findById(request.getTecnicoId()).orElse(null),
-                "Técnico", request.getTecnicoId()
-            );
-            agendamento.setTecnico(tecnico);
-
             // Valida e busca usuário
             Usuario usuario = CrudValidationUtils.validateResourceExists(
                 () -> usuarioRepository.findById(request.getUsuarioId()).orElse(null),
@@ -97,6 +112,21 @@ public class AgendamentoService {
                 agendamento.setServico(servico);
             }
             
+            // Valida e busca técnico, ou escolhe um automaticamente
+            AtribuicaoService.Reserva reserva = null;
+            Long tecnicoId = request.getTecnicoId();
+            if (autoAtribuir) {
+                reserva = atribuicaoService.atribuir(agendamento.getServicoTipo(), request.getRegiaoId(),
+                        agendamento.getDataAgendamento(), agendamento.getHoraAgendamento(), agendamento.getUrgencia());
+                tecnicoId = reserva.tecnicoId();
+            }
+            Long tecnicoEscolhido = tecnicoId;
+            Tecnico tecnico = CrudValidationUtils.validateResourceExists(
+                () -> tecnicoRepository.findById(tecnicoEscolhido).orElse(null),
+                "Técnico", tecnicoEscolhido
+            );
+            agendamento.setTecnico(tecnico);
+            
             // Valida cliente se fornecido
             if (request.getClienteId() != null) {
                 Cliente cliente = CrudValidationUtils.validateResourceExists(
@@ -106,14 +136,23 @@ public class AgendamentoService {
                 agendamento.setCliente(cliente);
             }
 
-            return agendamentoRepository.save(agendamento);
+            Agendamento salvo = agendamentoRepository.save(agendamento);
+            if (reserva != null) {
+                atribuicaoService.confirmar(reserva, salvo.getId());
+            } else {
+                atribuicaoService.registrar(salvo);
+            }
+            agendamentoEventoService.publicar(salvo, AgendamentoEvento.Tipo.CRIADO);
+            return salvo;
         } catch (DataAccessException e) {
             throw new DatabaseException("salvar agendamento", "Erro ao salvar agendamento no banco de dados");
         }
     }
 
     public Agendamento update(Long id, AgendamentoRequest request) {
-        if (agendamentoRepository.findById(id).isPresent()) {
+        Optional<Agendamento> existente = agendamentoRepository.findById(id);
+        if (existente.isPresent()) {
+            Long tecnicoAnteriorId = existente.get().getTecnico() != null ? existente.get().getTecnico().getId() : null;
             Agendamento agendamento = new Agendamento();
             agendamento.setId(id);
             agendamento.setDataAgendamento(LocalDate.parse(request.getDataAgendamento()));
@@ -146,7 +185,18 @@ public class AgendamentoService {
                 agendamento.setCliente(cliente);
             }
 
-            return agendamentoRepository.save(agendamento);
+            // Uma transição ainda na fila write-behind não pode sobrescrever o PUT no próximo flush.
+            // Antes da escrita: espera um flush em andamento e tira a transição antiga; após o commit:
+            // tira a que entrou durante a gravação
+            agendamentoSituacaoService.descartar(id);
+            Agendamento salvo = agendamentoRepository.save(agendamento);
+            TransactionUtils.runAfterCommit(() -> agendamentoSituacaoService.descartar(id));
+            if (tecnicoAnteriorId != null && !tecnicoAnteriorId.equals(tecnico.getId())) {
+                agendamentoEventoService.publicarRemocao(tecnicoAnteriorId, id);
+            }
+            atribuicaoService.registrar(salvo);
+            agendamentoEventoService.publicar(salvo, AgendamentoEvento.Tipo.ATUALIZADO);
+            return salvo;
         }
         return null;
     }
@@ -155,13 +205,19 @@ public class AgendamentoService {
     public void deleteById(Long id) {
         CrudValidationUtils.validateId(id, "Agendamento");
         
-        CrudValidationUtils.validateResourceExists(
-            () -> agendamentoRepository.existsById(id) ? "exists" : null,
+        Agendamento agendamento = CrudValidationUtils.validateResourceExists(
+            () -> agendamentoRepository.findById(id).orElse(null),
             "Agendamento", id
         );
         
         try {
-            agendamentoRepository.deleteById(id);
+            agendamentoSituacaoService.descartar(id);
+            agendamentoRepository.delete(agendamento);
+            TransactionUtils.runAfterCommit(() -> agendamentoSituacaoService.descartar(id));
+            atribuicaoService.remover(id);
+            if (agendamento.getTecnico() != null) {
+                agendamentoEventoService.publicarRemocao(agendamento.getTecnico().getId(), id);
+            }
         } catch (DataAccessException e) {
             throw new DatabaseException("deletar agendamento", "Erro ao deletar agendamento do banco de dados");
         }
@@ -179,9 +235,38 @@ public class AgendamentoService {
         return agendamentoRepository.findByDataAgendamento(dataAgendamento);
     }
     
-    public List<Tecnico> findTecnicosByServicoId(Long servicoId) {
+    public List<TecnicoResumo> findTecnicosByServicoId(Long servicoId) {
+        return findTecnicosByServicoId(servicoId, null);
+    }
+
+    /**
+     * Técnicos ATIVOS com a especialidade do serviço que atendem todas as regiões informadas
+     */
+    public List<TecnicoResumo> findTecnicosByServicoId(Long servicoId, List<Long> regiaoIds) {
         Servico servico = servicoRepository.findById(servicoId)
                 .orElseThrow(() -> new IllegalArgumentException("Serviço não encontrado"));
-        return tecnicoRepository.findByEspecialidadeAndStatusTecnico(servico.getTipo(), "ATIVO");
+        if (tecnicoMatchingService.isPronto()) {
+            return tecnicoService.resumir(tecnicoMatchingService.buscar(servico.getTipo(), "ATIVO", regiaoIds));
+        }
+        return filtrarPorRegioes(tecnicoRepository.findByEspecialidadeAndStatusTecnico(servico.getTipo(), "ATIVO"), regiaoIds);
+    }
+
+    public List<TecnicoResumo> findTecnicosDisponiveis(List<Long> regiaoIds) {
+        if (tecnicoMatchingService.isPronto()) {
+            return tecnicoService.resumir(tecnicoMatchingService.buscar(null, "ATIVO", regiaoIds));
+        }
+        return filtrarPorRegioes(tecnicoRepository.findByStatusTecnico("ATIVO"), regiaoIds);
+    }
+
+    // Caminho usado enquanto os bitmaps de técnicos não estão carregados
+    private List<TecnicoResumo> filtrarPorRegioes(List<Tecnico> tecnicos, List<Long> regiaoIds) {
+        return tecnicos.stream()
+                .map(TecnicoResumo::de)
+                .filter(t -> regiaoIds == null || t.regiaoIds().containsAll(regiaoIds))
+                .toList();
+    }
+
+    private static boolean autoAtribuir(AgendamentoRequest request) {
+        return request.getTecnicoId() == null && request.isAutoAtribuir();
     }
 }
\ No newline at end of file
@@ -0,0 +1,197 @@
+package com.itb.inf2fm.projetoback.service;
+
+import com.itb.inf2fm.projetoback.dto.AgendamentoEvento;
+import com.itb.inf2fm.projetoback.exception.ResourceNotFoundException;
+import com.itb.inf2fm.projetoback.exception.ValidationException;
+import com.itb.inf2fm.projetoback.model.Agendamento;
+import com.itb.inf2fm.projetoback.repository.AgendamentoRepository;
+import com.itb.inf2fm.projetoback.util.CrudValidationUtils;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Agendamento Situação Service - Fila write-behind para transições de situação
+ *
+ * Otimizações:
+ * - A requisição só registra a transição em memória e retorna imediatamente
+ * - Várias transições do mesmo agendamento viram uma só (vale a última)
+ * - A existência do agendamento é conferida uma vez por entrada na fila (SELECT pela PK)
+ * - Um flusher em background aplica tudo com UPDATE ... WHERE id IN (...), um por situação
+ *
+ * Garantias de durabilidade:
+ * - Transições aceitas ficam apenas em memória até o próximo flush (intervalo configurável).
+ *   Uma queda abrupta do processo nesse intervalo perde essas transições.
+ * - No desligamento normal (@PreDestroy) a fila é aplicada antes de encerrar.
+ * - Se o flush falhar, as transições voltam para a fila, sem sobrescrever transições mais novas.
+ * - A fila é limitada: com ela cheia, a transição é aplicada de forma síncrona na própria requisição.
+ * - Leituras de agendamento podem ver a situação anterior até o flush seguinte.
+ * - Um PUT ou DELETE do agendamento descarta a transição pendente, que não sobrescreve a gravação mais nova.
+ */
+@Service
+public class AgendamentoSituacaoService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AgendamentoSituacaoService.class);
+    private static final int TAMANHO_MAXIMO_SITUACAO = 200;
+    private static final int TAMANHO_LOTE_UPDATE = 1000;
+
+    private final ConcurrentHashMap<Long, String> pendentes = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "Agendamento-Situacao");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AgendamentoRepository agendamentoRepository;
+    private final AgendamentoEventoService agendamentoEventoService;
+    private final AtribuicaoService atribuicaoService;
+    private final int capacidade;
+
+    public AgendamentoSituacaoService(AgendamentoRepository agendamentoRepository,
+                                      AgendamentoEventoService agendamentoEventoService,
+                                      AtribuicaoService atribuicaoService,
+                                      @Value("${app.agendamento.situacao.capacidade:10000}") int capacidade,
+                                      @Value("${app.agendamento.situacao.intervalo-flush:500}") long intervaloFlush) {
+        this.agendamentoRepository = agendamentoRepository;
+        this.agendamentoEventoService = agendamentoEventoService;
+        this.atribuicaoService = atribuicaoService;
+        this.capacidade = capacidade;
+        scheduler.scheduleWithFixedDelay(this::flushSeguro, intervaloFlush, intervaloFlush, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Registra a transição de situação de um agendamento.
+     *
+     * @return true se a transição foi enfileirada, false se a fila estava cheia
+     *         e a transição foi aplicada de forma síncrona
+     * @throws ResourceNotFoundException se o agendamento não existir
+     */
+    public boolean enfileirar(Long agendamentoId, String situacao) {
+        CrudValidationUtils.validateId(agendamentoId, "Agendamento");
+        if (situacao == null || situacao.trim().isEmpty()) {
+            throw new ValidationException("Situação é obrigatória");
+        }
+        String valor = situacao.trim();
+        if (valor.length() > TAMANHO_MAXIMO_SITUACAO) {
+            throw new ValidationException("Situação deve ter no máximo " + TAMANHO_MAXIMO_SITUACAO + " caracteres");
+        }
+        // Um id já pendente foi conferido quando entrou na fila
+        if (!pendentes.containsKey(agendamentoId) && !agendamentoRepository.existsById(agendamentoId)) {
+            throw new ResourceNotFoundException("Agendamento", "id", agendamentoId);
+        }
+
+        // Substituir uma transição pendente não ocupa espaço novo na fila
+        if (pendentes.size() >= capacidade && !pendentes.containsKey(agendamentoId)) {
+            logger.warn("Fila de situações cheia ({}), aplicando transição do agendamento {} diretamente",
+                    capacidade, agendamentoId);
+            aplicar(Map.of(valor, List.of(agendamentoId)));
+            return false;
+        }
+        pendentes.put(agendamentoId, valor);
+        return true;
+    }
+
+    /**
+     * Descarta a transição pendente de um agendamento gravado ou removido por outro caminho (PUT, DELETE).
+     * Sincronizado com o flush: um flush em andamento termina antes, e o que ele devolver à fila
+     * após uma falha também é descartado.
+     */
+    public synchronized void descartar(Long agendamentoId) {
+        if (agendamentoId != null) {
+            pendentes.remove(agendamentoId);
+        }
+    }
+
+    public int getTotalPendentes() {
+        return pendentes.size();
+    }
+
+    /**
+     * Aplica todas as transições pendentes no banco de dados.
+     */
+    public synchronized void flush() {
+        if (pendentes.isEmpty()) {
+            return;
+        }
+
+        // remove() devolve a última situação registrada; transições que chegarem depois ficam para o próximo flush
+        Map<String, List<Long>> porSituacao = new HashMap<>();
+        for (Long id : pendentes.keySet()) {
+            String situacao = pendentes.remove(id);
+            if (situacao != null) {
+                porSituacao.computeIfAbsent(situacao, s -> new ArrayList<>()).add(id);
+            }
+        }
+
+        try {
+            aplicar(porSituacao);
+        } catch (DataAccessException e) {
+            porSituacao.forEach((situacao, ids) -> ids.forEach(id -> pendentes.putIfAbsent(id, situacao)));
+            throw e;
+        }
+    }
+
+    private void aplicar(Map<String, List<Long>> porSituacao) {
+        List<Long> atualizados = new ArrayList<>();
+        for (Map.Entry<String, List<Long>> entrada : porSituacao.entrySet()) {
+            List<Long> ids = entrada.getValue();
+            for (int inicio = 0; inicio < ids.size(); inicio += TAMANHO_LOTE_UPDATE) {
+                List<Long> lote = ids.subList(inicio, Math.min(inicio + TAMANHO_LOTE_UPDATE, ids.size()));
+                int linhas = agendamentoRepository.atualizarSituacao(entrada.getKey(), lote);
+                if (linhas < lote.size()) {
+                    logger.debug("{} de {} agendamentos não encontrados ao atualizar situação",
+                            lote.size() - linhas, lote.size());
+                }
+            }
+            atualizados.addAll(ids);
+            // Agendamentos concluídos ou cancelados deixam de contar na carga do técnico
+            if (AtribuicaoService.isSituacaoFinal(entrada.getKey())) {
+                atribuicaoService.remover(ids);
+            }
+        }
+        logger.debug("Aplicadas {} transições de situação", atualizados.size());
+
+        // Publica mesmo sem técnicos conectados: o histórico do stream é o que um cliente usa ao reconectar
+        for (int inicio = 0; inicio < atualizados.size(); inicio += TAMANHO_LOTE_UPDATE) {
+            List<Long> lote = atualizados.subList(inicio, Math.min(inicio + TAMANHO_LOTE_UPDATE, atualizados.size()));
+            for (Agendamento agendamento : agendamentoRepository.findAllById(lote)) {
+                agendamentoEventoService.publicar(agendamento, AgendamentoEvento.Tipo.ATUALIZADO);
+            }
+        }
+    }
+
+    private void flushSeguro() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            logger.error("Erro ao aplicar transições de situação, nova tentativa no próximo ciclo: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            logger.error("Transições de situação perdidas no desligamento: {}", pendentes.size(), e);
+        }
+    }
+}
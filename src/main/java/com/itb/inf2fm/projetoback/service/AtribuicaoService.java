@@ -0,0 +1,420 @@
+package com.itb.inf2fm.projetoback.service;
+
+import com.itb.inf2fm.projetoback.exception.InvalidOperationException;
+import com.itb.inf2fm.projetoback.model.Agendamento;
+import com.itb.inf2fm.projetoback.repository.AgendamentoRepository;
+import com.itb.inf2fm.projetoback.util.TextoUtils;
+import com.itb.inf2fm.projetoback.util.TransactionUtils;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Atribuição Service - Escolha automática do técnico de um agendamento
+ *
+ * Otimizações:
+ * - Candidatos (especialidade = Servico.tipo, ATIVO, região) vêm dos bitmaps do TecnicoMatchingService
+ * - Carga de cada técnico (agendamentos em aberto a partir de hoje) e horários ocupados ficam em memória:
+ *   a escolha não consulta a tabela de agendamentos
+ * - Pedidos entram numa fila de prioridade por urgência e são atendidos por um único despachante,
+ *   então pedidos simultâneos nunca escolhem o mesmo horário do mesmo técnico
+ * - Entre os candidatos com o horário livre, vence o de menor carga (empate: menor id)
+ *
+ * A reserva é provisória até o commit do agendamento e é desfeita se a transação falhar.
+ * Alterações feitas fora da aplicação e a passagem dos dias são corrigidas pela recarga periódica
+ * (app.atribuicao.intervalo-recarga).
+ */
+@Service
+public class AtribuicaoService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AtribuicaoService.class);
+    private static final Set<String> PREFIXOS_SITUACAO_FINAL = Set.of("conclu", "cancel", "finaliz");
+
+    private final PriorityBlockingQueue<Pedido> fila = new PriorityBlockingQueue<>();
+    private final AtomicInteger tamanhoFila = new AtomicInteger();
+    private final AtomicLong sequencia = new AtomicLong();
+    private final ExecutorService despachante = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "Atribuicao-Despachante");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "Atribuicao-Recarga");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Estado abaixo protegido pelo monitor da instância
+    private final Map<Long, Integer> carga = new HashMap<>();
+    private final Map<String, Integer> horariosOcupados = new HashMap<>();
+    private final Map<Long, Reserva> porAgendamento = new HashMap<>();
+    // Reservas escolhidas cujo agendamento ainda não foi confirmado
+    private final Set<Reserva> provisorias = ConcurrentHashMap.newKeySet();
+    // Alterações feitas enquanto a recarga lê o banco, reaplicadas sobre o resultado dela
+    private final Map<Long, Optional<Reserva>> alteracoesDuranteRecarga = new HashMap<>();
+    private boolean recarregando = false;
+    private volatile boolean pronto = false;
+
+    private final AgendamentoRepository agendamentoRepository;
+    private final TecnicoMatchingService tecnicoMatchingService;
+    private final int capacidadeFila;
+    private final long tempoMaximoEspera;
+
+    public AtribuicaoService(AgendamentoRepository agendamentoRepository,
+                             TecnicoMatchingService tecnicoMatchingService,
+                             @Value("${app.atribuicao.capacidade-fila:10000}") int capacidadeFila,
+                             @Value("${app.atribuicao.tempo-maximo-espera:5000}") long tempoMaximoEspera,
+                             @Value("${app.atribuicao.intervalo-recarga:600000}") long intervaloRecarga) {
+        this.agendamentoRepository = agendamentoRepository;
+        this.tecnicoMatchingService = tecnicoMatchingService;
+        this.capacidadeFila = capacidadeFila;
+        this.tempoMaximoEspera = tempoMaximoEspera;
+        despachante.execute(this::despachar);
+        scheduler.scheduleWithFixedDelay(this::recarregarSeguro, intervaloRecarga, intervaloRecarga, TimeUnit.MILLISECONDS);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        recarregarSeguro();
+    }
+
+    public boolean isPronto() {
+        return pronto && tecnicoMatchingService.isPronto();
+    }
+
+    /**
+     * Escolhe e reserva o técnico para o horário, aguardando a vez na fila de prioridade.
+     * A reserva deve ser confirmada com {@link #confirmar(Reserva, Long)} dentro da mesma transação;
+     * se a transação for desfeita, a reserva é liberada.
+     */
+    public Reserva atribuir(String tipoServico, Long regiaoId, LocalDate data, String hora, String urgencia) {
+        if (!isPronto()) {
+            throw new InvalidOperationException("atribuir técnico automaticamente", "dados de atribuição ainda não carregados");
+        }
+        if (tamanhoFila.incrementAndGet() > capacidadeFila) {
+            tamanhoFila.decrementAndGet();
+            throw new InvalidOperationException("atribuir técnico automaticamente", "fila de atribuição cheia, tente novamente");
+        }
+        Pedido pedido = new Pedido(prioridade(urgencia), sequencia.incrementAndGet(),
+                tipoServico, regiaoId, data, normalizarHora(hora));
+        fila.add(pedido);
+        try {
+            Reserva reserva = pedido.resultado.get(tempoMaximoEspera, TimeUnit.MILLISECONDS);
+            if (reserva == null) {
+                throw new InvalidOperationException("atribuir técnico automaticamente",
+                        "nenhum técnico disponível para o serviço, região e horário informados");
+            }
+            TransactionUtils.runAfterRollback(() -> descartar(reserva));
+            return reserva;
+        } catch (TimeoutException e) {
+            // Se o despachante ainda não pegou o pedido, ele é descartado; se já reservou, a reserva é desfeita
+            if (!pedido.resultado.cancel(false)) {
+                pedido.resultado.thenAccept(this::descartar);
+            }
+            throw new InvalidOperationException("atribuir técnico automaticamente", "tempo de espera esgotado");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pedido.resultado.thenAccept(this::descartar);
+            throw new InvalidOperationException("atribuir técnico automaticamente", "atribuição interrompida");
+        } catch (ExecutionException e) {
+            throw new InvalidOperationException("atribuir técnico automaticamente", e.getCause().getMessage());
+        }
+    }
+
+    /**
+     * Vincula a reserva ao agendamento após o commit
+     */
+    public void confirmar(Reserva reserva, Long agendamentoId) {
+        TransactionUtils.runAfterCommit(() -> {
+            synchronized (this) {
+                // A reserva provisória já estava contabilizada; passa a contar pelo agendamento
+                if (provisorias.remove(reserva)) {
+                    contabilizar(reserva, -1);
+                }
+                vincular(agendamentoId, reserva, false);
+            }
+        });
+    }
+
+    /**
+     * Contabiliza um agendamento criado ou alterado com técnico escolhido manualmente
+     */
+    public void registrar(Agendamento agendamento) {
+        if (agendamento == null || agendamento.getId() == null) {
+            return;
+        }
+        Long agendamentoId = agendamento.getId();
+        Reserva reserva = emAberto(agendamento.getTecnico() != null ? agendamento.getTecnico().getId() : null,
+                agendamento.getDataAgendamento(), agendamento.getHoraAgendamento(), agendamento.getSituacao());
+        TransactionUtils.runAfterCommit(() -> {
+            synchronized (this) {
+                if (reserva != null) {
+                    vincular(agendamentoId, reserva, true);
+                } else {
+                    desvincular(agendamentoId);
+                }
+            }
+        });
+    }
+
+    public void remover(Long agendamentoId) {
+        if (agendamentoId == null) {
+            return;
+        }
+        TransactionUtils.runAfterCommit(() -> {
+            synchronized (this) {
+                desvincular(agendamentoId);
+            }
+        });
+    }
+
+    public void remover(Collection<Long> agendamentoIds) {
+        agendamentoIds.forEach(this::remover);
+    }
+
+    public static boolean isSituacaoFinal(String situacao) {
+        if (situacao == null) {
+            return false;
+        }
+        String chave = TextoUtils.normalizar(situacao);
+        return PREFIXOS_SITUACAO_FINAL.stream().anyMatch(chave::startsWith);
+    }
+
+    public synchronized int getCarga(Long tecnicoId) {
+        return carga.getOrDefault(tecnicoId, 0);
+    }
+
+    public int getTamanhoFila() {
+        return tamanhoFila.get();
+    }
+
+    private void despachar() {
+        while (!Thread.currentThread().isInterrupted()) {
+            Pedido pedido;
+            try {
+                pedido = fila.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            tamanhoFila.decrementAndGet();
+            if (pedido.resultado.isDone()) {
+                continue;
+            }
+            try {
+                Reserva reserva = escolher(pedido);
+                if (!pedido.resultado.complete(reserva) && reserva != null) {
+                    descartar(reserva);
+                }
+            } catch (RuntimeException e) {
+                logger.error("Erro ao atribuir técnico para serviço {}", pedido.tipoServico, e);
+                pedido.resultado.completeExceptionally(e);
+            }
+        }
+        logger.debug("Despachante de atribuição encerrado");
+    }
+
+    private Reserva escolher(Pedido pedido) {
+        List<Long> candidatos = tecnicoMatchingService.buscar(pedido.tipoServico, "ATIVO",
+                pedido.regiaoId != null ? List.of(pedido.regiaoId) : null);
+        synchronized (this) {
+            Long escolhido = null;
+            int menorCarga = Integer.MAX_VALUE;
+            for (Long tecnicoId : candidatos) {
+                int cargaAtual = carga.getOrDefault(tecnicoId, 0);
+                if (cargaAtual < menorCarga && !horariosOcupados.containsKey(chaveHorario(tecnicoId, pedido.data, pedido.hora))) {
+                    escolhido = tecnicoId;
+                    menorCarga = cargaAtual;
+                }
+            }
+            if (escolhido == null) {
+                return null;
+            }
+            Reserva reserva = new Reserva(escolhido, pedido.data, pedido.hora);
+            contabilizar(reserva, 1);
+            provisorias.add(reserva);
+            return reserva;
+        }
+    }
+
+    private synchronized void descartar(Reserva reserva) {
+        if (reserva != null && provisorias.remove(reserva)) {
+            contabilizar(reserva, -1);
+        }
+    }
+
+    // Métodos abaixo assumem o monitor da instância
+
+    private void vincular(Long agendamentoId, Reserva reserva, boolean substituir) {
+        Reserva anterior = porAgendamento.get(agendamentoId);
+        if (anterior != null) {
+            if (anterior.equals(reserva) || !substituir) {
+                return;
+            }
+            contabilizar(anterior, -1);
+        }
+        porAgendamento.put(agendamentoId, reserva);
+        contabilizar(reserva, 1);
+        if (recarregando) {
+            alteracoesDuranteRecarga.put(agendamentoId, Optional.of(reserva));
+        }
+    }
+
+    private void desvincular(Long agendamentoId) {
+        Reserva anterior = porAgendamento.remove(agendamentoId);
+        if (anterior != null) {
+            contabilizar(anterior, -1);
+        }
+        if (recarregando) {
+            alteracoesDuranteRecarga.put(agendamentoId, Optional.empty());
+        }
+    }
+
+    private void contabilizar(Reserva reserva, int delta) {
+        carga.merge(reserva.tecnicoId(), delta, (atual, d) -> atual + d <= 0 ? null : atual + d);
+        horariosOcupados.merge(chaveHorario(reserva.tecnicoId(), reserva.data(), reserva.hora()), delta,
+                (atual, d) -> atual + d <= 0 ? null : atual + d);
+    }
+
+    private void recarregarSeguro() {
+        try {
+            recarregar();
+        } catch (DataAccessException e) {
+            synchronized (this) {
+                recarregando = false;
+                alteracoesDuranteRecarga.clear();
+            }
+            logger.error("Erro ao carregar agendamentos para a atribuição automática: {}", e.getMessage());
+        }
+    }
+
+    private void recarregar() {
+        long inicio = System.currentTimeMillis();
+        synchronized (this) {
+            recarregando = true;
+            alteracoesDuranteRecarga.clear();
+        }
+        List<Object[]> linhas = agendamentoRepository.findComTecnicoAPartirDe(LocalDate.now());
+
+        synchronized (this) {
+            porAgendamento.clear();
+            for (Object[] linha : linhas) {
+                Reserva reserva = emAberto((Long) linha[1], (LocalDate) linha[2], (String) linha[3], (String) linha[4]);
+                if (reserva != null) {
+                    porAgendamento.put((Long) linha[0], reserva);
+                }
+            }
+            alteracoesDuranteRecarga.forEach((agendamentoId, reserva) -> {
+                if (reserva.isPresent()) {
+                    porAgendamento.put(agendamentoId, reserva.get());
+                } else {
+                    porAgendamento.remove(agendamentoId);
+                }
+            });
+            alteracoesDuranteRecarga.clear();
+            recarregando = false;
+
+            carga.clear();
+            horariosOcupados.clear();
+            porAgendamento.values().forEach(reserva -> contabilizar(reserva, 1));
+            provisorias.forEach(reserva -> contabilizar(reserva, 1));
+            pronto = true;
+            logger.info("Atribuição automática: {} agendamentos em aberto de {} técnicos carregados em {} ms",
+                    porAgendamento.size(), carga.size(), System.currentTimeMillis() - inicio);
+        }
+    }
+
+    private static Reserva emAberto(Long tecnicoId, LocalDate data, String hora, String situacao) {
+        if (tecnicoId == null || data == null || data.isBefore(LocalDate.now()) || isSituacaoFinal(situacao)) {
+            return null;
+        }
+        return new Reserva(tecnicoId, data, normalizarHora(hora));
+    }
+
+    private static String chaveHorario(Long tecnicoId, LocalDate data, String hora) {
+        return tecnicoId + "|" + data + "|" + hora;
+    }
+
+    private static String normalizarHora(String hora) {
+        return hora != null ? hora.trim() : "";
+    }
+
+    /**
+     * Menor valor = maior prioridade. Urgência é texto livre no agendamento.
+     */
+    static int prioridade(String urgencia) {
+        String chave = TextoUtils.normalizar(urgencia);
+        if (chave.contains("urgent") || chave.contains("emergen") || chave.contains("critic") || chave.contains("alta")) {
+            return 0;
+        }
+        if (chave.contains("baixa")) {
+            return 2;
+        }
+        return 1;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        despachante.shutdownNow();
+        Pedido pedido;
+        while ((pedido = fila.poll()) != null) {
+            pedido.resultado.completeExceptionally(new IllegalStateException("Aplicação em desligamento"));
+        }
+    }
+
+    /**
+     * Técnico e horário reservados para um agendamento
+     */
+    public record Reserva(Long tecnicoId, LocalDate data, String hora) {
+    }
+
+    private static final class Pedido implements Comparable<Pedido> {
+        final int prioridade;
+        final long ordem;
+        final String tipoServico;
+        final Long regiaoId;
+        final LocalDate data;
+        final String hora;
+        final CompletableFuture<Reserva> resultado = new CompletableFuture<>();
+
+        Pedido(int prioridade, long ordem, String tipoServico, Long regiaoId, LocalDate data, String hora) {
+            this.prioridade = prioridade;
+            this.ordem = ordem;
+            this.tipoServico = tipoServico;
+            this.regiaoId = regiaoId;
+            this.data = data;
+            this.hora = hora;
+        }
+
+        @Override
+        public int compareTo(Pedido outro) {
+            int comparacao = Integer.compare(prioridade, outro.prioridade);
+            return comparacao != 0 ? comparacao : Long.compare(ordem, outro.ordem);
+        }
+    }
+}
@@ -1,6 +1,13 @@
 package com.itb.inf2fm.projetoback.service;
 
+import com.itb.inf2fm.projetoback.exception.DatabaseException;
+import com.itb.inf2fm.projetoback.model.Regiao;
+import com.itb.inf2fm.projetoback.util.TabelaLote;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.datasource.DataSourceUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -8,64 +15,206 @@ import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Stream;
 
 /**
  * Batch Service - Operações em lote para melhor performance
  * 
  * Otimizações:
  * - Inserções em lote
- * - Atualizações em massa
+ * - Atualizações em massa set-based (UPDATE ... WHERE id IN, em blocos)
  * - Redução de round-trips ao banco
+ * - Gravação tipada ({@link TabelaLote}) em streaming, com bulk copy no SQL Server
  */
 @Service
 public class BatchService {
     
+    private static final Logger logger = LoggerFactory.getLogger(BatchService.class);
+    
     @Autowired
     private DataSource dataSource;
     
+    // Ordenadas por @Order: bulk copy do SQL Server antes do JDBC genérico
+    @Autowired
+    private List<EscritorLote> escritores;
+    
+    @Value("${app.batch.tamanho-lote:1000}")
+    private int tamanhoLote;
+    
+    /**
+     * Grava as linhas na tabela, em streaming, na conexão da transação corrente
+     *
+     * Usa a primeira estratégia que suporta a conexão: bulk copy no SQL Server, INSERT em lote
+     * via JDBC nos demais (ex: H2). O envio ao banco acontece a cada app.batch.tamanho-lote linhas.
+     */
     @Transactional
-    public void batchInsertUsuarios(List<Object[]> usuarios) throws SQLException {
-        String sql = "INSERT INTO Usuario (nome, email, senha, nivelAcesso, statusUsuario, dataCadastro) VALUES (?, ?, ?, ?, ?, ?)";
+    public <T> Resultado gravar(TabelaLote<T> tabela, Stream<? extends T> linhas) throws SQLException {
+        Connection conn = DataSourceUtils.getConnection(dataSource);
+        try {
+            EscritorLote escritor = escritor(conn);
+            long inicio = System.nanoTime();
+            long gravadas = escritor.escrever(conn, tabela, linhas.iterator(), tamanhoLote);
+            Resultado resultado = new Resultado(tabela.getNome(), escritor.getNome(), gravadas,
+                    (System.nanoTime() - inicio) / 1_000_000);
+            logger.debug("{} linhas gravadas em {} via {} em {} ms ({} linhas/s)", gravadas, tabela.getNome(),
+                    escritor.getNome(), resultado.duracaoMs(), resultado.linhasPorSegundo());
+            return resultado;
+        } finally {
+            DataSourceUtils.releaseConnection(conn, dataSource);
+        }
+    }
+    
+    private EscritorLote escritor(Connection conn) throws SQLException {
+        for (EscritorLote escritor : escritores) {
+            if (escritor.suporta(conn)) {
+                return escritor;
+            }
+        }
+        throw new IllegalStateException("Nenhuma estratégia de gravação em lote disponível");
+    }
+    
+    /**
+     * Insere regiões em um único lote, na conexão da transação corrente.
+     * Os ids gerados não são retornados: o chamador recarrega as regiões pelo nome.
+     */
+    public void batchInsertRegioes(List<Regiao> regioes) {
+        String sql = "INSERT INTO Regiao (cidade, nome, descricao, statusRegiao) VALUES (?, ?, ?, ?)";
         
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            for (Object[] usuario : usuarios) {
-                stmt.setString(1, (String) usuario[0]); // nome
-                stmt.setString(2, (String) usuario[1]); // email
-                stmt.setString(3, (String) usuario[2]); // senha
-                stmt.setString(4, ((String) usuario[3]).toUpperCase(java.util.Locale.ROOT)); // nivelAcesso
-                stmt.setString(5, ((String) usuario[4]).toUpperCase(java.util.Locale.ROOT)); // statusUsuario
-                stmt.setObject(6, usuario[5]); // dataCadastro
+        Connection conn = DataSourceUtils.getConnection(dataSource);
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (Regiao regiao : regioes) {
+                stmt.setString(1, regiao.getCidade());
+                stmt.setString(2, regiao.getNome());
+                stmt.setString(3, regiao.getDescricao());
+                stmt.setString(4, regiao.getStatusRegiao());
                 stmt.addBatch();
             }
-            
             stmt.executeBatch();
+        } catch (SQLException e) {
+            throw new DatabaseException("inserir regiões", e.getMessage());
+        } finally {
+            DataSourceUtils.releaseConnection(conn, dataSource);
+        }
+    }
+    
+    /**
+     * Insere os vínculos técnico-região em um único lote, na conexão da transação corrente
+     * (o técnico pode ter sido inserido na mesma transação e ainda não estar commitado).
+     */
+    public void batchInsertTecnicoRegioes(Long tecnicoId, Collection<Long> regiaoIds, String status) {
+        batchInsertTecnicoRegioes(Map.of(tecnicoId, regiaoIds), status);
+    }
+    
+    public void batchInsertTecnicoRegioes(Map<Long, ? extends Collection<Long>> regioesPorTecnico, String status) {
+        String sql = "INSERT INTO TecnicoRegiao (tecnico_id, regiao_id, statusTecnicoRegiao) VALUES (?, ?, ?)";
+        
+        Connection conn = DataSourceUtils.getConnection(dataSource);
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            int total = 0;
+            for (Map.Entry<Long, ? extends Collection<Long>> entrada : regioesPorTecnico.entrySet()) {
+                for (Long regiaoId : entrada.getValue()) {
+                    stmt.setLong(1, entrada.getKey());
+                    stmt.setLong(2, regiaoId);
+                    stmt.setString(3, status);
+                    stmt.addBatch();
+                    total++;
+                }
+            }
+            if (total > 0) {
+                stmt.executeBatch();
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("vincular regiões", e.getMessage());
+        } finally {
+            DataSourceUtils.releaseConnection(conn, dataSource);
         }
     }
     
-    private static final Set<String> ALLOWED_TABLES = Set.of("Usuario", "Cliente", "Tecnico");
+    // Tabela -> coluna de status (cada tabela tem a sua; nunca vem do cliente)
+    private static final Map<String, String> COLUNAS_STATUS = Map.of(
+        "Usuario", "statusUsuario",
+        "Cliente", "statusCliente",
+        "Tecnico", "statusTecnico");
     
+    // Abaixo do limite de 2100 parâmetros por comando do SQL Server (ids + o status)
+    private static final int LIMITE_IN = 2000;
+    
+    /**
+     * Altera o status dos ids informados e devolve quantas linhas mudaram
+     *
+     * Set-based: um UPDATE ... WHERE id IN (...) por bloco de até 2000 ids, em vez de um UPDATE por id.
+     * Os ids são ordenados e sem repetição; blocos menores são completados até a próxima potência de 2
+     * repetindo o último id, para o banco reaproveitar poucos planos de execução.
+     */
     @Transactional
-    public void batchUpdateStatus(List<Long> ids, String novoStatus, String tabela) throws SQLException {
-        if (!ALLOWED_TABLES.contains(tabela)) {
+    public int batchUpdateStatus(List<Long> ids, String novoStatus, String tabela) throws SQLException {
+        String coluna = COLUNAS_STATUS.get(tabela);
+        if (coluna == null) {
             throw new IllegalArgumentException("Tabela não permitida: " + tabela);
         }
+        return atualizarEmBlocos("UPDATE " + tabela + " SET " + coluna + " = ? WHERE id IN (%s)", ids, novoStatus);
+    }
+    
+    /**
+     * Altera o status dos usuários vinculados aos clientes ou técnicos informados
+     * (mesmo efeito de inativar um cliente/técnico, que também inativa o usuário)
+     */
+    @Transactional
+    public int batchUpdateStatusUsuarios(List<Long> ids, String novoStatus, String tabela) throws SQLException {
+        if (!tabela.equals("Cliente") && !tabela.equals("Tecnico")) {
+            throw new IllegalArgumentException("Tabela não permitida: " + tabela);
+        }
+        return atualizarEmBlocos("UPDATE Usuario SET statusUsuario = ? WHERE id IN (SELECT usuario_id FROM " + tabela
+                + " WHERE id IN (%s))", ids, novoStatus);
+    }
+    
+    private int atualizarEmBlocos(String sqlModelo, List<Long> ids, String novoStatus) throws SQLException {
+        List<Long> ordenados = ids.stream().filter(Objects::nonNull).distinct().sorted().toList();
+        int alteradas = 0;
         
-        String sql = String.format("UPDATE %s SET statusUsuario = ? WHERE id = ?", tabela);
-        
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            for (Long id : ids) {
+        Connection conn = DataSourceUtils.getConnection(dataSource);
+        PreparedStatement stmt = null;
+        int tamanhoStmt = 0;
+        try {
+            for (int inicio = 0; inicio < ordenados.size(); inicio += LIMITE_IN) {
+                List<Long> bloco = ordenados.subList(inicio, Math.min(inicio + LIMITE_IN, ordenados.size()));
+                int tamanho = tamanhoBloco(bloco.size());
+                if (stmt == null || tamanho != tamanhoStmt) {
+                    if (stmt != null) {
+                        stmt.close();
+                    }
+                    stmt = conn.prepareStatement(String.format(sqlModelo, String.join(", ", Collections.nCopies(tamanho, "?"))));
+                    tamanhoStmt = tamanho;
+                }
                 stmt.setString(1, novoStatus);
-                stmt.setLong(2, id);
-                stmt.addBatch();
+                for (int i = 0; i < tamanho; i++) {
+                    stmt.setLong(i + 2, bloco.get(Math.min(i, bloco.size() - 1)));
+                }
+                alteradas += stmt.executeUpdate();
             }
-            
-            stmt.executeBatch();
+        } finally {
+            if (stmt != null) {
+                stmt.close();
+            }
+            DataSourceUtils.releaseConnection(conn, dataSource);
+        }
+        return alteradas;
+    }
+    
+    // Próxima potência de 2, limitada a LIMITE_IN: blocos de 1, 2, 4, ..., 1024 ou 2000 ids
+    private static int tamanhoBloco(int quantidade) {
+        return quantidade <= 1 ? 1 : Math.min(LIMITE_IN, Integer.highestOneBit(quantidade - 1) << 1);
+    }
+    
+    public record Resultado(String tabela, String estrategia, long linhas, long duracaoMs) {
+        
+        public long linhasPorSegundo() {
+            return duracaoMs > 0 ? linhas * 1000 / duracaoMs : linhas;
         }
     }
 }
\ No newline at end of file
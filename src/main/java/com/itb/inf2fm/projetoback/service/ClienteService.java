@@ -9,13 +9,16 @@ import com.itb.inf2fm.projetoback.model.Cliente;
 import com.itb.inf2fm.projetoback.repository.ClienteRepository;
 import com.itb.inf2fm.projetoback.repository.UsuarioRepository;
 import com.itb.inf2fm.projetoback.util.CrudValidationUtils;
+import com.itb.inf2fm.projetoback.util.PaginacaoUtils;
+import com.itb.inf2fm.projetoback.util.PlanoValidacao;
 import jakarta.transaction.Transactional;
 import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.crypto.bcrypt.BCrypt;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -23,12 +26,30 @@ import java.util.Optional;
 @Service
 public class ClienteService {
 
+    private static final Map<String, String> CAMPOS_ORDENACAO = Map.of(
+        "id", "id", "cpf", "cpf", "dataNascimento", "dataNascimento", "statusCliente", "statusCliente",
+        "nome", "usuario.nome", "email", "usuario.email");
+    private static final PlanoValidacao<Cliente> VALIDACAO = PlanoValidacao.para(Cliente.class)
+        .obrigatorio("cpf", Cliente::getCpf)
+        .obrigatorio("dataNascimento", Cliente::getDataNascimento)
+        .obrigatorioSe("nome", cliente -> cliente.getUsuario().getNome(), cliente -> cliente.getUsuario() != null)
+        .obrigatorioSe("email", cliente -> cliente.getUsuario().getEmail(), cliente -> cliente.getUsuario() != null)
+        .obrigatorioSe("senha", cliente -> cliente.getUsuario().getSenha(), cliente -> cliente.getUsuario() != null)
+        .cpf(Cliente::getCpf)
+        .emailSe(cliente -> cliente.getUsuario().getEmail(), cliente -> cliente.getUsuario() != null)
+        .compilar();
+
     private final ClienteRepository clienteRepository;
     private final UsuarioRepository usuarioRepository;
+    private final NomeIndexService nomeIndexService;
+    private final UnicidadeService unicidadeService;
 
-    public ClienteService(ClienteRepository clienteRepository, UsuarioRepository usuarioRepository) {
+    public ClienteService(ClienteRepository clienteRepository, UsuarioRepository usuarioRepository,
+                          NomeIndexService nomeIndexService, UnicidadeService unicidadeService) {
         this.clienteRepository = clienteRepository;
         this.usuarioRepository = usuarioRepository;
+        this.nomeIndexService = nomeIndexService;
+        this.unicidadeService = unicidadeService;
     }
 
     @Transactional
@@ -57,14 +78,24 @@ public class ClienteService {
             cliente.setStatusCliente("ATIVO");
         }
         
-        return clienteRepository.save(cliente);
+        Cliente salvo = clienteRepository.save(cliente);
+        nomeIndexService.atualizar(salvo.getUsuario().getId(), salvo.getUsuario().getNome());
+        unicidadeService.registrarEmail(salvo.getUsuario().getEmail());
+        unicidadeService.registrarCpf(salvo.getCpf());
+        return salvo;
     }
 
     public Optional<Cliente> findByCpf(String cpf) {
+        if (!unicidadeService.cpfPodeExistir(cpf)) {
+            return Optional.empty();
+        }
         return clienteRepository.findByCpf(cpf);
     }
 
     public Optional<Cliente> findByEmail(String email) {
+        if (!unicidadeService.emailPodeExistir(email)) {
+            return Optional.empty();
+        }
         return clienteRepository.findByUsuarioEmail(email);
     }
 
@@ -75,25 +106,8 @@ public class ClienteService {
             throw new ValidationException("Cliente não pode ser nulo");
         }
         
-        // Valida campos obrigatórios
-        Map<String, Object> requiredFields = new HashMap<>();
-        requiredFields.put("cpf", cliente.getCpf());
-        requiredFields.put("dataNascimento", cliente.getDataNascimento());
-        
-        if (cliente.getUsuario() != null) {
-            requiredFields.put("nome", cliente.getUsuario().getNome());
-            requiredFields.put("email", cliente.getUsuario().getEmail());
-            requiredFields.put("senha", cliente.getUsuario().getSenha());
-        }
-        
-        CrudValidationUtils.validateRequiredFields(requiredFields);
-        
-        // Validações específicas
-        CrudValidationUtils.validateCpf(cliente.getCpf());
-        
-        if (cliente.getUsuario() != null) {
-            CrudValidationUtils.validateEmail(cliente.getUsuario().getEmail());
-        }
+        // Valida campos obrigatórios, CPF e email
+        VALIDACAO.validar(cliente);
         
         // Verifica duplicatas
         CrudValidationUtils.validateResourceNotExists(
@@ -118,7 +132,9 @@ public class ClienteService {
                     cliente.setStatusCliente("ATIVO");
                 }
                 
-                return clienteRepository.save(cliente);
+                Cliente salvo = clienteRepository.save(cliente);
+                unicidadeService.registrarCpf(salvo.getCpf());
+                return salvo;
             }
         } catch (DataAccessException e) {
             throw new DatabaseException("salvar cliente", "Erro ao salvar cliente no banco de dados");
@@ -129,6 +145,18 @@ public class ClienteService {
         return clienteRepository.findAll();
     }
 
+    /**
+     * Página de clientes com o usuário carregado na mesma consulta; com contar = false não roda o COUNT(*)
+     */
+    public Slice<Cliente> listarPaginado(int pagina, int tamanho, String ordenacao, boolean contar) {
+        Pageable pageable = PaginacaoUtils.criar(pagina, tamanho, ordenacao, CAMPOS_ORDENACAO);
+        try {
+            return contar ? clienteRepository.findPaginaComUsuario(pageable) : clienteRepository.findFatiaComUsuario(pageable);
+        } catch (DataAccessException e) {
+            throw new DatabaseException("listar clientes", "Erro ao buscar clientes no banco de dados");
+        }
+    }
+
     public Optional<Cliente> findById(Long id) {
         return clienteRepository.findById(id);
     }
@@ -194,7 +222,13 @@ public class ClienteService {
                 existingCliente.setStatusCliente(cliente.getStatusCliente());
             }
             
-            return clienteRepository.save(existingCliente);
+            Cliente salvo = clienteRepository.save(existingCliente);
+            if (salvo.getUsuario() != null) {
+                nomeIndexService.atualizar(salvo.getUsuario().getId(), salvo.getUsuario().getNome());
+                unicidadeService.registrarEmail(salvo.getUsuario().getEmail());
+            }
+            unicidadeService.registrarCpf(salvo.getCpf());
+            return salvo;
         } catch (DataAccessException e) {
             throw new DatabaseException("atualizar cliente", "Erro ao atualizar cliente no banco de dados");
         }
@@ -245,14 +279,14 @@ public class ClienteService {
     }
 
     public boolean existsByCpf(String cpf) {
-        if (cpf == null) {
+        if (cpf == null || !unicidadeService.cpfPodeExistir(cpf)) {
             return false;
         }
         return clienteRepository.existsByCpf(cpf);
     }
 
     public boolean existsByEmail(String email) {
-        if (email == null) {
+        if (email == null || !unicidadeService.emailPodeExistir(email)) {
             return false;
         }
         return usuarioRepository.existsByEmail(email);
@@ -262,6 +296,14 @@ public class ClienteService {
         if (nome == null || nome.trim().isEmpty()) {
             return List.of();
         }
+        if (nomeIndexService.isPronto()) {
+            List<Long> usuarioIds = nomeIndexService.buscarUsuarioIds(nome);
+            if (usuarioIds.isEmpty()) {
+                return List.of();
+            }
+            return nomeIndexService.ordenar(usuarioIds, clienteRepository.findByUsuarioIdIn(usuarioIds),
+                    c -> c.getUsuario().getId());
+        }
         return clienteRepository.findByUsuarioNomeContainingIgnoreCase(nome);
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,61 @@
+package com.itb.inf2fm.projetoback.service;
+
+import com.itb.inf2fm.projetoback.repository.UsuarioRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Criptografar Senhas Job - Gera o hash BCrypt das senhas gravadas em texto puro
+ *
+ * Otimizações:
+ * - Só lê os usuários cuja senha ainda não começa com $2a$, por chave, em vez de carregar
+ *   todos os clientes e técnicos com findAll
+ * - O hash (a parte cara) é gerado fora de transação; cada UPDATE é curto e só vale se a
+ *   senha ainda é a lida, então repetir um bloco não criptografa a mesma senha duas vezes
+ */
+@Service
+public class CriptografarSenhasJob implements JobDefinicao {
+
+    public static final String TIPO = "criptografar-senhas";
+    private static final String PREFIXO_BCRYPT = "$2a$";
+
+    private final UsuarioRepository usuarioRepository;
+    private final PasswordEncryptService passwordEncryptService;
+
+    public CriptografarSenhasJob(UsuarioRepository usuarioRepository, PasswordEncryptService passwordEncryptService) {
+        this.usuarioRepository = usuarioRepository;
+        this.passwordEncryptService = passwordEncryptService;
+    }
+
+    @Override
+    public String getTipo() {
+        return TIPO;
+    }
+
+    @Override
+    public Map<String, String> validar(Map<String, String> parametros) {
+        return Map.of();
+    }
+
+    @Override
+    public List<Long> proximosIds(Map<String, String> parametros, long ultimoId, int tamanho) {
+        return usuarioRepository.findIdsComSenhaSemHash(ultimoId, PageRequest.of(0, tamanho));
+    }
+
+    @Override
+    public int processar(Map<String, String> parametros, List<Long> ids) {
+        int alteradas = 0;
+        for (Object[] linha : usuarioRepository.findIdESenhaByIdIn(ids)) {
+            String senha = (String) linha[1];
+            if (senha == null || senha.startsWith(PREFIXO_BCRYPT)) {
+                continue;
+            }
+            alteradas += usuarioRepository.substituirSenha((Long) linha[0], senha,
+                    passwordEncryptService.encryptPassword(senha));
+        }
+        return alteradas;
+    }
+}
@@ -0,0 +1,31 @@
+package com.itb.inf2fm.projetoback.service;
+
+import com.itb.inf2fm.projetoback.util.TabelaLote;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Iterator;
+
+/**
+ * Estratégia de gravação em lote usada pelo BatchService
+ *
+ * As implementações são ordenadas (@Order): o BatchService usa a primeira que suporta a conexão.
+ * A gravação acontece na conexão recebida, dentro da transação dela; quem escreve não faz commit.
+ */
+public interface EscritorLote {
+
+    /**
+     * Nome curto da estratégia, usado nos logs e no resultado (ex: "bulk-copy", "jdbc")
+     */
+    String getNome();
+
+    boolean suporta(Connection conexao) throws SQLException;
+
+    /**
+     * Consome as linhas em streaming, enviando ao banco a cada tamanhoLote linhas
+     *
+     * @return quantidade de linhas gravadas
+     */
+    <T> long escrever(Connection conexao, TabelaLote<T> tabela, Iterator<? extends T> linhas, int tamanhoLote)
+            throws SQLException;
+}
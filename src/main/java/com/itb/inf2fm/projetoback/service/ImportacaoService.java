@@ -0,0 +1,576 @@
+package com.itb.inf2fm.projetoback.service;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.itb.inf2fm.projetoback.dto.ImportacaoResultado;
+import com.itb.inf2fm.projetoback.exception.DatabaseException;
+import com.itb.inf2fm.projetoback.model.Regiao;
+import com.itb.inf2fm.projetoback.repository.ClienteRepository;
+import com.itb.inf2fm.projetoback.repository.RegiaoRepository;
+import com.itb.inf2fm.projetoback.repository.TecnicoRepository;
+import com.itb.inf2fm.projetoback.repository.UsuarioRepository;
+import com.itb.inf2fm.projetoback.util.CsvReader;
+import com.itb.inf2fm.projetoback.util.TabelaLote;
+import com.itb.inf2fm.projetoback.util.ValidationUtils;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Importacao Service - Importação em massa de técnicos e clientes
+ *
+ * Otimizações:
+ * - O arquivo (CSV ou NDJSON) é lido em streaming, um registro por vez
+ * - Registros são processados em lotes: memória constante, independente do tamanho do arquivo
+ * - Senhas são criptografadas em paralelo num pool limitado
+ * - Usuario, Tecnico/Cliente e TecnicoRegiao são gravados em lote (bulk copy no SQL Server), uma transação por lote
+ * - Só os emails e CPF/CNPJs que o filtro de unicidade não descarta vão para o IN de valores já cadastrados
+ *
+ * Erros de validação são reportados por linha e não interrompem a importação.
+ * Se a gravação de um lote falhar, as linhas do lote são gravadas uma a uma para isolar a linha com erro.
+ */
+@Service
+public class ImportacaoService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportacaoService.class);
+    private static final String STATUS_ATIVO = "ATIVO";
+    private static final String NIVEL_USER = "USER";
+    private static final DateTimeFormatter DATA_BR = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private static final TabelaLote<Linha> USUARIOS = TabelaLote.para(Linha.class, "Usuario")
+            .texto("nome", 100, linha -> linha.nome)
+            .texto("email", 100, linha -> linha.email)
+            .texto("senha", 255, linha -> linha.senha)
+            .texto("nivelAcesso", 10, linha -> NIVEL_USER)
+            .texto("statusUsuario", 20, linha -> STATUS_ATIVO)
+            .dataHora("dataCadastro", linha -> linha.dataCadastro)
+            .compilar();
+
+    // Chave primária compartilhada: id do técnico = id do usuário
+    private static final TabelaLote<Linha> TECNICOS = TabelaLote.para(Linha.class, "Tecnico")
+            .inteiro("id", linha -> linha.usuarioId)
+            .texto("cpf_cnpj", 14, linha -> linha.documento)
+            .data("dataNascimento", linha -> linha.dataNascimento)
+            .texto("telefone", 20, linha -> linha.telefone)
+            .texto("cep", 8, linha -> linha.cep)
+            .texto("numeroResidencia", 10, linha -> linha.numeroResidencia)
+            .texto("complemento", 10, linha -> linha.complemento)
+            .texto("descricao", 400, linha -> linha.descricao)
+            .texto("especialidade", 100, linha -> linha.especialidade)
+            .texto("statusTecnico", 20, linha -> STATUS_ATIVO)
+            .inteiro("usuario_id", linha -> linha.usuarioId)
+            .compilar();
+
+    private static final TabelaLote<Linha> CLIENTES = TabelaLote.para(Linha.class, "Cliente")
+            .texto("cpf", 11, linha -> linha.documento)
+            .data("dataNascimento", linha -> linha.dataNascimento)
+            .inteiro("usuario_id", linha -> linha.usuarioId)
+            .texto("statusCliente", 20, linha -> STATUS_ATIVO)
+            .compilar();
+
+    public enum Tipo { TECNICO, CLIENTE }
+
+    public enum Formato {
+        CSV, NDJSON;
+
+        public static Formato deContentType(String contentType) {
+            if (contentType != null && contentType.toLowerCase(Locale.ROOT).contains("json")) {
+                return NDJSON;
+            }
+            return CSV;
+        }
+    }
+
+    private final BatchService batchService;
+    private final UsuarioRepository usuarioRepository;
+    private final ClienteRepository clienteRepository;
+    private final TecnicoRepository tecnicoRepository;
+    private final RegiaoRepository regiaoRepository;
+    private final NomeIndexService nomeIndexService;
+    private final TecnicoMatchingService tecnicoMatchingService;
+    private final TecnicoRegiaoIndexService tecnicoRegiaoIndexService;
+    private final ProximidadeService proximidadeService;
+    private final UnicidadeService unicidadeService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor poolSenhas;
+    private final int tamanhoLote;
+    private final int limiteErros;
+
+    public ImportacaoService(BatchService batchService,
+                             UsuarioRepository usuarioRepository,
+                             ClienteRepository clienteRepository,
+                             TecnicoRepository tecnicoRepository,
+                             RegiaoRepository regiaoRepository,
+                             NomeIndexService nomeIndexService,
+                             TecnicoMatchingService tecnicoMatchingService,
+                             TecnicoRegiaoIndexService tecnicoRegiaoIndexService,
+                             ProximidadeService proximidadeService,
+                             UnicidadeService unicidadeService,
+                             ObjectMapper objectMapper,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${app.importacao.tamanho-lote:500}") int tamanhoLote,
+                             @Value("${app.importacao.limite-erros:1000}") int limiteErros,
+                             @Value("${app.importacao.threads-senha:0}") int threadsSenha) {
+        this.batchService = batchService;
+        this.usuarioRepository = usuarioRepository;
+        this.clienteRepository = clienteRepository;
+        this.tecnicoRepository = tecnicoRepository;
+        this.regiaoRepository = regiaoRepository;
+        this.nomeIndexService = nomeIndexService;
+        this.tecnicoMatchingService = tecnicoMatchingService;
+        this.tecnicoRegiaoIndexService = tecnicoRegiaoIndexService;
+        this.proximidadeService = proximidadeService;
+        this.unicidadeService = unicidadeService;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tamanhoLote = tamanhoLote;
+        this.limiteErros = limiteErros;
+
+        int threads = threadsSenha > 0 ? threadsSenha : Runtime.getRuntime().availableProcessors();
+        AtomicInteger contador = new AtomicInteger();
+        // Fila limitada + CallerRuns: importações simultâneas não acumulam tarefas sem limite
+        this.poolSenhas = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(tamanhoLote), r -> {
+                    Thread thread = new Thread(r, "Importacao-Senha-" + contador.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    public ImportacaoResultado importar(Tipo tipo, InputStream entrada, Formato formato) {
+        ImportacaoResultado resultado = new ImportacaoResultado(tipo.name(), limiteErros);
+        long inicio = System.currentTimeMillis();
+
+        Fonte fonte = null;
+        try {
+            fonte = abrir(entrada, formato);
+            List<Linha> lote = new ArrayList<>(tamanhoLote);
+            Map<String, Object> registro;
+            while ((registro = fonte.proximo()) != null) {
+                resultado.registrarLinha();
+                Linha linha = preparar(tipo, fonte.linha(), registro, resultado);
+                if (linha != null) {
+                    lote.add(linha);
+                }
+                if (lote.size() >= tamanhoLote) {
+                    processarLote(tipo, lote, resultado);
+                    lote.clear();
+                }
+            }
+            if (!lote.isEmpty()) {
+                processarLote(tipo, lote, resultado);
+            }
+        } catch (IOException e) {
+            // Arquivo malformado: o que já foi gravado permanece, o restante é descartado
+            long linha = fonte != null ? fonte.linha() : 0;
+            logger.warn("Importação de {} interrompida na linha {}: {}", tipo, linha, e.getMessage());
+            resultado.registrarErro(linha, "Arquivo inválido, importação interrompida: " + e.getMessage());
+        }
+
+        resultado.setDuracaoMs(System.currentTimeMillis() - inicio);
+        logger.info("Importação de {} concluída: {} linhas, {} importados, {} com erro em {} ms ({} linhas/s)",
+                tipo, resultado.getTotalLinhas(), resultado.getImportados(), resultado.getComErro(), resultado.getDuracaoMs(),
+                resultado.getLinhasPorSegundo());
+        return resultado;
+    }
+
+    // Leitura
+
+    private interface Fonte {
+        Map<String, Object> proximo() throws IOException;
+
+        long linha();
+    }
+
+    private Fonte abrir(InputStream entrada, Formato formato) throws IOException {
+        if (formato == Formato.NDJSON) {
+            MappingIterator<Map<String, Object>> iterador = objectMapper
+                    .readerFor(objectMapper.getTypeFactory().constructMapType(LinkedHashMap.class, String.class, Object.class))
+                    .readValues(entrada);
+            return new Fonte() {
+                @Override
+                public Map<String, Object> proximo() throws IOException {
+                    return iterador.hasNextValue() ? iterador.nextValue() : null;
+                }
+
+                @Override
+                public long linha() {
+                    return iterador.getParser().currentLocation().getLineNr();
+                }
+            };
+        }
+
+        CsvReader csv = new CsvReader(new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8)));
+        return new Fonte() {
+            @Override
+            public Map<String, Object> proximo() throws IOException {
+                Map<String, String> registro = csv.proximoRegistro();
+                return registro != null ? new LinkedHashMap<>(registro) : null;
+            }
+
+            @Override
+            public long linha() {
+                return csv.getLinhaAtual();
+            }
+        };
+    }
+
+    // Validação
+
+    private static final class Linha {
+        final long numero;
+        String nome;
+        String email;
+        String senha;
+        LocalDate dataNascimento;
+        String documento;
+        String telefone;
+        String cep;
+        String numeroResidencia;
+        String complemento;
+        String descricao;
+        String especialidade;
+        Set<Long> regiaoIds = Set.of();
+        LocalDateTime dataCadastro;
+        Long usuarioId;
+
+        Linha(long numero) {
+            this.numero = numero;
+        }
+    }
+
+    private static final class LinhaInvalidaException extends Exception {
+        LinhaInvalidaException(String mensagem) {
+            super(mensagem, null, false, false);
+        }
+    }
+
+    private Linha preparar(Tipo tipo, long numero, Map<String, Object> registro, ImportacaoResultado resultado) {
+        try {
+            Linha linha = new Linha(numero);
+            linha.nome = obrigatorio(registro, "nome", 100);
+            linha.email = obrigatorio(registro, "email", 100);
+            if (!ValidationUtils.isValidEmail(linha.email)) {
+                throw new LinhaInvalidaException("Formato de email inválido");
+            }
+            linha.senha = obrigatorio(registro, "senha", 255);
+            if (linha.senha.length() < 6) {
+                throw new LinhaInvalidaException("Senha deve ter entre 6 e 255 caracteres");
+            }
+            linha.dataNascimento = data(obrigatorio(registro, "dataNascimento", 10));
+
+            if (tipo == Tipo.CLIENTE) {
+                linha.documento = ValidationUtils.removeFormatting(obrigatorio(registro, "cpf", 14));
+                if (!ValidationUtils.isValidCPF(linha.documento)) {
+                    throw new LinhaInvalidaException("CPF inválido");
+                }
+                return linha;
+            }
+
+            linha.documento = ValidationUtils.removeFormatting(obrigatorio(registro, "cpfCnpj", 18));
+            if (!ValidationUtils.isValidCPF(linha.documento) && !ValidationUtils.isValidCNPJ(linha.documento)) {
+                throw new LinhaInvalidaException("CPF/CNPJ inválido");
+            }
+            linha.telefone = obrigatorio(registro, "telefone", 20);
+            linha.cep = ValidationUtils.removeFormatting(obrigatorio(registro, "cep", 9));
+            if (linha.cep.length() != 8) {
+                throw new LinhaInvalidaException("CEP deve conter 8 dígitos");
+            }
+            linha.numeroResidencia = obrigatorio(registro, "numeroResidencia", 10);
+            linha.complemento = opcional(registro, "complemento", 10);
+            linha.descricao = opcional(registro, "descricao", 400);
+            linha.especialidade = obrigatorio(registro, "especialidade", 100);
+            linha.regiaoIds = regioes(registro.get("regioes"));
+            return linha;
+        } catch (LinhaInvalidaException e) {
+            resultado.registrarErro(numero, e.getMessage());
+            return null;
+        }
+    }
+
+    private static String obrigatorio(Map<String, Object> registro, String campo, int tamanhoMaximo) throws LinhaInvalidaException {
+        String valor = opcional(registro, campo, tamanhoMaximo);
+        if (valor.isEmpty()) {
+            throw new LinhaInvalidaException("Campo obrigatório não preenchido: " + campo);
+        }
+        return valor;
+    }
+
+    private static String opcional(Map<String, Object> registro, String campo, int tamanhoMaximo) throws LinhaInvalidaException {
+        Object valor = registro.get(campo);
+        String texto = valor == null ? "" : valor.toString().trim();
+        if (texto.length() > tamanhoMaximo) {
+            throw new LinhaInvalidaException("Campo " + campo + " deve ter no máximo " + tamanhoMaximo + " caracteres");
+        }
+        return texto;
+    }
+
+    private static LocalDate data(String valor) throws LinhaInvalidaException {
+        try {
+            return valor.contains("/") ? LocalDate.parse(valor, DATA_BR) : LocalDate.parse(valor);
+        } catch (DateTimeParseException e) {
+            throw new LinhaInvalidaException("Data de nascimento inválida (use yyyy-MM-dd ou dd/MM/yyyy)");
+        }
+    }
+
+    // No CSV as regiões vêm separadas por "|"; no NDJSON pode ser um array de ids
+    private static Set<Long> regioes(Object valor) throws LinhaInvalidaException {
+        if (valor == null) {
+            return Set.of();
+        }
+        Collection<?> itens = valor instanceof Collection<?> colecao ? colecao : List.of(valor.toString().split("\\|"));
+        Set<Long> ids = new LinkedHashSet<>();
+        for (Object item : itens) {
+            String texto = String.valueOf(item).trim();
+            if (texto.isEmpty()) {
+                continue;
+            }
+            try {
+                ids.add(Long.valueOf(texto));
+            } catch (NumberFormatException e) {
+                throw new LinhaInvalidaException("ID de região inválido: " + texto);
+            }
+        }
+        return ids;
+    }
+
+    // Gravação
+
+    private void processarLote(Tipo tipo, List<Linha> lote, ImportacaoResultado resultado) {
+        List<Linha> validas = filtrarEmailsExistentes(lote, resultado);
+        validas = filtrarDocumentosExistentes(tipo, validas, resultado);
+        if (tipo == Tipo.TECNICO) {
+            validas = filtrarRegioesInexistentes(validas, resultado);
+        }
+        if (validas.isEmpty()) {
+            return;
+        }
+        criptografarSenhas(validas);
+
+        try {
+            gravar(tipo, validas);
+            resultado.registrarImportados(validas.size());
+        } catch (RuntimeException e) {
+            if (validas.size() == 1) {
+                resultado.registrarErro(validas.get(0).numero, mensagemErroGravacao(e));
+                return;
+            }
+            logger.warn("Falha ao gravar lote de {} {}, gravando linha a linha: {}", validas.size(), tipo, e.getMessage());
+            for (Linha linha : validas) {
+                try {
+                    gravar(tipo, List.of(linha));
+                    resultado.registrarImportados(1);
+                } catch (RuntimeException erroLinha) {
+                    resultado.registrarErro(linha.numero, mensagemErroGravacao(erroLinha));
+                }
+            }
+        }
+    }
+
+    private List<Linha> filtrarEmailsExistentes(List<Linha> lote, ImportacaoResultado resultado) {
+        Set<String> emails = new HashSet<>();
+        for (Linha linha : lote) {
+            if (unicidadeService.emailPodeExistir(linha.email)) {
+                emails.add(linha.email.toLowerCase(Locale.ROOT));
+            }
+        }
+        Set<String> existentes = new HashSet<>();
+        if (!emails.isEmpty()) {
+            for (Object[] linha : usuarioRepository.findIdEEmailByEmailIn(emails)) {
+                existentes.add(((String) linha[1]).toLowerCase(Locale.ROOT));
+            }
+        }
+
+        List<Linha> validas = new ArrayList<>(lote.size());
+        Set<String> vistos = new HashSet<>();
+        for (Linha linha : lote) {
+            String email = linha.email.toLowerCase(Locale.ROOT);
+            if (existentes.contains(email)) {
+                resultado.registrarErro(linha.numero, "Email já cadastrado: " + linha.email);
+            } else if (!vistos.add(email)) {
+                resultado.registrarErro(linha.numero, "Email repetido no arquivo: " + linha.email);
+            } else {
+                validas.add(linha);
+            }
+        }
+        return validas;
+    }
+
+    // Mesmo tratamento dos emails para Cliente.cpf e Tecnico.cpf_cnpj, que o cadastro individual também recusa
+    private List<Linha> filtrarDocumentosExistentes(Tipo tipo, List<Linha> lote, ImportacaoResultado resultado) {
+        boolean tecnico = tipo == Tipo.TECNICO;
+        String rotulo = tecnico ? "CPF/CNPJ" : "CPF";
+        Set<String> documentos = new HashSet<>();
+        for (Linha linha : lote) {
+            if (tecnico ? unicidadeService.cpfCnpjPodeExistir(linha.documento) : unicidadeService.cpfPodeExistir(linha.documento)) {
+                documentos.add(linha.documento);
+            }
+        }
+        Set<String> existentes = new HashSet<>();
+        if (!documentos.isEmpty()) {
+            existentes.addAll(tecnico ? tecnicoRepository.findCpfCnpjIn(documentos) : clienteRepository.findCpfIn(documentos));
+        }
+
+        List<Linha> validas = new ArrayList<>(lote.size());
+        Set<String> vistos = new HashSet<>();
+        for (Linha linha : lote) {
+            if (existentes.contains(linha.documento)) {
+                resultado.registrarErro(linha.numero, rotulo + " já cadastrado: " + linha.documento);
+            } else if (!vistos.add(linha.documento)) {
+                resultado.registrarErro(linha.numero, rotulo + " repetido no arquivo: " + linha.documento);
+            } else {
+                validas.add(linha);
+            }
+        }
+        return validas;
+    }
+
+    private List<Linha> filtrarRegioesInexistentes(List<Linha> lote, ImportacaoResultado resultado) {
+        Set<Long> ids = new HashSet<>();
+        lote.forEach(linha -> ids.addAll(linha.regiaoIds));
+        if (ids.isEmpty()) {
+            return lote;
+        }
+        Set<Long> existentes = new HashSet<>();
+        for (Regiao regiao : regiaoRepository.findAllById(ids)) {
+            existentes.add(regiao.getId());
+        }
+
+        List<Linha> validas = new ArrayList<>(lote.size());
+        for (Linha linha : lote) {
+            Long inexistente = linha.regiaoIds.stream().filter(id -> !existentes.contains(id)).findFirst().orElse(null);
+            if (inexistente != null) {
+                resultado.registrarErro(linha.numero, "Região com ID " + inexistente + " não encontrada");
+            } else {
+                validas.add(linha);
+            }
+        }
+        return validas;
+    }
+
+    private void criptografarSenhas(List<Linha> lote) {
+        List<Future<String>> hashes = new ArrayList<>(lote.size());
+        for (Linha linha : lote) {
+            String senha = linha.senha;
+            Callable<String> tarefa = () -> BCrypt.hashpw(senha, BCrypt.gensalt());
+            hashes.add(poolSenhas.submit(tarefa));
+        }
+        try {
+            for (int i = 0; i < lote.size(); i++) {
+                lote.get(i).senha = hashes.get(i).get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            hashes.forEach(hash -> hash.cancel(true));
+            throw new IllegalStateException("Importação interrompida", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Erro ao criptografar senhas", e.getCause());
+        }
+    }
+
+    private void gravar(Tipo tipo, List<Linha> lote) {
+        transactionTemplate.executeWithoutResult(status -> {
+            try {
+                LocalDateTime agora = LocalDateTime.now();
+                lote.forEach(linha -> linha.dataCadastro = agora);
+                batchService.gravar(USUARIOS, lote.stream());
+
+                Map<String, Long> idsPorEmail = new HashMap<>();
+                List<String> emails = lote.stream().map(linha -> linha.email).toList();
+                for (Object[] linha : usuarioRepository.findIdEEmailByEmailIn(emails)) {
+                    idsPorEmail.put(((String) linha[1]).toLowerCase(Locale.ROOT), (Long) linha[0]);
+                }
+                for (Linha linha : lote) {
+                    linha.usuarioId = idsPorEmail.get(linha.email.toLowerCase(Locale.ROOT));
+                    if (linha.usuarioId == null) {
+                        throw new DatabaseException("importar", "Usuário inserido não encontrado: " + linha.email);
+                    }
+                }
+
+                if (tipo == Tipo.TECNICO) {
+                    gravarTecnicos(lote);
+                } else {
+                    gravarClientes(lote);
+                }
+                for (Linha linha : lote) {
+                    nomeIndexService.atualizar(linha.usuarioId, linha.nome);
+                    unicidadeService.registrarEmail(linha.email);
+                    if (tipo == Tipo.TECNICO) {
+                        unicidadeService.registrarCpfCnpj(linha.documento);
+                    } else {
+                        unicidadeService.registrarCpf(linha.documento);
+                    }
+                }
+            } catch (SQLException e) {
+                throw new DatabaseException("importar", e.getMessage());
+            }
+        });
+    }
+
+    private void gravarTecnicos(List<Linha> lote) throws SQLException {
+        Map<Long, Set<Long>> regioesPorTecnico = new HashMap<>();
+        for (Linha linha : lote) {
+            if (!linha.regiaoIds.isEmpty()) {
+                regioesPorTecnico.put(linha.usuarioId, linha.regiaoIds);
+            }
+        }
+        batchService.gravar(TECNICOS, lote.stream());
+        batchService.batchInsertTecnicoRegioes(regioesPorTecnico, STATUS_ATIVO);
+        for (Linha linha : lote) {
+            tecnicoMatchingService.atualizar(linha.usuarioId, linha.especialidade, STATUS_ATIVO, linha.regiaoIds);
+        }
+        tecnicoRegiaoIndexService.adicionarTodos(regioesPorTecnico);
+        proximidadeService.marcarAlterado();
+    }
+
+    private void gravarClientes(List<Linha> lote) throws SQLException {
+        batchService.gravar(CLIENTES, lote.stream());
+    }
+
+    private static String mensagemErroGravacao(RuntimeException e) {
+        Throwable causa = e;
+        while (causa.getCause() != null && causa.getCause() != causa) {
+            causa = causa.getCause();
+        }
+        return "Erro ao gravar: " + causa.getMessage();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        poolSenhas.shutdownNow();
+    }
+}
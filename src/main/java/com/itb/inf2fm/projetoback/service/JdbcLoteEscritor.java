@@ -0,0 +1,66 @@
+package com.itb.inf2fm.projetoback.service;
+
+import com.itb.inf2fm.projetoback.util.TabelaLote;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Iterator;
+
+/**
+ * Jdbc Lote Escritor - INSERT com PreparedStatement em lote, para qualquer banco (ex: H2 em desenvolvimento)
+ *
+ * Otimizações:
+ * - Um único PreparedStatement reaproveitado para todas as linhas
+ * - executeBatch a cada tamanhoLote linhas: a memória do driver não cresce com o tamanho da entrada
+ * - Parâmetros com o tipo SQL declarado na TabelaLote (setObject tipado, sem adivinhação do driver)
+ *
+ * É o último da ordem: usado quando nenhuma estratégia específica do banco se aplica.
+ */
+@Service
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class JdbcLoteEscritor implements EscritorLote {
+
+    @Override
+    public String getNome() {
+        return "jdbc";
+    }
+
+    @Override
+    public boolean suporta(Connection conexao) {
+        return true;
+    }
+
+    @Override
+    public <T> long escrever(Connection conexao, TabelaLote<T> tabela, Iterator<? extends T> linhas, int tamanhoLote)
+            throws SQLException {
+        long total = 0;
+        int pendentes = 0;
+        try (PreparedStatement stmt = conexao.prepareStatement(tabela.getSqlInsert())) {
+            while (linhas.hasNext()) {
+                T linha = linhas.next();
+                for (int i = 0; i < tabela.getQuantidadeColunas(); i++) {
+                    Object valor = tabela.valor(i, linha);
+                    if (valor == null) {
+                        stmt.setNull(i + 1, tabela.getTipoSql(i));
+                    } else {
+                        stmt.setObject(i + 1, valor, tabela.getTipoSql(i));
+                    }
+                }
+                stmt.addBatch();
+                total++;
+                if (++pendentes == tamanhoLote) {
+                    stmt.executeBatch();
+                    pendentes = 0;
+                }
+            }
+            if (pendentes > 0) {
+                stmt.executeBatch();
+            }
+        }
+        return total;
+    }
+}
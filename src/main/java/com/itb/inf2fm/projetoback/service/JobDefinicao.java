@@ -0,0 +1,39 @@
+package com.itb.inf2fm.projetoback.service;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Um tipo de job em lote executado pelo JobService
+ *
+ * O job percorre ids em ordem crescente (paginação por chave) e processa um bloco por vez.
+ * Blocos podem rodar em paralelo e, após uma queda, os blocos depois do último checkpoint são
+ * processados de novo: {@link #processar(Map, List)} precisa ser idempotente e gravar na sua
+ * própria transação.
+ */
+public interface JobDefinicao {
+
+    /**
+     * Nome do tipo no caminho da API e na tabela JobExecucao (ex: "criptografar-senhas")
+     */
+    String getTipo();
+
+    /**
+     * Valida os parâmetros antes de criar o job (lança ValidationException)
+     *
+     * @return parâmetros normalizados, gravados com o job e usados em todos os blocos
+     */
+    Map<String, String> validar(Map<String, String> parametros);
+
+    /**
+     * Próximos ids a processar, maiores que ultimoId, em ordem crescente
+     */
+    List<Long> proximosIds(Map<String, String> parametros, long ultimoId, int tamanho);
+
+    /**
+     * Processa um bloco de ids
+     *
+     * @return quantidade de linhas alteradas
+     */
+    int processar(Map<String, String> parametros, List<Long> ids);
+}
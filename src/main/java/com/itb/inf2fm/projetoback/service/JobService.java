@@ -0,0 +1,415 @@
+package com.itb.inf2fm.projetoback.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.itb.inf2fm.projetoback.exception.InvalidOperationException;
+import com.itb.inf2fm.projetoback.exception.ResourceNotFoundException;
+import com.itb.inf2fm.projetoback.exception.ValidationException;
+import com.itb.inf2fm.projetoback.model.JobExecucao;
+import com.itb.inf2fm.projetoback.repository.JobExecucaoRepository;
+import com.itb.inf2fm.projetoback.util.LimitadorTaxa;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Job Service - Execução de operações em lote longas, retomáveis após queda ou deploy
+ *
+ * Otimizações:
+ * - Os ids são percorridos por chave (id > último) em blocos de app.jobs.tamanho-bloco, sem OFFSET
+ * - Checkpoint por bloco na tabela JobExecucao: após uma queda o job continua do último bloco
+ *   confirmado em vez de recomeçar do zero
+ * - Até app.jobs.paralelismo blocos em andamento por job, em um pool de threads compartilhado;
+ *   o checkpoint só avança até o último bloco contíguo concluído
+ * - Vazão limitada em linhas por segundo (app.jobs.linhas-por-segundo), com um limite próprio
+ *   no horário comercial (app.jobs.linhas-por-segundo-comercial / app.jobs.horario-comercial)
+ *   para não saturar o SQL Server enquanto os usuários trabalham
+ *
+ * Jobs que estavam em execução quando a aplicação parou são retomados na inicialização
+ * (app.jobs.retomar-ao-iniciar). Pressupõe uma única instância executando jobs.
+ * Andamento e vazão ficam em {@link #listar()} e no endpoint /actuator/jobs.
+ */
+@Service
+public class JobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobService.class);
+    private static final int TAMANHO_MAXIMO_ERRO = 1000;
+    private static final TypeReference<Map<String, String>> TIPO_PARAMETROS = new TypeReference<>() {
+    };
+
+    private final ExecutorService coordenadores = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "Job-Coordenador");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ExecutorService trabalhadores;
+    private final Map<Long, Andamento> ativos = new ConcurrentHashMap<>();
+
+    private final JobExecucaoRepository jobExecucaoRepository;
+    private final Map<String, JobDefinicao> definicoes;
+    private final ObjectMapper objectMapper;
+    private final LimitadorTaxa limitador;
+    private final int paralelismo;
+    private final int tamanhoBloco;
+    private final boolean retomarAoIniciar;
+    private final long linhasPorSegundo;
+    private final long linhasPorSegundoComercial;
+    private final LocalTime inicioComercial;
+    private final LocalTime fimComercial;
+
+    public JobService(JobExecucaoRepository jobExecucaoRepository,
+                      List<JobDefinicao> definicoes,
+                      ObjectMapper objectMapper,
+                      @Value("${app.jobs.paralelismo:2}") int paralelismo,
+                      @Value("${app.jobs.tamanho-bloco:500}") int tamanhoBloco,
+                      @Value("${app.jobs.retomar-ao-iniciar:true}") boolean retomarAoIniciar,
+                      @Value("${app.jobs.linhas-por-segundo:0}") long linhasPorSegundo,
+                      @Value("${app.jobs.linhas-por-segundo-comercial:${app.jobs.linhas-por-segundo:0}}") long linhasPorSegundoComercial,
+                      @Value("${app.jobs.horario-comercial:}") String horarioComercial) {
+        if (paralelismo < 1 || tamanhoBloco < 1) {
+            throw new IllegalArgumentException("app.jobs.paralelismo e app.jobs.tamanho-bloco devem ser maiores que zero");
+        }
+        this.jobExecucaoRepository = jobExecucaoRepository;
+        this.definicoes = definicoes.stream().collect(Collectors.toMap(JobDefinicao::getTipo, Function.identity()));
+        this.objectMapper = objectMapper;
+        this.paralelismo = paralelismo;
+        this.tamanhoBloco = tamanhoBloco;
+        this.retomarAoIniciar = retomarAoIniciar;
+        this.linhasPorSegundo = linhasPorSegundo;
+        this.linhasPorSegundoComercial = linhasPorSegundoComercial;
+
+        // Formato HH:mm-HH:mm (ex: 08:00-18:00), de segunda a sexta; vazio = sem horário comercial
+        if (horarioComercial == null || horarioComercial.isBlank()) {
+            this.inicioComercial = null;
+            this.fimComercial = null;
+        } else {
+            String[] partes = horarioComercial.trim().split("-");
+            if (partes.length != 2) {
+                throw new IllegalArgumentException("app.jobs.horario-comercial deve estar no formato HH:mm-HH:mm");
+            }
+            this.inicioComercial = LocalTime.parse(partes[0].trim());
+            this.fimComercial = LocalTime.parse(partes[1].trim());
+        }
+
+        AtomicInteger contador = new AtomicInteger();
+        this.trabalhadores = Executors.newFixedThreadPool(paralelismo, r -> {
+            Thread thread = new Thread(r, "Job-Trabalhador-" + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.limitador = new LimitadorTaxa(this::taxaAtual);
+    }
+
+    public synchronized Resumo iniciar(String tipo, Map<String, String> parametros) {
+        JobDefinicao definicao = definicoes.get(tipo);
+        if (definicao == null) {
+            throw new ValidationException("Tipo de job inválido: use " + String.join(", ", definicoes.keySet()));
+        }
+        Map<String, String> validos = definicao.validar(parametros == null ? Map.of() : parametros);
+        verificarTipoLivre(tipo, "iniciar job");
+
+        JobExecucao job = jobExecucaoRepository.save(new JobExecucao(tipo, escrever(validos)));
+        logger.info("Job {} ({}) iniciado com parâmetros {}", job.getId(), tipo, validos);
+        return executar(job);
+    }
+
+    /**
+     * Continua um job que falhou, foi cancelado ou parou com a aplicação, a partir do último checkpoint
+     */
+    public synchronized Resumo retomar(Long id) {
+        JobExecucao job = buscar(id);
+        if (ativos.containsKey(id)) {
+            throw new InvalidOperationException("retomar job", "job já está em execução");
+        }
+        if (JobExecucao.CONCLUIDO.equals(job.getStatus())) {
+            throw new InvalidOperationException("retomar job", "job já foi concluído");
+        }
+        if (!definicoes.containsKey(job.getTipo())) {
+            throw new InvalidOperationException("retomar job", "tipo " + job.getTipo() + " não existe mais");
+        }
+        verificarTipoLivre(job.getTipo(), "retomar job");
+
+        job.setStatus(JobExecucao.EXECUTANDO);
+        job.setErro(null);
+        job.setFim(null);
+        job.setAtualizadoEm(LocalDateTime.now());
+        job = jobExecucaoRepository.save(job);
+        logger.info("Job {} ({}) retomado após o id {}", job.getId(), job.getTipo(), job.getUltimoId());
+        return executar(job);
+    }
+
+    /**
+     * Um job em execução termina os blocos em andamento e para; o checkpoint é mantido e ele pode ser retomado
+     */
+    public synchronized Resumo cancelar(Long id) {
+        JobExecucao job = buscar(id);
+        Andamento andamento = ativos.get(id);
+        if (andamento != null) {
+            andamento.cancelado = true;
+            logger.info("Cancelamento do job {} ({}) solicitado", id, job.getTipo());
+            return resumir(job);
+        }
+        if (JobExecucao.CONCLUIDO.equals(job.getStatus())) {
+            throw new InvalidOperationException("cancelar job", "job já foi concluído");
+        }
+        if (JobExecucao.CANCELADO.equals(job.getStatus())) {
+            throw new InvalidOperationException("cancelar job", "job já foi cancelado");
+        }
+        jobExecucaoRepository.finalizar(id, JobExecucao.CANCELADO, job.getErro(), LocalDateTime.now());
+        return resumir(buscar(id));
+    }
+
+    public Resumo buscarResumo(Long id) {
+        return jobExecucaoRepository.findById(id).map(this::resumir).orElse(null);
+    }
+
+    /**
+     * Os 20 jobs mais recentes, com andamento e vazão
+     */
+    public Panorama listar() {
+        List<Resumo> jobs = jobExecucaoRepository.findTop20ByOrderByIdDesc().stream()
+                .map(this::resumir)
+                .toList();
+        return new Panorama(paralelismo, tamanhoBloco, limitador.getTaxaAtual(), ativos.size(), jobs);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void retomarInterrompidos() {
+        if (!retomarAoIniciar) {
+            return;
+        }
+        for (JobExecucao job : jobExecucaoRepository.findByStatus(JobExecucao.EXECUTANDO)) {
+            try {
+                retomar(job.getId());
+            } catch (InvalidOperationException e) {
+                logger.warn("Job {} ({}) não foi retomado: {}", job.getId(), job.getTipo(), e.getMessage());
+            }
+        }
+    }
+
+    private void verificarTipoLivre(String tipo, String operacao) {
+        for (Andamento andamento : ativos.values()) {
+            if (andamento.tipo.equals(tipo)) {
+                throw new InvalidOperationException(operacao, "job " + tipo + " já está em execução (id " + andamento.jobId + ")");
+            }
+        }
+    }
+
+    private Resumo executar(JobExecucao job) {
+        Andamento andamento = new Andamento(job.getId(), job.getTipo(), job.getUltimoId());
+        ativos.put(job.getId(), andamento);
+        coordenadores.execute(() -> coordenar(job, andamento));
+        return resumir(job);
+    }
+
+    /**
+     * Lê os blocos em ordem, entrega ao pool de trabalhadores e confirma o checkpoint na mesma ordem
+     */
+    private void coordenar(JobExecucao job, Andamento andamento) {
+        JobDefinicao definicao = definicoes.get(job.getTipo());
+        Map<String, String> parametros = ler(job.getParametros());
+        Deque<Bloco> pendentes = new ArrayDeque<>();
+        long cursor = job.getUltimoId();
+        String status = JobExecucao.CONCLUIDO;
+        String erro = null;
+        try {
+            while (!andamento.cancelado) {
+                List<Long> ids = definicao.proximosIds(parametros, cursor, tamanhoBloco);
+                if (ids.isEmpty()) {
+                    break;
+                }
+                limitador.adquirir(ids.size());
+                cursor = ids.get(ids.size() - 1);
+                Future<Integer> futuro = trabalhadores.submit(() -> definicao.processar(parametros, ids));
+                pendentes.addLast(new Bloco(cursor, ids.size(), futuro));
+                if (pendentes.size() >= paralelismo) {
+                    confirmar(job, andamento, pendentes.removeFirst());
+                }
+            }
+            while (!pendentes.isEmpty()) {
+                confirmar(job, andamento, pendentes.removeFirst());
+            }
+            if (andamento.cancelado) {
+                status = JobExecucao.CANCELADO;
+            }
+        } catch (InterruptedException e) {
+            // Aplicação parando: o job continua EXECUTANDO e é retomado do checkpoint na próxima inicialização
+            Thread.currentThread().interrupt();
+            pendentes.forEach(bloco -> bloco.futuro.cancel(true));
+            ativos.remove(job.getId());
+            logger.info("Job {} ({}) interrompido após o id {}", job.getId(), job.getTipo(), andamento.ultimoId);
+            return;
+        } catch (ExecutionException e) {
+            status = JobExecucao.FALHOU;
+            erro = e.getCause() != null ? e.getCause().getMessage() : e.getMessage();
+            logger.error("Job {} ({}) falhou após o id {}", job.getId(), job.getTipo(), andamento.ultimoId, e.getCause());
+        } catch (RuntimeException e) {
+            status = JobExecucao.FALHOU;
+            erro = e.getMessage();
+            logger.error("Job {} ({}) falhou após o id {}", job.getId(), job.getTipo(), andamento.ultimoId, e);
+        }
+
+        descartar(pendentes);
+        if (erro != null && erro.length() > TAMANHO_MAXIMO_ERRO) {
+            erro = erro.substring(0, TAMANHO_MAXIMO_ERRO);
+        }
+        try {
+            jobExecucaoRepository.finalizar(job.getId(), status, erro, LocalDateTime.now());
+        } catch (RuntimeException e) {
+            logger.error("Erro ao gravar o fim do job {}", job.getId(), e);
+        } finally {
+            ativos.remove(job.getId());
+        }
+        logger.info("Job {} ({}) {}: {} ids, {} alterados nesta execução, {} linhas/s", job.getId(), job.getTipo(),
+                status, andamento.linhas.get(), andamento.alterados.get(), Math.round(andamento.linhasPorSegundo()));
+    }
+
+    private void confirmar(JobExecucao job, Andamento andamento, Bloco bloco)
+            throws InterruptedException, ExecutionException {
+        int alterados = bloco.futuro.get();
+        jobExecucaoRepository.registrarCheckpoint(job.getId(), bloco.ultimoId, bloco.quantidade, alterados, LocalDateTime.now());
+        andamento.registrar(bloco.ultimoId, bloco.quantidade, alterados);
+    }
+
+    // Após uma falha ou cancelamento, espera os blocos já iniciados para que uma retomada não rode junto com eles
+    private void descartar(Deque<Bloco> pendentes) {
+        for (Bloco bloco : pendentes) {
+            if (!bloco.futuro.cancel(false)) {
+                try {
+                    bloco.futuro.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (ExecutionException e) {
+                    // O bloco fica depois do checkpoint e será processado de novo na retomada
+                }
+            }
+        }
+        pendentes.clear();
+    }
+
+    private long taxaAtual() {
+        if (inicioComercial != null) {
+            LocalDateTime agora = LocalDateTime.now();
+            DayOfWeek dia = agora.getDayOfWeek();
+            LocalTime hora = agora.toLocalTime();
+            if (dia != DayOfWeek.SATURDAY && dia != DayOfWeek.SUNDAY
+                    && !hora.isBefore(inicioComercial) && hora.isBefore(fimComercial)) {
+                return linhasPorSegundoComercial;
+            }
+        }
+        return linhasPorSegundo;
+    }
+
+    private JobExecucao buscar(Long id) {
+        return jobExecucaoRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Job", "id", id));
+    }
+
+    private Resumo resumir(JobExecucao job) {
+        Andamento andamento = ativos.get(job.getId());
+        double vazao;
+        if (andamento != null) {
+            vazao = andamento.linhasPorSegundo();
+        } else if (job.getFim() != null) {
+            long ms = Math.max(1, Duration.between(job.getInicio(), job.getFim()).toMillis());
+            vazao = job.getProcessados() * 1000.0 / ms;
+        } else {
+            vazao = 0;
+        }
+        return new Resumo(job.getId(), job.getTipo(), job.getStatus(), ler(job.getParametros()), andamento != null,
+                job.getUltimoId(), job.getProcessados(), job.getAlterados(), Math.round(vazao * 10) / 10.0,
+                job.getInicio(), job.getAtualizadoEm(), job.getFim(), job.getErro());
+    }
+
+    private String escrever(Map<String, String> parametros) {
+        try {
+            return objectMapper.writeValueAsString(parametros);
+        } catch (JsonProcessingException e) {
+            throw new ValidationException("Parâmetros do job inválidos");
+        }
+    }
+
+    private Map<String, String> ler(String parametros) {
+        try {
+            return objectMapper.readValue(parametros, TIPO_PARAMETROS);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Parâmetros do job corrompidos: " + parametros, e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        coordenadores.shutdownNow();
+        trabalhadores.shutdownNow();
+    }
+
+    /**
+     * Estado em memória de um job em execução nesta instância
+     */
+    private static final class Andamento {
+
+        private final Long jobId;
+        private final String tipo;
+        private final long inicioNanos = System.nanoTime();
+        private final AtomicLong linhas = new AtomicLong();
+        private final AtomicLong alterados = new AtomicLong();
+        private volatile long ultimoId;
+        private volatile boolean cancelado;
+
+        Andamento(Long jobId, String tipo, long ultimoId) {
+            this.jobId = jobId;
+            this.tipo = tipo;
+            this.ultimoId = ultimoId;
+        }
+
+        void registrar(long ultimoId, int quantidade, int alterados) {
+            this.ultimoId = ultimoId;
+            this.linhas.addAndGet(quantidade);
+            this.alterados.addAndGet(alterados);
+        }
+
+        double linhasPorSegundo() {
+            long nanos = Math.max(1, System.nanoTime() - inicioNanos);
+            return linhas.get() * 1_000_000_000.0 / nanos;
+        }
+    }
+
+    private record Bloco(long ultimoId, int quantidade, Future<Integer> futuro) {
+    }
+
+    /**
+     * linhasPorSegundo: vazão desta execução, para jobs em andamento; média entre início e fim para os finalizados
+     */
+    public record Resumo(Long id, String tipo, String status, Map<String, String> parametros, boolean emExecucao,
+                         long ultimoId, long processados, long alterados, double linhasPorSegundo,
+                         LocalDateTime inicio, LocalDateTime atualizadoEm, LocalDateTime fim, String erro) {
+    }
+
+    public record Panorama(int paralelismo, int tamanhoBloco, long limiteLinhasPorSegundo, int emExecucao,
+                           List<Resumo> jobs) {
+    }
+}
@@ -0,0 +1,122 @@
+package com.itb.inf2fm.projetoback.service;
+
+import com.itb.inf2fm.projetoback.util.BufferLimitado;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Local Midia Store - Mídia em arquivos no disco local (app.midia.diretorio)
+ *
+ * Otimizações:
+ * - O conteúdo é copiado em blocos de 8 KB para um arquivo temporário enquanto o hash é calculado:
+ *   nenhum arquivo é montado inteiro em memória
+ * - Deduplicação: se o hash já existe, o temporário é descartado
+ * - A gravação termina com um rename atômico, então leitores nunca veem um arquivo pela metade
+ * - Os arquivos são servidos como FileSystemResource: Content-Length e Range saem do próprio arquivo,
+ *   sem passar pelo JDBC
+ *
+ * Layout: {diretorio}/ab/cd/abcd...(hash completo), para não concentrar tudo em um diretório.
+ */
+@Service
+@ConditionalOnProperty(name = "app.midia.tipo", havingValue = "local", matchIfMissing = true)
+public class LocalMidiaStore implements MidiaStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalMidiaStore.class);
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+    private static final int TAMANHO_BLOCO = 8 * 1024;
+
+    private final Path diretorio;
+    private final Path temporarios;
+
+    public LocalMidiaStore(@Value("${app.midia.diretorio:./midia}") Path diretorio) throws IOException {
+        this.diretorio = diretorio.toAbsolutePath();
+        // No mesmo sistema de arquivos do destino, para o rename ser atômico
+        this.temporarios = this.diretorio.resolve("tmp");
+        Files.createDirectories(temporarios);
+        logger.info("Armazenamento de mídia local em {}", this.diretorio);
+    }
+
+    @Override
+    public String gravar(InputStream conteudo, long tamanhoMaximo) throws IOException {
+        MessageDigest sha256 = sha256();
+        Path temporario = Files.createTempFile(temporarios, "upload-", ".tmp");
+        try {
+            long total = 0;
+            try (OutputStream saida = Files.newOutputStream(temporario)) {
+                byte[] bloco = new byte[TAMANHO_BLOCO];
+                int lidos;
+                while ((lidos = conteudo.read(bloco)) != -1) {
+                    total += lidos;
+                    if (total > tamanhoMaximo) {
+                        throw new BufferLimitado.LimiteExcedidoException((int) Math.min(tamanhoMaximo, Integer.MAX_VALUE));
+                    }
+                    sha256.update(bloco, 0, lidos);
+                    saida.write(bloco, 0, lidos);
+                }
+            }
+
+            String hash = HexFormat.of().formatHex(sha256.digest());
+            Path destino = caminho(hash);
+            if (Files.exists(destino)) {
+                return hash;
+            }
+            Files.createDirectories(destino.getParent());
+            try {
+                Files.move(temporario, destino, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                // Outra gravação do mesmo conteúdo chegou antes: o arquivo é idêntico
+            }
+            return hash;
+        } finally {
+            Files.deleteIfExists(temporario);
+        }
+    }
+
+    @Override
+    public Optional<Resource> abrir(String hash) {
+        if (!hashValido(hash)) {
+            return Optional.empty();
+        }
+        Path arquivo = caminho(hash);
+        return Files.isRegularFile(arquivo) ? Optional.of(new FileSystemResource(arquivo)) : Optional.empty();
+    }
+
+    @Override
+    public boolean existe(String hash) {
+        return hashValido(hash) && Files.isRegularFile(caminho(hash));
+    }
+
+    private Path caminho(String hash) {
+        return diretorio.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+
+    private static boolean hashValido(String hash) {
+        return hash != null && HASH.matcher(hash).matches();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+}
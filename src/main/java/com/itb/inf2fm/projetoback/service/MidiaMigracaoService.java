@@ -0,0 +1,111 @@
+package com.itb.inf2fm.projetoback.service;
+
+import com.itb.inf2fm.projetoback.exception.InvalidOperationException;
+import com.itb.inf2fm.projetoback.repository.UsuarioRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Midia Migracao Service - Move as fotos gravadas em Usuario.foto para o MidiaStore
+ *
+ * Otimizações:
+ * - Lê os ids em lotes (app.midia.migracao.tamanho-lote) por chave (id > último), sem OFFSET
+ * - Um blob por vez em memória; cada usuário é atualizado na sua própria transação curta,
+ *   então a migração pode ser interrompida e retomada sem perder o que já foi feito
+ * - O UPDATE só vale se o usuário ainda não tem hash: uma foto enviada durante a migração não é sobrescrita
+ *
+ * Roda em background; o andamento fica em {@link #getStatus()}.
+ */
+@Service
+public class MidiaMigracaoService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MidiaMigracaoService.class);
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "Midia-Migracao");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean emExecucao = new AtomicBoolean(false);
+
+    private final UsuarioRepository usuarioRepository;
+    private final UsuarioFotoService usuarioFotoService;
+    private final int tamanhoLote;
+
+    private volatile Status status = new Status(false, 0, 0, 0L, null, null);
+
+    public MidiaMigracaoService(UsuarioRepository usuarioRepository,
+                                UsuarioFotoService usuarioFotoService,
+                                @Value("${app.midia.migracao.tamanho-lote:50}") int tamanhoLote) {
+        this.usuarioRepository = usuarioRepository;
+        this.usuarioFotoService = usuarioFotoService;
+        this.tamanhoLote = tamanhoLote;
+    }
+
+    public Status iniciar() {
+        if (!emExecucao.compareAndSet(false, true)) {
+            throw new InvalidOperationException("migrar fotos", "migração já está em andamento");
+        }
+        status = new Status(true, 0, 0, 0L, LocalDateTime.now(), null);
+        executor.execute(this::executar);
+        return status;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    private void executar() {
+        int migradas = 0;
+        int erros = 0;
+        long ultimoId = 0L;
+        LocalDateTime inicio = status.inicio();
+        try {
+            while (true) {
+                List<Long> ids = usuarioRepository.findIdsComFotoNoBanco(ultimoId, PageRequest.of(0, tamanhoLote));
+                if (ids.isEmpty()) {
+                    break;
+                }
+                for (Long id : ids) {
+                    try {
+                        byte[] foto = usuarioRepository.findFotoById(id).orElse(null);
+                        if (foto != null && usuarioRepository.migrarFotoHash(id, usuarioFotoService.migrar(foto)) == 1) {
+                            migradas++;
+                        }
+                    } catch (RuntimeException e) {
+                        erros++;
+                        logger.error("Erro ao migrar foto do usuário {}: {}", id, e.getMessage());
+                    }
+                }
+                ultimoId = ids.get(ids.size() - 1);
+                status = new Status(true, migradas, erros, ultimoId, inicio, null);
+            }
+            logger.info("Migração de fotos concluída: {} migradas, {} erros", migradas, erros);
+        } catch (DataAccessException e) {
+            logger.error("Migração de fotos interrompida após o usuário {}", ultimoId, e);
+        } finally {
+            status = new Status(false, migradas, erros, ultimoId, inicio, LocalDateTime.now());
+            emExecucao.set(false);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public record Status(boolean emExecucao, int migradas, int erros, long ultimoId,
+                         LocalDateTime inicio, LocalDateTime fim) {
+    }
+}
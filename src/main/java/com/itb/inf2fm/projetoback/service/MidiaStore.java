@@ -0,0 +1,31 @@
+package com.itb.inf2fm.projetoback.service;
+
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
+
+/**
+ * Armazenamento de mídia endereçado por conteúdo
+ *
+ * Cada arquivo é identificado pelo SHA-256 do seu conteúdo (64 caracteres hexadecimais):
+ * gravar o mesmo conteúdo duas vezes devolve o mesmo hash e guarda uma única cópia.
+ * As entidades guardam só o hash (ex: Usuario.fotoHash).
+ */
+public interface MidiaStore {
+
+    /**
+     * Grava o conteúdo em stream e devolve o hash
+     *
+     * @param tamanhoMaximo conteúdo maior que isso é recusado com BufferLimitado.LimiteExcedidoException
+     */
+    String gravar(InputStream conteudo, long tamanhoMaximo) throws IOException;
+
+    /**
+     * Conteúdo do hash para ser servido diretamente na resposta; vazio se não existir
+     */
+    Optional<Resource> abrir(String hash);
+
+    boolean existe(String hash);
+}
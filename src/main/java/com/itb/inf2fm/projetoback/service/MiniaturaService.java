@@ -0,0 +1,283 @@
+package com.itb.inf2fm.projetoback.service;
+
+import com.itb.inf2fm.projetoback.exception.ResourceNotFoundException;
+import com.itb.inf2fm.projetoback.exception.ValidationException;
+import com.itb.inf2fm.projetoback.repository.UsuarioRepository;
+import com.itb.inf2fm.projetoback.util.ImagemUtils;
+import com.itb.inf2fm.projetoback.util.TransactionUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Miniatura Service - Miniaturas das fotos de usuário para listagens (avatares)
+ *
+ * Otimizações:
+ * - Miniaturas JPEG de tamanho fixo (64 e 128 px), geradas só com ImageIO quando a foto é salva,
+ *   em um pool pequeno com fila limitada: o upload não espera a geração
+ * - Dois níveis de cache: LRU em memória (app.miniaturas.cache-memoria entradas) e arquivos em disco
+ *   (app.miniaturas.diretorio), que sobrevivem a reinícios
+ * - Falta no cache (ex: fila cheia, foto anterior ao pipeline) gera a miniatura na hora e guarda
+ *
+ * Métricas: miniaturas.fila.espera (tempo na fila), miniaturas.geracao (tempo de geração),
+ * miniaturas.fila.tamanho e miniaturas.cache{nivel=memoria|disco|gerada}.
+ */
+@Service
+public class MiniaturaService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MiniaturaService.class);
+    public static final int[] TAMANHOS = {64, 128};
+
+    private final UsuarioRepository usuarioRepository;
+    private final MidiaStore midiaStore;
+    private final Path diretorio;
+    private final Map<String, byte[]> memoria;
+    private final ThreadPoolExecutor executor;
+
+    private final Timer esperaFila;
+    private final Timer geracao;
+    private final Counter acertosMemoria;
+    private final Counter acertosDisco;
+    private final Counter geradasSobDemanda;
+
+    public MiniaturaService(UsuarioRepository usuarioRepository,
+                            MidiaStore midiaStore,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.miniaturas.diretorio:${java.io.tmpdir}/projetoback-miniaturas}") Path diretorio,
+                            @Value("${app.miniaturas.cache-memoria:1000}") int entradasMemoria,
+                            @Value("${app.miniaturas.threads:2}") int threads,
+                            @Value("${app.miniaturas.fila:200}") int capacidadeFila) {
+        this.usuarioRepository = usuarioRepository;
+        this.midiaStore = midiaStore;
+        this.diretorio = diretorio;
+        this.memoria = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, byte[]> maisAntiga) {
+                return size() > entradasMemoria;
+            }
+        };
+
+        AtomicInteger contador = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidadeFila), r -> {
+                    Thread thread = new Thread(r, "Miniatura-" + contador.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        this.esperaFila = Timer.builder("miniaturas.fila.espera")
+                .description("Tempo entre o pedido de geração e o início do trabalho")
+                .register(meterRegistry);
+        this.geracao = Timer.builder("miniaturas.geracao")
+                .description("Tempo para gerar todas as miniaturas de uma foto")
+                .register(meterRegistry);
+        Gauge.builder("miniaturas.fila.tamanho", executor, e -> e.getQueue().size())
+                .description("Fotos aguardando geração de miniaturas")
+                .register(meterRegistry);
+        this.acertosMemoria = Counter.builder("miniaturas.cache").tag("nivel", "memoria").register(meterRegistry);
+        this.acertosDisco = Counter.builder("miniaturas.cache").tag("nivel", "disco").register(meterRegistry);
+        this.geradasSobDemanda = Counter.builder("miniaturas.cache").tag("nivel", "gerada").register(meterRegistry);
+
+        try {
+            Files.createDirectories(diretorio);
+        } catch (IOException e) {
+            logger.error("Não foi possível criar o diretório de miniaturas {}, cache em disco indisponível", diretorio, e);
+        }
+    }
+
+    /**
+     * Miniatura JPEG da foto do usuário; 404 se o usuário não existir ou não tiver foto
+     */
+    public UsuarioFotoService.Foto buscar(Long usuarioId, int tamanho) {
+        if (!tamanhoValido(tamanho)) {
+            throw new ValidationException("Tamanho de miniatura inválido: use 64 ou 128");
+        }
+        String chave = chave(usuarioId, tamanho);
+
+        byte[] bytes;
+        synchronized (memoria) {
+            bytes = memoria.get(chave);
+        }
+        if (bytes != null) {
+            acertosMemoria.increment();
+        } else {
+            bytes = lerDisco(chave);
+            if (bytes != null) {
+                acertosDisco.increment();
+            } else {
+                bytes = gerar(usuarioId).get(tamanho);
+                if (bytes == null) {
+                    throw new ResourceNotFoundException("Foto do usuário", "id", usuarioId);
+                }
+                geradasSobDemanda.increment();
+            }
+            guardarMemoria(chave, bytes);
+        }
+        return new UsuarioFotoService.Foto(new ByteArrayResource(bytes), MediaType.IMAGE_JPEG, UsuarioFotoService.etag(bytes));
+    }
+
+    /**
+     * Descarta as miniaturas do usuário após o commit e, se ele tiver foto, agenda a geração das novas
+     */
+    public void atualizarAposCommit(Long usuarioId, boolean possuiFoto) {
+        if (usuarioId == null) {
+            return;
+        }
+        TransactionUtils.runAfterCommit(() -> {
+            remover(usuarioId);
+            if (possuiFoto) {
+                agendar(usuarioId);
+            }
+        });
+    }
+
+    private void agendar(Long usuarioId) {
+        long enfileirado = System.nanoTime();
+        try {
+            executor.execute(() -> {
+                esperaFila.record(System.nanoTime() - enfileirado, TimeUnit.NANOSECONDS);
+                try {
+                    geracao.record(() -> {
+                        gerar(usuarioId);
+                    });
+                } catch (RuntimeException e) {
+                    logger.error("Erro ao gerar miniaturas do usuário {}: {}", usuarioId, e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Sem espaço na fila: a miniatura será gerada no primeiro acesso
+            logger.warn("Fila de miniaturas cheia, usuário {} terá miniaturas geradas sob demanda", usuarioId);
+        }
+    }
+
+    // Gera e guarda todos os tamanhos a partir da foto original; mapa vazio se não houver foto
+    private Map<Integer, byte[]> gerar(Long usuarioId) {
+        Map<Integer, byte[]> miniaturas = new LinkedHashMap<>();
+        try {
+            byte[] foto = lerOriginal(usuarioId);
+            if (foto == null) {
+                return miniaturas;
+            }
+            BufferedImage original = ImagemUtils.ler(foto);
+            if (original == null) {
+                logger.warn("Foto do usuário {} em formato não reconhecido, miniaturas não geradas", usuarioId);
+                return miniaturas;
+            }
+            for (int tamanho : TAMANHOS) {
+                byte[] bytes = ImagemUtils.paraJpeg(ImagemUtils.miniaturaQuadrada(original, tamanho));
+                miniaturas.put(tamanho, bytes);
+                gravarDisco(chave(usuarioId, tamanho), bytes);
+            }
+        } catch (IOException e) {
+            logger.error("Erro ao gerar miniaturas do usuário {}: {}", usuarioId, e.getMessage());
+        } catch (DataAccessException e) {
+            logger.error("Erro ao ler foto do usuário {} para gerar miniaturas", usuarioId, e);
+        }
+        return miniaturas;
+    }
+
+    // Foto original do MidiaStore ou, se ainda não migrada, do blob; null se não houver foto
+    private byte[] lerOriginal(Long usuarioId) throws IOException {
+        String hash = usuarioRepository.findFotoHashById(usuarioId).orElse(null);
+        if (hash == null) {
+            return usuarioRepository.findFotoById(usuarioId).orElse(null);
+        }
+        Optional<Resource> arquivo = midiaStore.abrir(hash);
+        if (arquivo.isEmpty()) {
+            return null;
+        }
+        try (InputStream entrada = arquivo.get().getInputStream()) {
+            return entrada.readAllBytes();
+        }
+    }
+
+    private void remover(Long usuarioId) {
+        for (int tamanho : TAMANHOS) {
+            String chave = chave(usuarioId, tamanho);
+            synchronized (memoria) {
+                memoria.remove(chave);
+            }
+            try {
+                Files.deleteIfExists(arquivo(chave));
+            } catch (IOException e) {
+                logger.warn("Não foi possível apagar a miniatura {}: {}", chave, e.getMessage());
+            }
+        }
+    }
+
+    private void guardarMemoria(String chave, byte[] bytes) {
+        synchronized (memoria) {
+            memoria.put(chave, bytes);
+        }
+    }
+
+    private byte[] lerDisco(String chave) {
+        try {
+            return Files.readAllBytes(arquivo(chave));
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            logger.warn("Erro ao ler miniatura {} do disco: {}", chave, e.getMessage());
+            return null;
+        }
+    }
+
+    // Grava num arquivo temporário e renomeia: leitores nunca veem um arquivo pela metade
+    private void gravarDisco(String chave, byte[] bytes) {
+        try {
+            Path temporario = Files.createTempFile(diretorio, chave, ".tmp");
+            Files.write(temporario, bytes);
+            Files.move(temporario, arquivo(chave), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warn("Erro ao gravar miniatura {} no disco: {}", chave, e.getMessage());
+        }
+    }
+
+    private Path arquivo(String chave) {
+        return diretorio.resolve(chave + ".jpg");
+    }
+
+    private static String chave(Long usuarioId, int tamanho) {
+        return usuarioId + "-" + tamanho;
+    }
+
+    private static boolean tamanhoValido(int tamanho) {
+        for (int valido : TAMANHOS) {
+            if (valido == tamanho) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
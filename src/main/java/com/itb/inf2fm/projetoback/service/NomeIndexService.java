@@ -0,0 +1,132 @@
+package com.itb.inf2fm.projetoback.service;
+
+import com.itb.inf2fm.projetoback.repository.UsuarioRepository;
+import com.itb.inf2fm.projetoback.util.TransactionUtils;
+import com.itb.inf2fm.projetoback.util.TrigramIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Nome Index Service - Índice de trigramas dos nomes de usuários
+ *
+ * Otimizações:
+ * - Substitui o LIKE '%nome%' (full scan) das buscas de usuário, técnico e cliente
+ * - Atualizado incrementalmente nas escritas, sem recarregar a tabela
+ * - Resultados ordenados por relevância
+ *
+ * Enquanto o índice não estiver carregado, as buscas continuam indo ao banco.
+ */
+@Service
+public class NomeIndexService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NomeIndexService.class);
+    // Mantém a lista de ids da hidratação abaixo do limite de parâmetros do SQL Server
+    public static final int LIMITE_RESULTADOS = 100;
+
+    private final TrigramIndex indice = new TrigramIndex();
+    private final UsuarioRepository usuarioRepository;
+    // Escritas feitas enquanto a carga lê o banco, reaplicadas sobre o resultado dela (monitor da instância)
+    private final Map<Long, Optional<String>> alteracoesDuranteCarga = new HashMap<>();
+    private boolean carregando = false;
+    private volatile boolean pronto = false;
+
+    public NomeIndexService(UsuarioRepository usuarioRepository) {
+        this.usuarioRepository = usuarioRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        try {
+            long inicio = System.currentTimeMillis();
+            synchronized (this) {
+                carregando = true;
+                alteracoesDuranteCarga.clear();
+            }
+            List<Object[]> linhas = usuarioRepository.findIdENome();
+
+            synchronized (this) {
+                indice.clear();
+                for (Object[] linha : linhas) {
+                    indice.put((Long) linha[0], (String) linha[1]);
+                }
+                alteracoesDuranteCarga.forEach(this::aplicarNoIndice);
+                alteracoesDuranteCarga.clear();
+                carregando = false;
+            }
+            pronto = true;
+            logger.info("Índice de nomes carregado com {} usuários em {} ms",
+                    indice.size(), System.currentTimeMillis() - inicio);
+        } catch (DataAccessException e) {
+            synchronized (this) {
+                carregando = false;
+                alteracoesDuranteCarga.clear();
+            }
+            logger.error("Erro ao carregar índice de nomes, buscas seguirão pelo banco", e);
+        }
+    }
+
+    public boolean isPronto() {
+        return pronto;
+    }
+
+    /**
+     * Ids de usuário cujo nome contém o termo, do mais ao menos relevante
+     */
+    public List<Long> buscarUsuarioIds(String nome) {
+        return indice.buscar(nome, LIMITE_RESULTADOS);
+    }
+
+    public void atualizar(Long usuarioId, String nome) {
+        if (usuarioId == null || nome == null) {
+            return;
+        }
+        TransactionUtils.runAfterCommit(() -> aplicar(usuarioId, Optional.of(nome)));
+    }
+
+    public void remover(Long usuarioId) {
+        if (usuarioId == null) {
+            return;
+        }
+        TransactionUtils.runAfterCommit(() -> aplicar(usuarioId, Optional.empty()));
+    }
+
+    private synchronized void aplicar(Long usuarioId, Optional<String> nome) {
+        aplicarNoIndice(usuarioId, nome);
+        if (carregando) {
+            alteracoesDuranteCarga.put(usuarioId, nome);
+        }
+    }
+
+    private void aplicarNoIndice(Long usuarioId, Optional<String> nome) {
+        if (nome.isPresent()) {
+            indice.put(usuarioId, nome.get());
+        } else {
+            indice.remove(usuarioId);
+        }
+    }
+
+    /**
+     * Reordena entidades carregadas por id na ordem de relevância do índice
+     */
+    public <T> List<T> ordenar(List<Long> usuarioIds, List<T> itens, Function<T, Long> usuarioId) {
+        Map<Long, Integer> posicoes = new HashMap<>();
+        for (int i = 0; i < usuarioIds.size(); i++) {
+            posicoes.put(usuarioIds.get(i), i);
+        }
+        List<T> ordenados = new ArrayList<>(itens);
+        ordenados.sort(Comparator.comparingInt(item -> posicoes.getOrDefault(usuarioId.apply(item), Integer.MAX_VALUE)));
+        return ordenados;
+    }
+}
@@ -0,0 +1,269 @@
+package com.itb.inf2fm.projetoback.service;
+
+import com.itb.inf2fm.projetoback.exception.InvalidOperationException;
+import com.itb.inf2fm.projetoback.exception.ResourceNotFoundException;
+import com.itb.inf2fm.projetoback.exception.ValidationException;
+import com.itb.inf2fm.projetoback.repository.TecnicoRepository;
+import com.itb.inf2fm.projetoback.util.CsvReader;
+import com.itb.inf2fm.projetoback.util.KdTree;
+import com.itb.inf2fm.projetoback.util.TextoUtils;
+import com.itb.inf2fm.projetoback.util.TransactionUtils;
+import com.itb.inf2fm.projetoback.util.ValidationUtils;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Proximidade Service - Busca dos técnicos ativos mais próximos de um CEP
+ *
+ * Otimizações:
+ * - Coordenadas dos CEPs lidas uma vez de um arquivo local (app.proximidade.arquivo-cep),
+ *   sem chamadas a serviços externos
+ * - Uma árvore k-d em arrays primitivos por especialidade, só com técnicos ATIVOS:
+ *   a busca dos k vizinhos não precisa filtrar nada e fica na casa dos microssegundos
+ * - As árvores são imutáveis e trocadas de uma vez; escritas em técnicos só marcam o índice
+ *   como desatualizado e a reconstrução roda em background, agrupando alterações próximas
+ *
+ * O arquivo de CEPs pode ter CEPs completos (8 dígitos) ou prefixos (5 ou 3 dígitos);
+ * vale a entrada mais específica encontrada. Técnicos cujo CEP não é encontrado ficam fora do índice.
+ */
+@Service
+public class ProximidadeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProximidadeService.class);
+    private static final int[] TAMANHOS_PREFIXO = {8, 5, 3};
+    public static final int LIMITE_VIZINHOS = 50;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "Proximidade-Indice");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean reconstrucaoAgendada = new AtomicBoolean(false);
+
+    private final TecnicoRepository tecnicoRepository;
+    private final Resource arquivoCep;
+    private final long atrasoReconstrucao;
+
+    // CEP (ou prefixo) -> posição nos arrays de coordenadas
+    private volatile Map<String, Integer> posicoesCep = Map.of();
+    private volatile double[] latitudesCep = new double[0];
+    private volatile double[] longitudesCep = new double[0];
+    private volatile Indice indice;
+
+    public ProximidadeService(TecnicoRepository tecnicoRepository,
+                              @Value("${app.proximidade.arquivo-cep:classpath:dados/cep-coordenadas.csv}") Resource arquivoCep,
+                              @Value("${app.proximidade.atraso-reconstrucao:1000}") long atrasoReconstrucao) {
+        this.tecnicoRepository = tecnicoRepository;
+        this.arquivoCep = arquivoCep;
+        this.atrasoReconstrucao = atrasoReconstrucao;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        try {
+            carregarCeps();
+            reconstruir();
+        } catch (IOException e) {
+            logger.error("Erro ao ler o arquivo de coordenadas de CEP {}, busca por proximidade indisponível",
+                    arquivoCep.getDescription(), e);
+        }
+    }
+
+    public boolean isPronto() {
+        return indice != null;
+    }
+
+    /**
+     * Os k técnicos ativos mais próximos do CEP, do mais ao menos próximo.
+     * Sem especialidade, considera todos os técnicos ativos.
+     */
+    public KdTree.Vizinhos buscar(String cep, String especialidade, int k) {
+        if (cep == null || !ValidationUtils.isValidCEP(cep)) {
+            throw new ValidationException("CEP inválido: informe 8 dígitos, com ou sem hífen");
+        }
+        if (k < 1 || k > LIMITE_VIZINHOS) {
+            throw new ValidationException("Quantidade de técnicos deve estar entre 1 e " + LIMITE_VIZINHOS);
+        }
+        Indice atual = indice;
+        if (atual == null) {
+            throw new InvalidOperationException("buscar técnicos próximos", "índice de proximidade não carregado");
+        }
+        int posicao = localizarCep(ValidationUtils.removeFormatting(cep));
+        if (posicao < 0) {
+            throw new ResourceNotFoundException("Coordenada de CEP", "cep", cep);
+        }
+
+        KdTree arvore = especialidade == null || especialidade.isBlank()
+                ? atual.todos
+                : atual.porEspecialidade.get(TextoUtils.normalizar(especialidade));
+        if (arvore == null) {
+            return KdTree.VAZIA.buscar(0, 0, k);
+        }
+        return arvore.buscar(latitudesCep[posicao], longitudesCep[posicao], k);
+    }
+
+    /**
+     * Marca o índice como desatualizado após o commit; a reconstrução é agendada uma única vez
+     * para todas as alterações feitas dentro do intervalo de atraso
+     */
+    public void marcarAlterado() {
+        TransactionUtils.runAfterCommit(() -> {
+            if (reconstrucaoAgendada.compareAndSet(false, true)) {
+                scheduler.schedule(this::reconstruirSeguro, atrasoReconstrucao, TimeUnit.MILLISECONDS);
+            }
+        });
+    }
+
+    private void reconstruirSeguro() {
+        try {
+            reconstruir();
+        } catch (RuntimeException e) {
+            logger.error("Erro ao reconstruir índice de proximidade, mantendo o anterior: {}", e.getMessage());
+        }
+    }
+
+    private void reconstruir() {
+        // Liberado antes da leitura: alterações durante a reconstrução agendam uma nova
+        reconstrucaoAgendada.set(false);
+        try {
+            long inicio = System.currentTimeMillis();
+            List<Object[]> tecnicos = tecnicoRepository.findIdCepEspecialidadeAtivos();
+
+            Map<String, Acumulador> porEspecialidade = new HashMap<>();
+            Acumulador todos = new Acumulador(tecnicos.size());
+            int semCoordenada = 0;
+            for (Object[] linha : tecnicos) {
+                String cep = linha[1] != null ? ValidationUtils.removeFormatting((String) linha[1]) : null;
+                int posicao = cep != null ? localizarCep(cep) : -1;
+                if (posicao < 0) {
+                    semCoordenada++;
+                    continue;
+                }
+                Long id = (Long) linha[0];
+                todos.adicionar(id, latitudesCep[posicao], longitudesCep[posicao]);
+                if (linha[2] != null) {
+                    porEspecialidade.computeIfAbsent(TextoUtils.normalizar((String) linha[2]), e -> new Acumulador(16))
+                            .adicionar(id, latitudesCep[posicao], longitudesCep[posicao]);
+                }
+            }
+
+            Map<String, KdTree> arvores = new HashMap<>();
+            porEspecialidade.forEach((especialidade, acumulador) -> arvores.put(especialidade, acumulador.construir()));
+            indice = new Indice(todos.construir(), arvores);
+            logger.info("Índice de proximidade carregado: {} técnicos ativos, {} sem coordenada de CEP, em {} ms",
+                    tecnicos.size() - semCoordenada, semCoordenada, System.currentTimeMillis() - inicio);
+        } catch (DataAccessException e) {
+            logger.error("Erro ao carregar técnicos para o índice de proximidade", e);
+        }
+    }
+
+    private void carregarCeps() throws IOException {
+        Map<String, Integer> posicoes = new HashMap<>();
+        double[] latitudes = new double[1024];
+        double[] longitudes = new double[1024];
+        int total = 0;
+        try (BufferedReader leitor = new BufferedReader(
+                new InputStreamReader(arquivoCep.getInputStream(), StandardCharsets.UTF_8))) {
+            CsvReader csv = new CsvReader(leitor);
+            Map<String, String> registro;
+            while ((registro = csv.proximoRegistro()) != null) {
+                String cep = registro.get("cep") != null ? ValidationUtils.removeFormatting(registro.get("cep")) : "";
+                if (cep.length() != 3 && cep.length() != 5 && cep.length() != 8) {
+                    logger.warn("Linha {} do arquivo de CEPs ignorada: CEP '{}' inválido", csv.getLinhaAtual(), cep);
+                    continue;
+                }
+                try {
+                    double latitude = Double.parseDouble(registro.get("latitude"));
+                    double longitude = Double.parseDouble(registro.get("longitude"));
+                    if (total == latitudes.length) {
+                        latitudes = Arrays.copyOf(latitudes, total * 2);
+                        longitudes = Arrays.copyOf(longitudes, total * 2);
+                    }
+                    latitudes[total] = latitude;
+                    longitudes[total] = longitude;
+                    posicoes.put(cep, total++);
+                } catch (NumberFormatException | NullPointerException e) {
+                    logger.warn("Linha {} do arquivo de CEPs ignorada: coordenadas inválidas", csv.getLinhaAtual());
+                }
+            }
+        }
+        latitudesCep = Arrays.copyOf(latitudes, total);
+        longitudesCep = Arrays.copyOf(longitudes, total);
+        posicoesCep = posicoes;
+        logger.info("{} coordenadas de CEP carregadas de {}", total, arquivoCep.getDescription());
+    }
+
+    private int localizarCep(String cep) {
+        for (int tamanho : TAMANHOS_PREFIXO) {
+            if (cep.length() >= tamanho) {
+                Integer posicao = posicoesCep.get(cep.substring(0, tamanho));
+                if (posicao != null) {
+                    return posicao;
+                }
+            }
+        }
+        return -1;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private record Indice(KdTree todos, Map<String, KdTree> porEspecialidade) {
+    }
+
+    /**
+     * Arrays primitivos que crescem enquanto os técnicos são lidos
+     */
+    private static final class Acumulador {
+        private long[] ids;
+        private double[] latitudes;
+        private double[] longitudes;
+        private int tamanho;
+
+        Acumulador(int capacidade) {
+            int inicial = Math.max(capacidade, 1);
+            ids = new long[inicial];
+            latitudes = new double[inicial];
+            longitudes = new double[inicial];
+        }
+
+        void adicionar(long id, double latitude, double longitude) {
+            if (tamanho == ids.length) {
+                ids = Arrays.copyOf(ids, tamanho * 2);
+                latitudes = Arrays.copyOf(latitudes, tamanho * 2);
+                longitudes = Arrays.copyOf(longitudes, tamanho * 2);
+            }
+            ids[tamanho] = id;
+            latitudes[tamanho] = latitude;
+            longitudes[tamanho] = longitude;
+            tamanho++;
+        }
+
+        KdTree construir() {
+            return KdTree.construir(Arrays.copyOf(ids, tamanho),
+                    Arrays.copyOf(latitudes, tamanho), Arrays.copyOf(longitudes, tamanho));
+        }
+    }
+}
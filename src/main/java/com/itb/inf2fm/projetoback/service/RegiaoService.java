@@ -8,27 +8,74 @@ import com.itb.inf2fm.projetoback.exception.*;
 import com.itb.inf2fm.projetoback.model.Regiao;
 import com.itb.inf2fm.projetoback.repository.RegiaoRepository;
 import com.itb.inf2fm.projetoback.util.CrudValidationUtils;
+import com.itb.inf2fm.projetoback.util.PaginacaoUtils;
+import com.itb.inf2fm.projetoback.util.PlanoValidacao;
+import com.itb.inf2fm.projetoback.util.TransactionUtils;
 import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
 
+/**
+ * Regiao Service - Leituras servidas por um snapshot imutável em memória
+ *
+ * Otimizações:
+ * - A tabela de regiões é pequena e quase não muda: todas as regiões ficam num snapshot
+ *   com mapas prontos por id, nome, cidade e status
+ * - Leituras são um acesso a um campo volatile e um get no mapa, sem lock e sem banco
+ * - Escritas (save/delete) montam um novo snapshot a partir do atual e o trocam após o commit
+ *
+ * Nome, cidade e status são comparados sem diferenciar maiúsculas, como no collation do SQL Server.
+ * As regiões devolvidas são cópias: alterá-las não afeta o snapshot.
+ * Regiões criadas fora deste service (ex: BatchService) exigem {@link #recarregarAposCommit()}.
+ */
 @Service
 public class RegiaoService {
 
     private static final Logger logger = LoggerFactory.getLogger(RegiaoService.class);
     private static final String STATUS_ATIVO = "ATIVO";
+    private static final List<String> REGIOES_PADRAO = List.of("Norte", "Sul", "Leste", "Oeste");
+    private static final Map<String, String> CAMPOS_ORDENACAO = Map.of(
+        "id", "id", "nome", "nome", "cidade", "cidade", "statusRegiao", "statusRegiao");
+    private static final Map<String, Function<Regiao, Comparable<?>>> EXTRATORES = Map.of(
+        "id", Regiao::getId,
+        "nome", regiao -> chave(regiao.getNome()),
+        "cidade", regiao -> chave(regiao.getCidade()),
+        "statusRegiao", regiao -> chave(regiao.getStatusRegiao()));
+    private static final PlanoValidacao<Regiao> VALIDACAO = PlanoValidacao.para(Regiao.class)
+        .obrigatorio("nome", Regiao::getNome)
+        .obrigatorio("cidade", Regiao::getCidade)
+        .compilar();
 
     @Autowired
     RegiaoRepository regiaoRepository;
 
+    @Autowired
+    BatchService batchService;
+
+    private volatile Snapshot snapshot;
+
     @Transactional
     public Regiao save(Regiao regiao) {
         if (regiao == null) {
@@ -36,11 +83,7 @@ public class RegiaoService {
         }
         
         // Validações de campos obrigatórios
-        Map<String, Object> requiredFields = new HashMap<>();
-        requiredFields.put("nome", regiao.getNome());
-        requiredFields.put("cidade", regiao.getCidade());
-        
-        CrudValidationUtils.validateRequiredFields(requiredFields);
+        VALIDACAO.validar(regiao);
         
         // Verifica duplicatas
         CrudValidationUtils.validateResourceNotExists(
@@ -52,7 +95,10 @@ public class RegiaoService {
             if (regiao.getStatusRegiao() == null || regiao.getStatusRegiao().isEmpty()) {
                 regiao.setStatusRegiao(STATUS_ATIVO);
             }
-            return regiaoRepository.save(regiao);
+            Regiao salva = regiaoRepository.save(regiao);
+            Regiao copia = copiar(salva);
+            aplicarAposCommit(atual -> atual.com(copia));
+            return salva;
         } catch (DataAccessException e) {
             throw new DatabaseException("salvar região", "Erro ao salvar região no banco de dados");
         }
@@ -63,7 +109,7 @@ public class RegiaoService {
         
         try {
             return CrudValidationUtils.validateResourceExists(
-                () -> regiaoRepository.findById(id).orElse(null),
+                () -> copiar(snapshot().porId.get(id)),
                 "Região", id
             );
         } catch (DataAccessException e) {
@@ -73,8 +119,8 @@ public class RegiaoService {
 
     public Regiao findByNome(String nome) {
         try {
-            Optional<Regiao> regiao = regiaoRepository.findByNome(nome);
-            return regiao.orElse(null);
+            Optional<Regiao> regiao = Optional.ofNullable(snapshot().porNome.get(chave(nome)));
+            return regiao.map(RegiaoService::copiar).orElse(null);
         } catch (DataAccessException e) {
             logger.error("Erro ao buscar região por nome: {}", nome, e);
             Regiao regiao = new Regiao();
@@ -86,16 +132,60 @@ public class RegiaoService {
 
     public List<Regiao> findAll() {
         try {
-            return regiaoRepository.findAll();
+            return copiar(snapshot().todas);
         } catch (DataAccessException e) {
             logger.error("Erro ao buscar todas as regiões", e);
             return List.of();
         }
     }
 
+    /**
+     * Página de regiões ordenada e recortada do snapshot, sem banco; com contar = false a resposta
+     * segue o formato sem totais dos demais endpoints paginados
+     */
+    public Slice<Regiao> listarPaginado(int pagina, int tamanho, String ordenacao, boolean contar) {
+        Pageable pageable = PaginacaoUtils.criar(pagina, tamanho, ordenacao, CAMPOS_ORDENACAO);
+        List<Regiao> todas = new ArrayList<>(snapshot().todas);
+        todas.sort(comparador(pageable.getSort()));
+
+        int inicio = (int) Math.min(pageable.getOffset(), todas.size());
+        int fim = Math.min(inicio + pageable.getPageSize(), todas.size());
+        List<Regiao> conteudo = copiar(todas.subList(inicio, fim));
+        if (contar) {
+            return new PageImpl<>(conteudo, pageable, todas.size());
+        }
+        return new SliceImpl<>(conteudo, pageable, fim < todas.size());
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Comparator<Regiao> comparador(Sort sort) {
+        Comparator<Regiao> comparador = (a, b) -> 0;
+        for (Sort.Order ordem : sort) {
+            Function<Regiao, Comparable> extrator = (Function) EXTRATORES.get(ordem.getProperty());
+            Comparator<Regiao> criterio = Comparator.comparing(extrator, Comparator.nullsLast(Comparator.naturalOrder()));
+            comparador = comparador.thenComparing(ordem.isAscending() ? criterio : criterio.reversed());
+        }
+        return comparador;
+    }
+
+    /**
+     * Regiões com os ids informados, na mesma ordem; ids inexistentes são ignorados
+     */
+    public List<Regiao> findByIds(Collection<Long> ids) {
+        Map<Long, Regiao> porId = snapshot().porId;
+        List<Regiao> regioes = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Regiao regiao = porId.get(id);
+            if (regiao != null) {
+                regioes.add(copiar(regiao));
+            }
+        }
+        return regioes;
+    }
+
     public List<Regiao> findByStatus(String status) {
         try {
-            return regiaoRepository.findByStatusRegiao(status);
+            return copiar(snapshot().porStatus.getOrDefault(chave(status), List.of()));
         } catch (DataAccessException e) {
             logger.error("Erro ao buscar regiões por status: {}", status, e);
             return List.of();
@@ -104,7 +194,7 @@ public class RegiaoService {
 
     public List<Regiao> findByCidade(String cidade) {
         try {
-            return regiaoRepository.findByCidade(cidade);
+            return copiar(snapshot().porCidade.getOrDefault(chave(cidade), List.of()));
         } catch (DataAccessException e) {
             logger.error("Erro ao buscar regiões por cidade: {}", cidade, e);
             return List.of();
@@ -122,6 +212,7 @@ public class RegiaoService {
         
         try {
             regiaoRepository.deleteById(id);
+            aplicarAposCommit(atual -> atual.sem(id));
         } catch (DataAccessException e) {
             if (e.getMessage() != null && e.getMessage().contains("foreign key")) {
                 throw new InvalidOperationException("deletar região", 
@@ -133,26 +224,153 @@ public class RegiaoService {
 
     public boolean existsByNome(String nome) {
         try {
-            return regiaoRepository.existsByNome(nome);
+            return snapshot().porNome.containsKey(chave(nome));
         } catch (DataAccessException e) {
             logger.error("Erro ao verificar existência da região por nome: {}", nome, e);
             return false;
         }
     }
 
-    // Método para inicializar regiões padrão
-    public void initializeDefaultRegioes() {
-        String[] regioesDefault = {"Norte", "Sul", "Leste", "Oeste"};
-        
-        for (String nome : regioesDefault) {
-            if (!existsByNome(nome)) {
+    /**
+     * Inicializa as regiões padrão: uma consulta pelos nomes já existentes e um único INSERT em lote
+     * com as que faltam, em vez de uma verificação e um save por região
+     *
+     * @return quantidade de regiões inseridas
+     */
+    @Transactional
+    public int initializeDefaultRegioes() {
+        Set<String> existentes = new HashSet<>();
+        for (Regiao regiao : regiaoRepository.findByNomeIn(REGIOES_PADRAO)) {
+            existentes.add(chave(regiao.getNome()));
+        }
+
+        List<Regiao> novas = new ArrayList<>();
+        for (String nome : REGIOES_PADRAO) {
+            if (!existentes.contains(chave(nome))) {
                 Regiao regiao = new Regiao();
                 regiao.setCidade(nome); // Conforme o INSERT do seu script
                 regiao.setNome(nome);
                 regiao.setDescricao("Região " + nome + " da cidade");
                 regiao.setStatusRegiao(STATUS_ATIVO);
-                save(regiao);
+                novas.add(regiao);
             }
         }
+        if (novas.isEmpty()) {
+            return 0;
+        }
+
+        batchService.batchInsertRegioes(novas);
+        recarregarAposCommit();
+        return novas.size();
+    }
+
+    /**
+     * Relê todas as regiões após o commit; para escritas feitas diretamente no banco
+     */
+    public void recarregarAposCommit() {
+        TransactionUtils.runAfterCommit(this::carregar);
+    }
+
+    public long getVersao() {
+        return snapshot().versao;
+    }
+
+    private Snapshot snapshot() {
+        Snapshot atual = snapshot;
+        return atual != null ? atual : carregar();
+    }
+
+    // A carga e as trocas são serializadas: uma escrita commitada durante a carga é aplicada sobre ela
+    private synchronized Snapshot carregar() {
+        long versao = snapshot != null ? snapshot.versao + 1 : 1;
+        List<Regiao> regioes = new ArrayList<>();
+        for (Regiao regiao : regiaoRepository.findAll()) {
+            regioes.add(copiar(regiao));
+        }
+        snapshot = new Snapshot(versao, regioes);
+        logger.debug("Snapshot de regiões carregado: {} regiões, versão {}", regioes.size(), versao);
+        return snapshot;
+    }
+
+    private void aplicarAposCommit(UnaryOperator<Snapshot> alteracao) {
+        TransactionUtils.runAfterCommit(() -> {
+            synchronized (this) {
+                // Sem snapshot carregado, a próxima leitura já busca o estado atual
+                if (snapshot != null) {
+                    snapshot = alteracao.apply(snapshot);
+                }
+            }
+        });
+    }
+
+    private static String chave(String texto) {
+        return texto != null ? texto.trim().toLowerCase(Locale.ROOT) : "";
+    }
+
+    private static Regiao copiar(Regiao regiao) {
+        if (regiao == null) {
+            return null;
+        }
+        Regiao copia = new Regiao(regiao.getCidade(), regiao.getNome(), regiao.getDescricao(), regiao.getStatusRegiao());
+        copia.setId(regiao.getId());
+        return copia;
+    }
+
+    private static List<Regiao> copiar(Collection<Regiao> regioes) {
+        List<Regiao> copias = new ArrayList<>(regioes.size());
+        for (Regiao regiao : regioes) {
+            copias.add(copiar(regiao));
+        }
+        return copias;
+    }
+
+    /**
+     * Estado imutável de todas as regiões; nunca alterado depois de construído
+     */
+    private static final class Snapshot {
+        final long versao;
+        final List<Regiao> todas;
+        final Map<Long, Regiao> porId;
+        final Map<String, Regiao> porNome;
+        final Map<String, List<Regiao>> porCidade;
+        final Map<String, List<Regiao>> porStatus;
+
+        Snapshot(long versao, Collection<Regiao> regioes) {
+            Map<Long, Regiao> ids = new LinkedHashMap<>();
+            Map<String, Regiao> nomes = new HashMap<>();
+            Map<String, List<Regiao>> cidades = new HashMap<>();
+            Map<String, List<Regiao>> status = new HashMap<>();
+            for (Regiao regiao : regioes) {
+                ids.put(regiao.getId(), regiao);
+                nomes.putIfAbsent(chave(regiao.getNome()), regiao);
+                cidades.computeIfAbsent(chave(regiao.getCidade()), c -> new ArrayList<>()).add(regiao);
+                status.computeIfAbsent(chave(regiao.getStatusRegiao()), c -> new ArrayList<>()).add(regiao);
+            }
+            this.versao = versao;
+            this.todas = List.copyOf(ids.values());
+            this.porId = Map.copyOf(ids);
+            this.porNome = Map.copyOf(nomes);
+            this.porCidade = imutavel(cidades);
+            this.porStatus = imutavel(status);
+        }
+
+        Snapshot com(Regiao regiao) {
+            Map<Long, Regiao> regioes = new LinkedHashMap<>(porId.size() + 1);
+            todas.forEach(r -> regioes.put(r.getId(), r));
+            regioes.put(regiao.getId(), regiao);
+            return new Snapshot(versao + 1, regioes.values());
+        }
+
+        Snapshot sem(Long id) {
+            List<Regiao> regioes = new ArrayList<>(todas);
+            regioes.removeIf(r -> r.getId().equals(id));
+            return new Snapshot(versao + 1, regioes);
+        }
+
+        private static Map<String, List<Regiao>> imutavel(Map<String, List<Regiao>> mapa) {
+            Map<String, List<Regiao>> copia = new HashMap<>();
+            mapa.forEach((k, v) -> copia.put(k, List.copyOf(v)));
+            return Map.copyOf(copia);
+        }
     }
 }
@@ -0,0 +1,124 @@
+package com.itb.inf2fm.projetoback.service;
+
+import com.itb.inf2fm.projetoback.model.Servico;
+import com.itb.inf2fm.projetoback.repository.ServicoRepository;
+import com.itb.inf2fm.projetoback.util.IndiceInvertido;
+import com.itb.inf2fm.projetoback.util.TransactionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Servico Busca Service - Índice invertido do catálogo de serviços
+ *
+ * Otimizações:
+ * - Substitui o LIKE '%termo%' em nome e tipo (full scan a cada busca)
+ * - Sem acentos e sem diferenciar maiúsculas: "eletrica" encontra "Elétrica"
+ * - Palavras incompletas casam por prefixo ("elet" -> "Eletricista")
+ * - Resultados ordenados por relevância: nome pesa mais que tipo
+ * - Atualizado incrementalmente nas escritas do ServicoService, após o commit
+ *
+ * Enquanto o índice não estiver carregado, as buscas continuam indo ao banco.
+ */
+@Service
+public class ServicoBuscaService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ServicoBuscaService.class);
+    public static final int LIMITE_RESULTADOS = 100;
+    private static final int PESO_NOME = 3;
+    private static final int PESO_TIPO = 2;
+
+    private final IndiceInvertido indice = new IndiceInvertido(PESO_NOME, PESO_TIPO);
+    private final ServicoRepository servicoRepository;
+    // Escritas feitas enquanto a carga lê o banco, reaplicadas sobre o resultado dela (monitor da instância)
+    private final Map<Long, Optional<Campos>> alteracoesDuranteCarga = new HashMap<>();
+    private boolean carregando = false;
+    private volatile boolean pronto = false;
+
+    private record Campos(String nome, String tipo) {}
+
+    public ServicoBuscaService(ServicoRepository servicoRepository) {
+        this.servicoRepository = servicoRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        try {
+            long inicio = System.currentTimeMillis();
+            synchronized (this) {
+                carregando = true;
+                alteracoesDuranteCarga.clear();
+            }
+            List<Servico> servicos = servicoRepository.findAll();
+
+            synchronized (this) {
+                indice.clear();
+                for (Servico servico : servicos) {
+                    indice.put(servico.getId(), servico.getNome(), servico.getTipo());
+                }
+                alteracoesDuranteCarga.forEach(this::aplicarNoIndice);
+                alteracoesDuranteCarga.clear();
+                carregando = false;
+            }
+            pronto = true;
+            logger.info("Índice do catálogo de serviços carregado com {} serviços em {} ms",
+                    indice.size(), System.currentTimeMillis() - inicio);
+        } catch (DataAccessException e) {
+            synchronized (this) {
+                carregando = false;
+                alteracoesDuranteCarga.clear();
+            }
+            logger.error("Erro ao carregar índice de serviços, buscas seguirão pelo banco", e);
+        }
+    }
+
+    public boolean isPronto() {
+        return pronto;
+    }
+
+    /**
+     * Ids dos serviços que contêm todas as palavras do termo, do mais ao menos relevante
+     */
+    public List<Long> buscarIds(String termo) {
+        return indice.buscar(termo, LIMITE_RESULTADOS);
+    }
+
+    public void atualizar(Servico servico) {
+        if (servico == null || servico.getId() == null) {
+            return;
+        }
+        Long id = servico.getId();
+        Campos campos = new Campos(servico.getNome(), servico.getTipo());
+        TransactionUtils.runAfterCommit(() -> aplicar(id, Optional.of(campos)));
+    }
+
+    public void remover(Long servicoId) {
+        if (servicoId == null) {
+            return;
+        }
+        TransactionUtils.runAfterCommit(() -> aplicar(servicoId, Optional.empty()));
+    }
+
+    private synchronized void aplicar(Long servicoId, Optional<Campos> campos) {
+        aplicarNoIndice(servicoId, campos);
+        if (carregando) {
+            alteracoesDuranteCarga.put(servicoId, campos);
+        }
+    }
+
+    private void aplicarNoIndice(Long servicoId, Optional<Campos> campos) {
+        if (campos.isPresent()) {
+            indice.put(servicoId, campos.get().nome(), campos.get().tipo());
+        } else {
+            indice.remove(servicoId);
+        }
+    }
+}
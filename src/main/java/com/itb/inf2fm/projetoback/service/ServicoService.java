@@ -4,11 +4,16 @@ import com.itb.inf2fm.projetoback.exception.*;
 import com.itb.inf2fm.projetoback.model.Servico;
 import com.itb.inf2fm.projetoback.repository.ServicoRepository;
 import com.itb.inf2fm.projetoback.util.CrudValidationUtils;
+import com.itb.inf2fm.projetoback.util.PaginacaoUtils;
+import com.itb.inf2fm.projetoback.util.PlanoValidacao;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -16,13 +21,36 @@ import java.util.Map;
 @Service
 public class ServicoService {
 
+    private static final Map<String, String> CAMPOS_ORDENACAO = Map.of(
+        "id", "id", "nome", "nome", "tipo", "tipo", "preco", "preco");
+    private static final PlanoValidacao<Servico> VALIDACAO = PlanoValidacao.para(Servico.class)
+        .obrigatorio("nome", Servico::getNome)
+        .obrigatorio("tipo", Servico::getTipo)
+        .obrigatorio("preco", Servico::getPreco)
+        .compilar();
+
     @Autowired
     private ServicoRepository servicoRepository;
 
+    @Autowired
+    private ServicoBuscaService servicoBuscaService;
+
     public List<Servico> listarTodos() {
         return servicoRepository.findAll();
     }
 
+    /**
+     * Página do catálogo; com contar = false não roda o COUNT(*)
+     */
+    public Slice<Servico> listarPaginado(int pagina, int tamanho, String ordenacao, boolean contar) {
+        Pageable pageable = PaginacaoUtils.criar(pagina, tamanho, ordenacao, CAMPOS_ORDENACAO);
+        try {
+            return contar ? servicoRepository.findAll(pageable) : servicoRepository.findAllBy(pageable);
+        } catch (DataAccessException e) {
+            throw new DatabaseException("listar serviços", "Erro ao buscar serviços no banco de dados");
+        }
+    }
+
     public Servico buscarPorId(Long id) {
         CrudValidationUtils.validateId(id, "Serviço");
         
@@ -44,8 +72,33 @@ public class ServicoService {
         return servicoRepository.findByTipoIgnoreCase(tipo);
     }
 
+    /**
+     * Busca por palavras de nome e tipo no índice invertido, do mais ao menos relevante;
+     * vai ao banco (LIKE) apenas enquanto o índice não estiver carregado
+     */
     public List<Servico> buscarPorTermo(String termo) {
-        return servicoRepository.buscarPorTermo(termo);
+        if (termo == null || termo.isBlank()) {
+            return listarTodos();
+        }
+        if (!servicoBuscaService.isPronto()) {
+            return servicoRepository.buscarPorTermo(termo);
+        }
+        List<Long> ids = servicoBuscaService.buscarIds(termo);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Servico> porId = new HashMap<>();
+        for (Servico servico : servicoRepository.findAllById(ids)) {
+            porId.put(servico.getId(), servico);
+        }
+        List<Servico> servicos = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Servico servico = porId.get(id);
+            if (servico != null) {
+                servicos.add(servico);
+            }
+        }
+        return servicos;
     }
 
     @Transactional
@@ -55,15 +108,12 @@ public class ServicoService {
         }
         
         // Validações de campos obrigatórios
-        Map<String, Object> requiredFields = new HashMap<>();
-        requiredFields.put("nome", servico.getNome());
-        requiredFields.put("tipo", servico.getTipo());
-        requiredFields.put("preco", servico.getPreco());
-        
-        CrudValidationUtils.validateRequiredFields(requiredFields);
+        VALIDACAO.validar(servico);
         
         try {
-            return servicoRepository.save(servico);
+            Servico salvo = servicoRepository.save(servico);
+            servicoBuscaService.atualizar(salvo);
+            return salvo;
         } catch (DataAccessException e) {
             throw new DatabaseException("salvar serviço", "Erro ao salvar serviço no banco de dados");
         }
@@ -92,7 +142,9 @@ public class ServicoService {
                 servico.setTipo(servicoAtualizado.getTipo());
             }
             
-            return servicoRepository.save(servico);
+            Servico salvo = servicoRepository.save(servico);
+            servicoBuscaService.atualizar(salvo);
+            return salvo;
         } catch (DataAccessException e) {
             throw new DatabaseException("atualizar serviço", "Erro ao atualizar serviço no banco de dados");
         }
@@ -109,6 +161,7 @@ public class ServicoService {
         
         try {
             servicoRepository.deleteById(id);
+            servicoBuscaService.remover(id);
         } catch (DataAccessException e) {
             if (e.getMessage() != null && e.getMessage().contains("foreign key")) {
                 throw new InvalidOperationException("deletar serviço", 
@@ -0,0 +1,140 @@
+package com.itb.inf2fm.projetoback.service;
+
+import com.itb.inf2fm.projetoback.util.TabelaLote;
+import com.microsoft.sqlserver.jdbc.ISQLServerBulkData;
+import com.microsoft.sqlserver.jdbc.SQLServerBulkCopy;
+import com.microsoft.sqlserver.jdbc.SQLServerBulkCopyOptions;
+import com.microsoft.sqlserver.jdbc.SQLServerConnection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * SQL Server Bulk Copy Escritor - Gravação em lote pelo protocolo de bulk load do SQL Server (SQLServerBulkCopy)
+ *
+ * Otimizações:
+ * - As linhas vão para o servidor como um fluxo TDS de bulk load, não como um INSERT parametrizado por linha:
+ *   em link de alta latência, milhares de linhas custam poucos round-trips
+ * - As linhas são lidas do iterador sob demanda pelo driver: nada é montado inteiro em memória
+ * - Envio a cada tamanhoLote linhas (BatchSize), na transação da conexão recebida
+ *
+ * Mesmo comportamento do INSERT: constraints verificadas (CheckConstraints), nulos mantidos (KeepNulls)
+ * e identidade gerada pelo banco. Desligável com app.batch.bulk-copy=false.
+ */
+@Service
+@Order(0)
+@ConditionalOnProperty(name = "app.batch.bulk-copy", havingValue = "true", matchIfMissing = true)
+public class SqlServerBulkCopyEscritor implements EscritorLote {
+
+    private final int timeoutSegundos;
+
+    public SqlServerBulkCopyEscritor(@Value("${app.batch.timeout-segundos:0}") int timeoutSegundos) {
+        this.timeoutSegundos = timeoutSegundos;
+    }
+
+    @Override
+    public String getNome() {
+        return "bulk-copy";
+    }
+
+    @Override
+    public boolean suporta(Connection conexao) throws SQLException {
+        return conexao.isWrapperFor(SQLServerConnection.class);
+    }
+
+    @Override
+    public <T> long escrever(Connection conexao, TabelaLote<T> tabela, Iterator<? extends T> linhas, int tamanhoLote)
+            throws SQLException {
+        SQLServerBulkCopyOptions opcoes = new SQLServerBulkCopyOptions();
+        opcoes.setBatchSize(tamanhoLote);
+        opcoes.setBulkCopyTimeout(timeoutSegundos);
+        opcoes.setCheckConstraints(true);
+        opcoes.setKeepNulls(true);
+
+        Origem<T> origem = new Origem<>(tabela, linhas);
+        // O pool entrega um proxy; o bulk copy precisa da conexão do driver
+        try (SQLServerBulkCopy bulkCopy = new SQLServerBulkCopy(conexao.unwrap(SQLServerConnection.class))) {
+            bulkCopy.setBulkCopyOptions(opcoes);
+            bulkCopy.setDestinationTableName(tabela.getNome());
+            for (int i = 0; i < tabela.getQuantidadeColunas(); i++) {
+                bulkCopy.addColumnMapping(i + 1, tabela.getColuna(i));
+            }
+            bulkCopy.writeToServer(origem);
+        }
+        return origem.lidas;
+    }
+
+    /**
+     * Adapta TabelaLote + iterador para a interface de origem do bulk copy (colunas a partir de 1)
+     */
+    private static final class Origem<T> implements ISQLServerBulkData {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient TabelaLote<T> tabela;
+        private final transient Iterator<? extends T> linhas;
+        private final Set<Integer> ordinais = new LinkedHashSet<>();
+        private transient T atual;
+        private long lidas;
+
+        Origem(TabelaLote<T> tabela, Iterator<? extends T> linhas) {
+            this.tabela = tabela;
+            this.linhas = linhas;
+            for (int i = 1; i <= tabela.getQuantidadeColunas(); i++) {
+                ordinais.add(i);
+            }
+        }
+
+        @Override
+        public Set<Integer> getColumnOrdinals() {
+            return ordinais;
+        }
+
+        @Override
+        public String getColumnName(int coluna) {
+            return tabela.getColuna(coluna - 1);
+        }
+
+        @Override
+        public int getColumnType(int coluna) {
+            return tabela.getTipoSql(coluna - 1);
+        }
+
+        @Override
+        public int getPrecision(int coluna) {
+            return tabela.getPrecisao(coluna - 1);
+        }
+
+        @Override
+        public int getScale(int coluna) {
+            return tabela.getEscala(coluna - 1);
+        }
+
+        @Override
+        public Object[] getRowData() {
+            Object[] valores = new Object[tabela.getQuantidadeColunas()];
+            for (int i = 0; i < valores.length; i++) {
+                valores[i] = tabela.valor(i, atual);
+            }
+            return valores;
+        }
+
+        @Override
+        public boolean next() {
+            if (!linhas.hasNext()) {
+                atual = null;
+                return false;
+            }
+            atual = linhas.next();
+            lidas++;
+            return true;
+        }
+    }
+}
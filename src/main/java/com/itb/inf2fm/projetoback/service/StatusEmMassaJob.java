@@ -0,0 +1,78 @@
+package com.itb.inf2fm.projetoback.service;
+
+import com.itb.inf2fm.projetoback.exception.ValidationException;
+import com.itb.inf2fm.projetoback.repository.ClienteRepository;
+import com.itb.inf2fm.projetoback.repository.TecnicoRepository;
+import com.itb.inf2fm.projetoback.repository.UsuarioRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Status Em Massa Job - Troca o status de todos os usuários, clientes ou técnicos com um status atual
+ *
+ * Parâmetros: tipo (usuarios, clientes ou tecnicos), statusAtual e status (ATIVO ou INATIVO).
+ * Versão retomável do PUT /admin/status/{tipo} para a tabela inteira: cada bloco de ids passa
+ * pelo mesmo AdminService.aplicarStatusEmBloco (UPDATEs set-based, usuário vinculado, bitmaps
+ * de técnicos e cache), na sua própria transação. Repetir um bloco reaplica o mesmo status.
+ */
+@Service
+public class StatusEmMassaJob implements JobDefinicao {
+
+    public static final String TIPO = "status-em-massa";
+
+    private final AdminService adminService;
+    private final UsuarioRepository usuarioRepository;
+    private final ClienteRepository clienteRepository;
+    private final TecnicoRepository tecnicoRepository;
+
+    public StatusEmMassaJob(AdminService adminService, UsuarioRepository usuarioRepository,
+                            ClienteRepository clienteRepository, TecnicoRepository tecnicoRepository) {
+        this.adminService = adminService;
+        this.usuarioRepository = usuarioRepository;
+        this.clienteRepository = clienteRepository;
+        this.tecnicoRepository = tecnicoRepository;
+    }
+
+    @Override
+    public String getTipo() {
+        return TIPO;
+    }
+
+    @Override
+    public Map<String, String> validar(Map<String, String> parametros) {
+        String tipo = parametros.get("tipo");
+        AdminService.tabelaDoTipo(tipo);
+        String status = AdminService.statusPermitido(parametros.get("status"));
+        String statusAtual = parametros.get("statusAtual");
+        if (statusAtual == null || statusAtual.isBlank()) {
+            throw new ValidationException("Informe o statusAtual dos registros a alterar");
+        }
+        statusAtual = statusAtual.trim().toUpperCase(Locale.ROOT);
+        if (statusAtual.equals(status)) {
+            throw new ValidationException("statusAtual e status devem ser diferentes");
+        }
+        return Map.of("tipo", tipo.toLowerCase(Locale.ROOT), "statusAtual", statusAtual, "status", status);
+    }
+
+    @Override
+    public List<Long> proximosIds(Map<String, String> parametros, long ultimoId, int tamanho) {
+        String statusAtual = parametros.get("statusAtual");
+        Pageable bloco = PageRequest.of(0, tamanho);
+        return switch (parametros.get("tipo")) {
+            case "usuarios" -> usuarioRepository.findIdsPorStatus(statusAtual, ultimoId, bloco);
+            case "clientes" -> clienteRepository.findIdsPorStatus(statusAtual, ultimoId, bloco);
+            case "tecnicos" -> tecnicoRepository.findIdsPorStatus(statusAtual, ultimoId, bloco);
+            default -> throw new IllegalStateException("Tipo inválido: " + parametros.get("tipo"));
+        };
+    }
+
+    @Override
+    public int processar(Map<String, String> parametros, List<Long> ids) {
+        return adminService.aplicarStatusEmBloco(parametros.get("tipo"), ids, parametros.get("status")).alterados();
+    }
+}
@@ -0,0 +1,343 @@
+package com.itb.inf2fm.projetoback.service;
+
+import com.itb.inf2fm.projetoback.repository.TecnicoRegiaoRepository;
+import com.itb.inf2fm.projetoback.repository.TecnicoRepository;
+import com.itb.inf2fm.projetoback.util.TextoUtils;
+import com.itb.inf2fm.projetoback.util.TransactionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Tecnico Matching Service - Bitmaps de técnicos por especialidade, região e status
+ *
+ * Otimizações:
+ * - Cada especialidade, região e status guarda um BitSet com os ids dos técnicos
+ * - "Técnicos ATIVOS de uma especialidade nas regiões X e Y" vira uma interseção de bitmaps
+ * - Mantido incrementalmente pelas escritas do TecnicoService, sem recarregar as tabelas
+ *
+ * Enquanto os bitmaps não estiverem carregados, isPronto() retorna false e os
+ * chamadores devem consultar o banco. Escritas aplicadas durante a carga são guardadas
+ * e reaplicadas, na ordem, sobre o resultado da leitura (que pode ser anterior a elas).
+ */
+@Service
+public class TecnicoMatchingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TecnicoMatchingService.class);
+
+    private final Map<String, BitSet> porEspecialidade = new HashMap<>();
+    private final Map<String, BitSet> porStatus = new HashMap<>();
+    private final Map<Long, BitSet> porRegiao = new HashMap<>();
+    // Estado atual de cada técnico, necessário para limpar os bits antigos numa atualização
+    private final Map<Long, Perfil> perfis = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Escritas feitas enquanto carregar() lê o banco (protegidas pelo write lock)
+    private final List<Runnable> alteracoesDuranteCarga = new ArrayList<>();
+    private boolean carregando = false;
+
+    private final TecnicoRepository tecnicoRepository;
+    private final TecnicoRegiaoRepository tecnicoRegiaoRepository;
+    private volatile boolean pronto = false;
+
+    public TecnicoMatchingService(TecnicoRepository tecnicoRepository,
+                                  TecnicoRegiaoRepository tecnicoRegiaoRepository) {
+        this.tecnicoRepository = tecnicoRepository;
+        this.tecnicoRegiaoRepository = tecnicoRegiaoRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        marcarCarga(true);
+        try {
+            long inicio = System.currentTimeMillis();
+            List<Object[]> tecnicos = tecnicoRepository.findIdEspecialidadeStatus();
+            List<Object[]> vinculos = tecnicoRegiaoRepository.findTecnicoIdERegiaoId();
+
+            lock.writeLock().lock();
+            try {
+                limpar();
+                for (Object[] linha : tecnicos) {
+                    definirPerfil((Long) linha[0], (String) linha[1], (String) linha[2]);
+                }
+                for (Object[] linha : vinculos) {
+                    vincular((Long) linha[0], (Long) linha[1]);
+                }
+                // A leitura pode não ver o que foi gravado depois dela: reaplica por cima
+                for (Runnable alteracao : alteracoesDuranteCarga) {
+                    aplicar(alteracao);
+                }
+                int reaplicadas = alteracoesDuranteCarga.size();
+                alteracoesDuranteCarga.clear();
+                carregando = false;
+                pronto = true;
+                if (reaplicadas > 0) {
+                    logger.info("{} alterações feitas durante a carga reaplicadas nos bitmaps de técnicos", reaplicadas);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            logger.info("Bitmaps de técnicos carregados: {} técnicos, {} vínculos de região em {} ms",
+                    tecnicos.size(), vinculos.size(), System.currentTimeMillis() - inicio);
+        } catch (DataAccessException | IllegalArgumentException e) {
+            pronto = false;
+            marcarCarga(false);
+            logger.error("Erro ao carregar bitmaps de técnicos, buscas seguirão pelo banco", e);
+        }
+    }
+
+    public boolean isPronto() {
+        return pronto;
+    }
+
+    /**
+     * Ids dos técnicos que atendem a todos os filtros informados, em ordem crescente.
+     * Filtros nulos (ou lista de regiões vazia) são ignorados; com várias regiões,
+     * o técnico precisa atender todas elas.
+     */
+    public List<Long> buscar(String especialidade, String status, Collection<Long> regiaoIds) {
+        lock.readLock().lock();
+        try {
+            BitSet resultado = null;
+            if (especialidade != null) {
+                resultado = intersectar(resultado, porEspecialidade.get(chaveEspecialidade(especialidade)));
+            }
+            if (status != null) {
+                resultado = intersectar(resultado, porStatus.get(chaveStatus(status)));
+            }
+            if (regiaoIds != null) {
+                for (Long regiaoId : regiaoIds) {
+                    resultado = intersectar(resultado, porRegiao.get(regiaoId));
+                }
+            }
+            if (resultado == null) {
+                // Nenhum filtro: todos os técnicos conhecidos
+                resultado = new BitSet();
+                for (Long id : perfis.keySet()) {
+                    resultado.set(bit(id));
+                }
+            }
+
+            List<Long> ids = new ArrayList<>(resultado.cardinality());
+            for (int i = resultado.nextSetBit(0); i >= 0; i = resultado.nextSetBit(i + 1)) {
+                ids.add((long) i);
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Atualiza especialidade e status do técnico após o commit.
+     * regiaoIds, quando informado, substitui o conjunto de regiões do técnico.
+     */
+    public void atualizar(Long tecnicoId, String especialidade, String status, Collection<Long> regiaoIds) {
+        if (tecnicoId == null) {
+            return;
+        }
+        Set<Long> regioes = regiaoIds != null ? new HashSet<>(regiaoIds) : null;
+        TransactionUtils.runAfterCommit(() -> escrever(() -> {
+            definirPerfil(tecnicoId, especialidade, status);
+            if (regioes != null) {
+                Perfil perfil = perfis.get(tecnicoId);
+                for (Long regiaoId : new ArrayList<>(perfil.regioes)) {
+                    if (!regioes.contains(regiaoId)) {
+                        desvincular(tecnicoId, regiaoId);
+                    }
+                }
+                for (Long regiaoId : regioes) {
+                    vincular(tecnicoId, regiaoId);
+                }
+            }
+        }));
+    }
+
+    /**
+     * Troca só o status dos técnicos após o commit (alteração em massa); ids desconhecidos são ignorados
+     */
+    public void atualizarStatus(Collection<Long> tecnicoIds, String status) {
+        if (tecnicoIds == null || tecnicoIds.isEmpty() || status == null) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(tecnicoIds);
+        String novoStatus = chaveStatus(status);
+        TransactionUtils.runAfterCommit(() -> escrever(() -> {
+            for (Long tecnicoId : ids) {
+                Perfil perfil = tecnicoId != null ? perfis.get(tecnicoId) : null;
+                if (perfil == null) {
+                    continue;
+                }
+                int bit = bit(tecnicoId);
+                limparBit(porStatus, perfil.status, bit);
+                perfil.status = novoStatus;
+                porStatus.computeIfAbsent(novoStatus, k -> new BitSet()).set(bit);
+            }
+        }));
+    }
+
+    public void adicionarRegiao(Long tecnicoId, Long regiaoId) {
+        if (tecnicoId == null || regiaoId == null) {
+            return;
+        }
+        TransactionUtils.runAfterCommit(() -> escrever(() -> vincular(tecnicoId, regiaoId)));
+    }
+
+    public void removerRegiao(Long tecnicoId, Long regiaoId) {
+        if (tecnicoId == null || regiaoId == null) {
+            return;
+        }
+        TransactionUtils.runAfterCommit(() -> escrever(() -> desvincular(tecnicoId, regiaoId)));
+    }
+
+    public void remover(Long tecnicoId) {
+        if (tecnicoId == null) {
+            return;
+        }
+        TransactionUtils.runAfterCommit(() -> escrever(() -> {
+            Perfil perfil = perfis.remove(tecnicoId);
+            if (perfil == null) {
+                return;
+            }
+            int bit = bit(tecnicoId);
+            limparBit(porEspecialidade, perfil.especialidade, bit);
+            limparBit(porStatus, perfil.status, bit);
+            for (Long regiaoId : perfil.regioes) {
+                limparBit(porRegiao, regiaoId, bit);
+            }
+        }));
+    }
+
+    private void marcarCarga(boolean ativa) {
+        lock.writeLock().lock();
+        try {
+            carregando = ativa;
+            alteracoesDuranteCarga.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void escrever(Runnable alteracao) {
+        lock.writeLock().lock();
+        try {
+            aplicar(alteracao);
+            if (carregando) {
+                alteracoesDuranteCarga.add(alteracao);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Métodos abaixo assumem o write lock
+
+    private void aplicar(Runnable alteracao) {
+        try {
+            alteracao.run();
+        } catch (IllegalArgumentException e) {
+            logger.error("Alteração ignorada nos bitmaps de técnicos: {}", e.getMessage());
+        }
+    }
+
+    private void definirPerfil(Long tecnicoId, String especialidade, String status) {
+        int bit = bit(tecnicoId);
+        Perfil perfil = perfis.computeIfAbsent(tecnicoId, id -> new Perfil());
+        String novaEspecialidade = especialidade != null ? chaveEspecialidade(especialidade) : null;
+        String novoStatus = status != null ? chaveStatus(status) : null;
+
+        limparBit(porEspecialidade, perfil.especialidade, bit);
+        limparBit(porStatus, perfil.status, bit);
+        perfil.especialidade = novaEspecialidade;
+        perfil.status = novoStatus;
+        if (novaEspecialidade != null) {
+            porEspecialidade.computeIfAbsent(novaEspecialidade, k -> new BitSet()).set(bit);
+        }
+        if (novoStatus != null) {
+            porStatus.computeIfAbsent(novoStatus, k -> new BitSet()).set(bit);
+        }
+    }
+
+    private void vincular(Long tecnicoId, Long regiaoId) {
+        Perfil perfil = perfis.get(tecnicoId);
+        if (perfil == null) {
+            return;
+        }
+        perfil.regioes.add(regiaoId);
+        porRegiao.computeIfAbsent(regiaoId, k -> new BitSet()).set(bit(tecnicoId));
+    }
+
+    private void desvincular(Long tecnicoId, Long regiaoId) {
+        Perfil perfil = perfis.get(tecnicoId);
+        if (perfil != null) {
+            perfil.regioes.remove(regiaoId);
+        }
+        limparBit(porRegiao, regiaoId, bit(tecnicoId));
+    }
+
+    private <K> void limparBit(Map<K, BitSet> mapa, K chave, int bit) {
+        if (chave == null) {
+            return;
+        }
+        BitSet bits = mapa.get(chave);
+        if (bits != null) {
+            bits.clear(bit);
+            if (bits.isEmpty()) {
+                mapa.remove(chave);
+            }
+        }
+    }
+
+    private void limpar() {
+        porEspecialidade.clear();
+        porStatus.clear();
+        porRegiao.clear();
+        perfis.clear();
+    }
+
+    private static BitSet intersectar(BitSet atual, BitSet filtro) {
+        if (filtro == null) {
+            return new BitSet();
+        }
+        if (atual == null) {
+            return (BitSet) filtro.clone();
+        }
+        atual.and(filtro);
+        return atual;
+    }
+
+    private static int bit(Long tecnicoId) {
+        if (tecnicoId < 0 || tecnicoId > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("ID de técnico fora do intervalo do bitmap: " + tecnicoId);
+        }
+        return tecnicoId.intValue();
+    }
+
+    private static String chaveEspecialidade(String especialidade) {
+        return TextoUtils.normalizar(especialidade);
+    }
+
+    private static String chaveStatus(String status) {
+        return status.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private static final class Perfil {
+        String especialidade;
+        String status;
+        final Set<Long> regioes = new HashSet<>();
+    }
+}
@@ -0,0 +1,164 @@
+package com.itb.inf2fm.projetoback.service;
+
+import com.itb.inf2fm.projetoback.repository.TecnicoRegiaoRepository;
+import com.itb.inf2fm.projetoback.util.AdjacenciaCsr;
+import com.itb.inf2fm.projetoback.util.TransactionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+
+/**
+ * Tecnico Regiao Index Service - Vínculos técnico ↔ região em memória, nos dois sentidos
+ *
+ * Otimizações:
+ * - Regiões de um técnico e técnicos de uma região saem de listas CSR em arrays primitivos,
+ *   sem carregar entidades TecnicoRegiao nem proxies LAZY
+ * - Leituras sem lock: o par de índices é imutável e trocado de uma vez
+ * - Escritas do TecnicoService e da importação aplicam só a diferença, após o commit
+ *
+ * Enquanto o índice não estiver carregado, as consultas retornam null e os
+ * chamadores devem consultar o banco.
+ */
+@Service
+public class TecnicoRegiaoIndexService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TecnicoRegiaoIndexService.class);
+
+    private final TecnicoRegiaoRepository tecnicoRegiaoRepository;
+    private volatile Indice indice;
+
+    public TecnicoRegiaoIndexService(TecnicoRegiaoRepository tecnicoRegiaoRepository) {
+        this.tecnicoRegiaoRepository = tecnicoRegiaoRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void carregar() {
+        try {
+            long inicio = System.currentTimeMillis();
+            List<Object[]> vinculos = tecnicoRegiaoRepository.findTecnicoIdERegiaoId();
+            long[] tecnicos = new long[vinculos.size()];
+            long[] regioes = new long[vinculos.size()];
+            for (int i = 0; i < vinculos.size(); i++) {
+                tecnicos[i] = (Long) vinculos.get(i)[0];
+                regioes[i] = (Long) vinculos.get(i)[1];
+            }
+            AdjacenciaCsr porTecnico = AdjacenciaCsr.construir(tecnicos, regioes);
+            indice = new Indice(porTecnico, porTecnico.inversa());
+            logger.info("Índice técnico ↔ região carregado: {} vínculos em {} ms",
+                    porTecnico.size(), System.currentTimeMillis() - inicio);
+        } catch (DataAccessException | IllegalArgumentException e) {
+            indice = null;
+            logger.error("Erro ao carregar índice técnico ↔ região, consultas seguirão pelo banco", e);
+        }
+    }
+
+    /**
+     * Ids das regiões do técnico, em ordem crescente; null se o índice não estiver carregado
+     */
+    public long[] regioesDoTecnico(Long tecnicoId) {
+        Indice atual = indice;
+        return atual != null ? atual.porTecnico.vizinhos(tecnicoId) : null;
+    }
+
+    /**
+     * Ids dos técnicos da região, em ordem crescente; null se o índice não estiver carregado
+     */
+    public long[] tecnicosDaRegiao(Long regiaoId) {
+        Indice atual = indice;
+        return atual != null ? atual.porRegiao.vizinhos(regiaoId) : null;
+    }
+
+    public void adicionar(Long tecnicoId, Long regiaoId) {
+        if (tecnicoId == null || regiaoId == null) {
+            return;
+        }
+        aplicarAposCommit(atual -> atual.com(tecnicoId, regiaoId));
+    }
+
+    public void remover(Long tecnicoId, Long regiaoId) {
+        if (tecnicoId == null || regiaoId == null) {
+            return;
+        }
+        aplicarAposCommit(atual -> atual.sem(tecnicoId, regiaoId));
+    }
+
+    /**
+     * Adiciona os vínculos de vários técnicos de uma vez (ex: um lote da importação)
+     */
+    public void adicionarTodos(Map<Long, ? extends Collection<Long>> regioesPorTecnico) {
+        if (regioesPorTecnico.isEmpty()) {
+            return;
+        }
+        aplicarAposCommit(atual -> {
+            Indice resultado = atual;
+            for (Map.Entry<Long, ? extends Collection<Long>> entrada : regioesPorTecnico.entrySet()) {
+                for (Long regiaoId : entrada.getValue()) {
+                    resultado = resultado.com(entrada.getKey(), regiaoId);
+                }
+            }
+            return resultado;
+        });
+    }
+
+    /**
+     * Substitui o conjunto de regiões do técnico
+     */
+    public void substituir(Long tecnicoId, Collection<Long> regiaoIds) {
+        if (tecnicoId == null || regiaoIds == null) {
+            return;
+        }
+        Set<Long> novas = new HashSet<>(regiaoIds);
+        aplicarAposCommit(atual -> {
+            Indice resultado = atual;
+            for (long regiaoId : atual.porTecnico.vizinhos(tecnicoId)) {
+                if (!novas.contains(regiaoId)) {
+                    resultado = resultado.sem(tecnicoId, regiaoId);
+                }
+            }
+            for (Long regiaoId : novas) {
+                resultado = resultado.com(tecnicoId, regiaoId);
+            }
+            return resultado;
+        });
+    }
+
+    public void removerTecnico(Long tecnicoId) {
+        substituir(tecnicoId, List.of());
+    }
+
+    private void aplicarAposCommit(UnaryOperator<Indice> alteracao) {
+        TransactionUtils.runAfterCommit(() -> {
+            synchronized (this) {
+                if (indice == null) {
+                    return;
+                }
+                try {
+                    indice = alteracao.apply(indice);
+                } catch (IllegalArgumentException e) {
+                    logger.error("Alteração ignorada no índice técnico ↔ região: {}", e.getMessage());
+                }
+            }
+        });
+    }
+
+    private record Indice(AdjacenciaCsr porTecnico, AdjacenciaCsr porRegiao) {
+
+        Indice com(long tecnicoId, long regiaoId) {
+            return new Indice(porTecnico.com(tecnicoId, regiaoId), porRegiao.com(regiaoId, tecnicoId));
+        }
+
+        Indice sem(long tecnicoId, long regiaoId) {
+            return new Indice(porTecnico.sem(tecnicoId, regiaoId), porRegiao.sem(regiaoId, tecnicoId));
+        }
+    }
+}
@@ -4,6 +4,8 @@
 // Flutter/ReactJS consomem endpoints que dependem desta lógica
 package com.itb.inf2fm.projetoback.service;
 
+import com.itb.inf2fm.projetoback.dto.TecnicoProximo;
+import com.itb.inf2fm.projetoback.dto.TecnicoResumo;
 import com.itb.inf2fm.projetoback.exception.*;
 import com.itb.inf2fm.projetoback.model.Tecnico;
 import com.itb.inf2fm.projetoback.model.Usuario;
@@ -14,20 +16,35 @@ import com.itb.inf2fm.projetoback.repository.UsuarioRepository;
 import com.itb.inf2fm.projetoback.repository.TecnicoRegiaoRepository;
 import com.itb.inf2fm.projetoback.repository.RegiaoRepository;
 import com.itb.inf2fm.projetoback.util.CrudValidationUtils;
+import com.itb.inf2fm.projetoback.util.KdTree;
+import com.itb.inf2fm.projetoback.util.PaginacaoUtils;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.transaction.Transactional;
+import org.hibernate.Hibernate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.security.crypto.bcrypt.BCrypt;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class TecnicoService {
@@ -36,11 +53,22 @@ public class TecnicoService {
     private static final String STATUS_ATIVO = "ATIVO";
     private static final String STATUS_INATIVO = "INATIVO";
     private static final String NIVEL_USER = "USER";
+    // Mantém o IN abaixo do limite de parâmetros do SQL Server (2100)
+    private static final int TAMANHO_LOTE_IDS = 1000;
+    private static final Map<String, String> CAMPOS_ORDENACAO = Map.of(
+        "id", "id", "nome", "usuario.nome", "especialidade", "especialidade", "statusTecnico", "statusTecnico");
 
     private final TecnicoRepository tecnicoRepository;
     private final UsuarioRepository usuarioRepository;
     private final TecnicoRegiaoRepository tecnicoRegiaoRepository;
     private final RegiaoRepository regiaoRepository;
+    private final NomeIndexService nomeIndexService;
+    private final TecnicoMatchingService tecnicoMatchingService;
+    private final BatchService batchService;
+    private final ProximidadeService proximidadeService;
+    private final RegiaoService regiaoService;
+    private final TecnicoRegiaoIndexService tecnicoRegiaoIndexService;
+    private final UnicidadeService unicidadeService;
     
     @PersistenceContext
     private EntityManager entityManager;
@@ -48,16 +76,30 @@ public class TecnicoService {
     public TecnicoService(TecnicoRepository tecnicoRepository, 
                          UsuarioRepository usuarioRepository,
                          TecnicoRegiaoRepository tecnicoRegiaoRepository,
-                         RegiaoRepository regiaoRepository) {
+                         RegiaoRepository regiaoRepository,
+                         NomeIndexService nomeIndexService,
+                         TecnicoMatchingService tecnicoMatchingService,
+                         BatchService batchService,
+                         ProximidadeService proximidadeService,
+                         RegiaoService regiaoService,
+                         TecnicoRegiaoIndexService tecnicoRegiaoIndexService,
+                         UnicidadeService unicidadeService) {
         this.tecnicoRepository = tecnicoRepository;
         this.usuarioRepository = usuarioRepository;
         this.tecnicoRegiaoRepository = tecnicoRegiaoRepository;
         this.regiaoRepository = regiaoRepository;
+        this.nomeIndexService = nomeIndexService;
+        this.tecnicoMatchingService = tecnicoMatchingService;
+        this.batchService = batchService;
+        this.proximidadeService = proximidadeService;
+        this.regiaoService = regiaoService;
+        this.tecnicoRegiaoIndexService = tecnicoRegiaoIndexService;
+        this.unicidadeService = unicidadeService;
     }
 
     @Transactional
     public Tecnico salvarTecnico(Tecnico tecnico) {
-        logger.info("Iniciando salvamento de técnico");
+        logger.debug("Iniciando salvamento de técnico");
         
         if (tecnico == null || tecnico.getUsuario() == null) {
             throw new IllegalArgumentException("Técnico e usuário são obrigatórios");
@@ -91,99 +133,143 @@ public class TecnicoService {
         tecnico.setRegioes(null);
         
         // Salva o usuario primeiro para obter o ID
-        logger.info("Salvando usuário no banco de dados");
+        logger.debug("Salvando usuário no banco de dados");
         Usuario usuarioSalvo = usuarioRepository.save(tecnico.getUsuario());
-        logger.info("Usuário salvo com ID: {}", usuarioSalvo.getId());
+        logger.debug("Usuário salvo com ID: {}", usuarioSalvo.getId());
+        nomeIndexService.atualizar(usuarioSalvo.getId(), usuarioSalvo.getNome());
+        unicidadeService.registrarEmail(usuarioSalvo.getEmail());
         
         // Define o ID do técnico como o ID do usuário (chave primária compartilhada)
         tecnico.setId(usuarioSalvo.getId());
         tecnico.setUsuario(usuarioSalvo);
         
-        logger.info("Salvando técnico no banco de dados com ID: {}", tecnico.getId());
+        logger.debug("Salvando técnico no banco de dados com ID: {}", tecnico.getId());
         
-        // Usa SQL nativo para fazer o INSERT com IDENTITY_INSERT
-        String sql = "SET IDENTITY_INSERT Tecnico ON; " +
-                     "INSERT INTO Tecnico (id, cpf_cnpj, dataNascimento, telefone, cep, numeroResidencia, complemento, descricao, especialidade, statusTecnico, usuario_id) " +
-                     "VALUES (:id, :cpf, :dataNasc, :tel, :cep, :num, :comp, :desc, :esp, :status, :userId); " +
-                     "SET IDENTITY_INSERT Tecnico OFF";
+        // Técnico novo com id atribuído: persist direto, sem SELECT prévio; o INSERT fica
+        // para o flush e entra no lote JDBC do Hibernate (hibernate.jdbc.batch_size)
+        tecnicoRepository.save(tecnico);
+        unicidadeService.registrarCpfCnpj(tecnico.getCpfCnpj());
         
-        entityManager.createNativeQuery(sql)
-            .setParameter("id", tecnico.getId())
-            .setParameter("cpf", tecnico.getCpfCnpj())
-            .setParameter("dataNasc", tecnico.getDataNascimento())
-            .setParameter("tel", tecnico.getTelefone())
-            .setParameter("cep", tecnico.getCep())
-            .setParameter("num", tecnico.getNumeroResidencia())
-            .setParameter("comp", tecnico.getComplemento())
-            .setParameter("desc", tecnico.getDescricao())
-            .setParameter("esp", tecnico.getEspecialidade())
-            .setParameter("status", tecnico.getStatusTecnico())
-            .setParameter("userId", usuarioSalvo.getId())
-            .executeUpdate();
+        logger.info("Técnico {} salvo com sucesso", tecnico.getId());
         
-        logger.info("Técnico salvo com sucesso");
+        // Os vínculos são gravados via JDBC e precisam da linha do técnico já no banco
+        if (regioesTemp != null && !regioesTemp.isEmpty()) {
+            entityManager.flush();
+        }
         
-        // Processa as regiões
-        List<Regiao> regioesRecebidas = regioesTemp;
+        // Vincula as regiões em poucas consultas, independente da quantidade
+        List<Long> regiaoIds = vincularRegioes(tecnico.getId(), regioesTemp);
+        tecnicoMatchingService.atualizar(tecnico.getId(), tecnico.getEspecialidade(), tecnico.getStatusTecnico(), regiaoIds);
+        tecnicoRegiaoIndexService.substituir(tecnico.getId(), regiaoIds);
+        proximidadeService.marcarAlterado();
         
-        if (regioesRecebidas != null && !regioesRecebidas.isEmpty()) {
-            logger.info("Processando {} região(ões)", regioesRecebidas.size());
-            for (Regiao regiao : regioesRecebidas) {
-                Regiao existente = null;
-                
-                // Se a região tem ID, busca por ID
-                if (regiao.getId() != null) {
-                    logger.info("Buscando região com ID: {}", regiao.getId());
-                    existente = regiaoRepository.findById(regiao.getId()).orElse(null);
-                    if (existente != null) {
-                        logger.info("Região encontrada: {} - {}", existente.getNome(), existente.getCidade());
-                    } else {
-                        logger.warn("Região com ID {} não encontrada", regiao.getId());
-                        throw new IllegalArgumentException("Região com ID " + regiao.getId() + " não encontrada");
-                    }
-                } 
-                // Se não tem ID mas tem nome e cidade, busca por nome e cidade
-                else if (regiao.getNome() != null && regiao.getCidade() != null) {
-                    logger.info("Buscando região por nome '{}' e cidade '{}'", regiao.getNome(), regiao.getCidade());
-                    existente = regiaoRepository.findByNomeAndCidade(regiao.getNome(), regiao.getCidade()).orElse(null);
+        // Retorne o técnico já salvo
+        return tecnico;
+    }
+
+    /**
+     * Resolve as regiões recebidas e cria os vínculos TecnicoRegiao de forma set-based:
+     * um IN por id, um IN por nome, um lote de inserts para regiões novas e outro para os vínculos.
+     */
+    private List<Long> vincularRegioes(Long tecnicoId, List<Regiao> regioesRecebidas) {
+        if (regioesRecebidas == null || regioesRecebidas.isEmpty()) {
+            return List.of();
+        }
+        logger.debug("Processando {} região(ões) do técnico {}", regioesRecebidas.size(), tecnicoId);
+
+        Set<Long> idsInformados = new LinkedHashSet<>();
+        Map<String, Regiao> porNomeECidade = new LinkedHashMap<>();
+        for (Regiao regiao : regioesRecebidas) {
+            if (regiao.getId() != null) {
+                idsInformados.add(regiao.getId());
+            } else if (regiao.getNome() != null && regiao.getCidade() != null) {
+                porNomeECidade.putIfAbsent(chaveRegiao(regiao.getNome(), regiao.getCidade()), regiao);
+            } else {
+                throw new IllegalArgumentException("Para criar uma nova região, nome e cidade são obrigatórios");
+            }
+        }
+
+        Map<String, Long> resolvidas = new HashMap<>();
+        if (!idsInformados.isEmpty()) {
+            Set<Long> encontrados = new HashSet<>();
+            for (Regiao regiao : regiaoRepository.findAllById(idsInformados)) {
+                encontrados.add(regiao.getId());
+            }
+            for (Long id : idsInformados) {
+                if (!encontrados.contains(id)) {
+                    logger.warn("Região com ID {} não encontrada", id);
+                    throw new IllegalArgumentException("Região com ID " + id + " não encontrada");
                 }
-                
-                // Se não encontrou, valida e salva nova região
-                if (existente == null) {
-                    if (regiao.getNome() == null || regiao.getCidade() == null) {
-                        throw new IllegalArgumentException("Para criar uma nova região, nome e cidade são obrigatórios");
-                    }
-                    logger.info("Criando nova região: {} - {}", regiao.getNome(), regiao.getCidade());
-                    // Define valores padrão para nova região
+            }
+        }
+
+        if (!porNomeECidade.isEmpty()) {
+            Set<String> nomes = new HashSet<>();
+            porNomeECidade.values().forEach(r -> nomes.add(r.getNome()));
+            resolverPorNomeECidade(nomes, porNomeECidade.keySet(), resolvidas);
+
+            List<Regiao> novas = new ArrayList<>();
+            for (Map.Entry<String, Regiao> entrada : porNomeECidade.entrySet()) {
+                if (!resolvidas.containsKey(entrada.getKey())) {
+                    Regiao regiao = entrada.getValue();
                     if (regiao.getDescricao() == null) {
                         regiao.setDescricao("");
                     }
                     if (regiao.getStatusRegiao() == null) {
-                        regiao.setStatusRegiao("ATIVO");
+                        regiao.setStatusRegiao(STATUS_ATIVO);
                     }
-                    existente = regiaoRepository.save(regiao);
-                    logger.info("Nova região criada com ID: {}", existente.getId());
+                    novas.add(regiao);
                 }
-                
-                logger.info("Criando associação TecnicoRegiao");
-                TecnicoRegiao tecnicoRegiao = new TecnicoRegiao();
-                tecnicoRegiao.setTecnico(tecnico);
-                tecnicoRegiao.setRegiao(existente);
-                tecnicoRegiao.setStatusTecnicoRegiao("ATIVO");
-                tecnicoRegiaoRepository.save(tecnicoRegiao);
-                logger.info("Associação TecnicoRegiao criada com sucesso");
+            }
+            if (!novas.isEmpty()) {
+                logger.debug("Criando {} nova(s) região(ões)", novas.size());
+                batchService.batchInsertRegioes(novas);
+                regiaoService.recarregarAposCommit();
+                Set<String> nomesNovos = new HashSet<>();
+                novas.forEach(r -> nomesNovos.add(r.getNome()));
+                resolverPorNomeECidade(nomesNovos, porNomeECidade.keySet(), resolvidas);
             }
         }
-        
-        // Retorne o técnico já salvo
-        return tecnico;
+
+        Set<Long> regiaoIds = new LinkedHashSet<>(idsInformados);
+        for (String chave : porNomeECidade.keySet()) {
+            Long id = resolvidas.get(chave);
+            if (id == null) {
+                throw new DatabaseException("vincular regiões", "Região criada não encontrada: " + chave);
+            }
+            regiaoIds.add(id);
+        }
+
+        batchService.batchInsertTecnicoRegioes(tecnicoId, regiaoIds, STATUS_ATIVO);
+        logger.debug("Técnico {} vinculado a {} região(ões)", tecnicoId, regiaoIds.size());
+        return new ArrayList<>(regiaoIds);
+    }
+
+    // Uma consulta por nome; a cidade é conferida em memória
+    private void resolverPorNomeECidade(Set<String> nomes, Set<String> chaves, Map<String, Long> resolvidas) {
+        for (Regiao regiao : regiaoRepository.findByNomeIn(nomes)) {
+            String chave = chaveRegiao(regiao.getNome(), regiao.getCidade());
+            if (chaves.contains(chave)) {
+                resolvidas.putIfAbsent(chave, regiao.getId());
+            }
+        }
+    }
+
+    private static String chaveRegiao(String nome, String cidade) {
+        return nome.trim().toLowerCase(Locale.ROOT) + "|" + cidade.trim().toLowerCase(Locale.ROOT);
     }
 
     public Optional<Tecnico> findByCpfCnpj(String cpfCnpj) {
+        if (!unicidadeService.cpfCnpjPodeExistir(cpfCnpj)) {
+            return Optional.empty();
+        }
         return tecnicoRepository.findByCpfCnpj(cpfCnpj);
     }
 
     public Optional<Tecnico> findByEmail(String email) {
+        if (!unicidadeService.emailPodeExistir(email)) {
+            return Optional.empty();
+        }
         return tecnicoRepository.findByUsuarioEmail(email);
     }
 
@@ -195,6 +281,12 @@ public class TecnicoService {
             throw new IllegalArgumentException("Usuário é obrigatório para o técnico");
         }
         
+        // Chave compartilhada: um técnico com id só é gravado junto do usuário de mesmo id. Sem isso ele
+        // seria tratado como novo e o @PrePersist trocaria o id enviado pelo de um usuário recém-criado
+        if (tecnico.getId() != null && !tecnico.getId().equals(tecnico.getUsuario().getId())) {
+            throw new ValidationException("O id do técnico deve ser igual ao id do seu usuário");
+        }
+        
         // Se o usuário tem ID, verificar se existe e criar referência
         if (tecnico.getUsuario().getId() != null) {
             Long usuarioId = tecnico.getUsuario().getId();
@@ -206,6 +298,9 @@ public class TecnicoService {
                 logger.debug("Usuário encontrado: {}", usuarioExistente.getEmail());
                 tecnico.setUsuario(usuarioExistente);
                 tecnico.setId(usuarioExistente.getId());
+                if (tecnicoRepository.existsById(usuarioExistente.getId())) {
+                    tecnico.marcarExistente();
+                }
             } else {
                 logger.error("Usuário não encontrado com ID: {}", usuarioId);
                 throw new ResourceNotFoundException("Usuário", "id", usuarioId);
@@ -218,15 +313,27 @@ public class TecnicoService {
         }
         
         logger.info("Salvando técnico com ID: {}", tecnico.getId());
-        return tecnicoRepository.save(tecnico);
+        Tecnico salvo = tecnicoRepository.save(tecnico);
+        unicidadeService.registrarCpfCnpj(salvo.getCpfCnpj());
+        if (salvo.getUsuario() != null) {
+            unicidadeService.registrarEmail(salvo.getUsuario().getEmail());
+        }
+        List<Long> regiaoIds = null;
+        if (salvo.getRegioes() != null) {
+            regiaoIds = salvo.getRegioes().stream().map(Regiao::getId).filter(Objects::nonNull).toList();
+        }
+        tecnicoMatchingService.atualizar(salvo.getId(), salvo.getEspecialidade(), salvo.getStatusTecnico(), regiaoIds);
+        tecnicoRegiaoIndexService.substituir(salvo.getId(), regiaoIds);
+        proximidadeService.marcarAlterado();
+        return salvo;
     }
 
     public List<Tecnico> findAll() {
-        return tecnicoRepository.findAll();
+        return tecnicoRepository.findAllComRegioes();
     }
 
     public Optional<Tecnico> findById(Long id) {
-        return tecnicoRepository.findById(id);
+        return tecnicoRepository.findComRegioesById(id);
     }
 
     public List<Tecnico> findByStatus(String statusTecnico) {
@@ -310,7 +417,17 @@ public class TecnicoService {
                 existingTecnico.setStatusTecnico(tecnico.getStatusTecnico());
             }
             
-            return tecnicoRepository.save(existingTecnico);
+            Tecnico salvo = tecnicoRepository.save(existingTecnico);
+            // O técnico é serializado fora da sessão na resposta
+            Hibernate.initialize(salvo.getRegioes());
+            if (salvo.getUsuario() != null) {
+                nomeIndexService.atualizar(salvo.getUsuario().getId(), salvo.getUsuario().getNome());
+                unicidadeService.registrarEmail(salvo.getUsuario().getEmail());
+            }
+            unicidadeService.registrarCpfCnpj(salvo.getCpfCnpj());
+            tecnicoMatchingService.atualizar(salvo.getId(), salvo.getEspecialidade(), salvo.getStatusTecnico(), null);
+            proximidadeService.marcarAlterado();
+            return salvo;
         } catch (DataAccessException e) {
             throw new DatabaseException("atualizar técnico", "Erro ao atualizar técnico no banco de dados");
         }
@@ -332,6 +449,9 @@ public class TecnicoService {
             tecnicoRegiaoRepository.deleteByTecnicoId(id);
             // Remove o técnico
             tecnicoRepository.deleteById(id);
+            tecnicoMatchingService.remover(id);
+            tecnicoRegiaoIndexService.removerTecnico(id);
+            proximidadeService.marcarAlterado();
         } catch (DataAccessException e) {
             throw new DatabaseException("deletar técnico", "Erro ao deletar técnico do banco de dados");
         }
@@ -351,17 +471,27 @@ public class TecnicoService {
         try {
             tecnico.setStatusTecnico(STATUS_INATIVO);
             tecnico.getUsuario().setStatusUsuario(STATUS_INATIVO);
-            return tecnicoRepository.save(tecnico);
+            Tecnico salvo = tecnicoRepository.save(tecnico);
+            Hibernate.initialize(salvo.getRegioes());
+            tecnicoMatchingService.atualizar(salvo.getId(), salvo.getEspecialidade(), salvo.getStatusTecnico(), null);
+            proximidadeService.marcarAlterado();
+            return salvo;
         } catch (DataAccessException e) {
             throw new DatabaseException("inativar técnico", "Erro ao inativar técnico no banco de dados");
         }
     }
 
     public boolean existsByCpfCnpj(String cpfCnpj) {
+        if (!unicidadeService.cpfCnpjPodeExistir(cpfCnpj)) {
+            return false;
+        }
         return tecnicoRepository.existsByCpfCnpj(cpfCnpj);
     }
 
     public boolean existsByEmail(String email) {
+        if (!unicidadeService.emailPodeExistir(email)) {
+            return false;
+        }
         return usuarioRepository.existsByEmail(email);
     }
 
@@ -379,6 +509,8 @@ public class TecnicoService {
         tecnicoRegiao.setRegiao(regiao);
         tecnicoRegiao.setStatusTecnicoRegiao(STATUS_ATIVO);
         tecnicoRegiaoRepository.save(tecnicoRegiao);
+        tecnicoMatchingService.adicionarRegiao(tecnicoId, regiaoId);
+        tecnicoRegiaoIndexService.adicionar(tecnicoId, regiaoId);
     }
 
     @Transactional
@@ -387,22 +519,165 @@ public class TecnicoService {
             throw new ResourceNotFoundException("Técnico", "id", tecnicoId);
         }
         tecnicoRegiaoRepository.deleteByTecnicoIdAndRegiaoId(tecnicoId, regiaoId);
+        tecnicoMatchingService.removerRegiao(tecnicoId, regiaoId);
+        tecnicoRegiaoIndexService.remover(tecnicoId, regiaoId);
     }
 
-    public List<TecnicoRegiao> getRegioesByTecnico(Long tecnicoId) {
+    /**
+     * Regiões do técnico, resolvidas pelo índice de vínculos e pelo snapshot de regiões
+     */
+    public List<Regiao> getRegioesByTecnico(Long tecnicoId) {
         if (!tecnicoRepository.existsById(tecnicoId)) {
             throw new ResourceNotFoundException("Técnico", "id", tecnicoId);
         }
-        return tecnicoRegiaoRepository.findByTecnicoId(tecnicoId);
+        long[] regiaoIds = tecnicoRegiaoIndexService.regioesDoTecnico(tecnicoId);
+        return regiaoService.findByIds(regiaoIds != null ? paraLista(regiaoIds)
+                : tecnicoRegiaoRepository.findRegiaoIdsByTecnicoId(tecnicoId));
+    }
+
+    /**
+     * Cartões dos técnicos vinculados à região
+     */
+    public List<TecnicoResumo> findResumosByRegiao(Long regiaoId) {
+        long[] tecnicoIds = tecnicoRegiaoIndexService.tecnicosDaRegiao(regiaoId);
+        return resumir(tecnicoIds != null ? paraLista(tecnicoIds)
+                : tecnicoRegiaoRepository.findTecnicoIdsByRegiaoId(regiaoId));
+    }
+
+    private static List<Long> paraLista(long[] ids) {
+        List<Long> lista = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            lista.add(id);
+        }
+        return lista;
     }
 
     public List<Tecnico> findByNome(String nome) {
         if (nome == null || nome.trim().isEmpty()) {
             return List.of();
         }
+        if (nomeIndexService.isPronto()) {
+            List<Long> usuarioIds = nomeIndexService.buscarUsuarioIds(nome);
+            if (usuarioIds.isEmpty()) {
+                return List.of();
+            }
+            return nomeIndexService.ordenar(usuarioIds, tecnicoRepository.findByUsuarioIdIn(usuarioIds),
+                    t -> t.getUsuario().getId());
+        }
         return tecnicoRepository.findByUsuarioNomeContainingIgnoreCase(nome.trim());
     }
     
+    // Cartões resumidos (TecnicoResumo) para listagens: sem foto, sem usuário completo, regiões só por id
+
+    public List<TecnicoResumo> listarResumos() {
+        Map<Long, List<Long>> regioes = agruparRegioes(tecnicoRegiaoRepository.findTecnicoIdERegiaoId());
+        return montarResumos(tecnicoRepository.findResumos(), regioes);
+    }
+
+    /**
+     * Página de resumos: as regiões vêm só dos técnicos da página; com contar = false não roda o COUNT(*)
+     */
+    public Slice<TecnicoResumo> listarResumosPaginado(int pagina, int tamanho, String ordenacao, boolean contar) {
+        Pageable pageable = PaginacaoUtils.criar(pagina, tamanho, ordenacao, CAMPOS_ORDENACAO);
+        try {
+            Slice<Object[]> linhas = contar ? tecnicoRepository.findPaginaResumos(pageable)
+                    : tecnicoRepository.findFatiaResumos(pageable);
+            List<Long> tecnicoIds = linhas.getContent().stream().map(linha -> (Long) linha[0]).toList();
+            Map<Long, List<Long>> regioes = tecnicoIds.isEmpty() ? Map.of()
+                    : agruparRegioes(tecnicoRegiaoRepository.findTecnicoIdERegiaoIdByTecnicoIdIn(tecnicoIds));
+            List<TecnicoResumo> resumos = montarResumos(linhas.getContent(), regioes);
+            if (linhas instanceof Page<Object[]> paginaLinhas) {
+                return new PageImpl<>(resumos, pageable, paginaLinhas.getTotalElements());
+            }
+            return new SliceImpl<>(resumos, pageable, linhas.hasNext());
+        } catch (DataAccessException e) {
+            throw new DatabaseException("listar técnicos", "Erro ao buscar técnicos no banco de dados");
+        }
+    }
+
+    /**
+     * Resumos dos técnicos informados, na mesma ordem dos ids
+     */
+    public List<TecnicoResumo> resumir(List<Long> tecnicoIds) {
+        Map<Long, TecnicoResumo> porId = new HashMap<>();
+        for (int inicio = 0; inicio < tecnicoIds.size(); inicio += TAMANHO_LOTE_IDS) {
+            List<Long> lote = tecnicoIds.subList(inicio, Math.min(inicio + TAMANHO_LOTE_IDS, tecnicoIds.size()));
+            Map<Long, List<Long>> regioes = agruparRegioes(tecnicoRegiaoRepository.findTecnicoIdERegiaoIdByTecnicoIdIn(lote));
+            for (TecnicoResumo resumo : montarResumos(tecnicoRepository.findResumosByIdIn(lote), regioes)) {
+                porId.put(resumo.id(), resumo);
+            }
+        }
+        List<TecnicoResumo> resumos = new ArrayList<>(porId.size());
+        for (Long id : tecnicoIds) {
+            TecnicoResumo resumo = porId.get(id);
+            if (resumo != null) {
+                resumos.add(resumo);
+            }
+        }
+        return resumos;
+    }
+
+    public List<TecnicoResumo> buscarResumosPorNome(String nome) {
+        if (nome == null || nome.trim().isEmpty()) {
+            return List.of();
+        }
+        if (!nomeIndexService.isPronto()) {
+            return findByNome(nome).stream().map(TecnicoResumo::de).toList();
+        }
+        List<Long> usuarioIds = nomeIndexService.buscarUsuarioIds(nome);
+        if (usuarioIds.isEmpty()) {
+            return List.of();
+        }
+        List<Object[]> linhas = tecnicoRepository.findResumosByUsuarioIdIn(usuarioIds);
+        List<Long> tecnicoIds = linhas.stream().map(linha -> (Long) linha[0]).toList();
+        Map<Long, List<Long>> regioes = tecnicoIds.isEmpty() ? Map.of()
+                : agruparRegioes(tecnicoRegiaoRepository.findTecnicoIdERegiaoIdByTecnicoIdIn(tecnicoIds));
+        Map<Long, Long> usuarioPorTecnico = new HashMap<>();
+        linhas.forEach(linha -> usuarioPorTecnico.put((Long) linha[0], (Long) linha[1]));
+        return nomeIndexService.ordenar(usuarioIds, montarResumos(linhas, regioes),
+                resumo -> usuarioPorTecnico.get(resumo.id()));
+    }
+
+    /**
+     * Os k técnicos ativos mais próximos do CEP, com a especialidade informada (opcional)
+     */
+    public List<TecnicoProximo> buscarProximos(String cep, String especialidade, int k) {
+        KdTree.Vizinhos vizinhos = proximidadeService.buscar(cep, especialidade, k);
+        List<Long> ids = new ArrayList<>(vizinhos.size());
+        Map<Long, Double> distancias = new HashMap<>();
+        for (int i = 0; i < vizinhos.size(); i++) {
+            ids.add(vizinhos.id(i));
+            distancias.put(vizinhos.id(i), vizinhos.distanciaKm(i));
+        }
+        // O índice é reconstruído com pequeno atraso: confirma o status na hidratação
+        return resumir(ids).stream()
+                .filter(resumo -> STATUS_ATIVO.equalsIgnoreCase(resumo.status()))
+                .map(resumo -> new TecnicoProximo(resumo, distancias.get(resumo.id())))
+                .toList();
+    }
+
+    private static Map<Long, List<Long>> agruparRegioes(List<Object[]> vinculos) {
+        Map<Long, List<Long>> regioes = new HashMap<>();
+        for (Object[] vinculo : vinculos) {
+            List<Long> ids = regioes.computeIfAbsent((Long) vinculo[0], id -> new ArrayList<>());
+            if (!ids.contains((Long) vinculo[1])) {
+                ids.add((Long) vinculo[1]);
+            }
+        }
+        return regioes;
+    }
+
+    private static List<TecnicoResumo> montarResumos(List<Object[]> linhas, Map<Long, List<Long>> regioes) {
+        List<TecnicoResumo> resumos = new ArrayList<>(linhas.size());
+        for (Object[] linha : linhas) {
+            Long tecnicoId = (Long) linha[0];
+            resumos.add(new TecnicoResumo(tecnicoId, (String) linha[2], (String) linha[3], (String) linha[4],
+                    regioes.getOrDefault(tecnicoId, List.of()),
+                    TecnicoResumo.urlFoto((Long) linha[1], Boolean.TRUE.equals(linha[5]))));
+        }
+        return resumos;
+    }
+    
     public List<String> getEspecialidades() {
         return tecnicoRepository.findDistinctEspecialidades();
     }
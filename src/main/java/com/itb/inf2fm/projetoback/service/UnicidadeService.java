@@ -0,0 +1,187 @@
+package com.itb.inf2fm.projetoback.service;
+
+import com.itb.inf2fm.projetoback.repository.ClienteRepository;
+import com.itb.inf2fm.projetoback.repository.TecnicoRepository;
+import com.itb.inf2fm.projetoback.repository.UsuarioRepository;
+import com.itb.inf2fm.projetoback.util.FiltroBloom;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Locale;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Unicidade Service - Filtros de Bloom de email, CPF de cliente e CPF/CNPJ de técnico
+ *
+ * Otimizações:
+ * - Quase todo cadastro novo tem email e documento inéditos: o filtro responde "não existe"
+ *   sem ir ao banco, e só os possíveis repetidos são confirmados pela consulta (e pela constraint)
+ * - Montado uma vez no startup, lendo as colunas em stream (sem carregar entidades)
+ * - Atualizado em toda escrita, antes do commit: um rollback deixa no máximo um falso positivo,
+ *   que só custa a consulta ao banco
+ *
+ * Os filtros são criados com tamanho fixo (app.unicidade.capacidade) e nunca são trocados, então
+ * uma escrita concorrente com a carga não se perde. Enquanto a carga não termina, tudo vai ao banco.
+ *
+ * Métrica: unicidade.consultas{campo, resultado=descartada|banco}.
+ */
+@Service
+public class UnicidadeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UnicidadeService.class);
+
+    private final UsuarioRepository usuarioRepository;
+    private final ClienteRepository clienteRepository;
+    private final TecnicoRepository tecnicoRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Filtro emails;
+    private final Filtro cpfs;
+    private final Filtro cpfCnpjs;
+    private volatile boolean pronto = false;
+
+    public UnicidadeService(UsuarioRepository usuarioRepository,
+                            ClienteRepository clienteRepository,
+                            TecnicoRepository tecnicoRepository,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.unicidade.capacidade:1000000}") long capacidade,
+                            @Value("${app.unicidade.taxa-falso-positivo:0.01}") double taxaFalsoPositivo) {
+        this.usuarioRepository = usuarioRepository;
+        this.clienteRepository = clienteRepository;
+        this.tecnicoRepository = tecnicoRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+
+        this.emails = new Filtro("email", capacidade, taxaFalsoPositivo, meterRegistry);
+        this.cpfs = new Filtro("cpf", capacidade, taxaFalsoPositivo, meterRegistry);
+        this.cpfCnpjs = new Filtro("cpfCnpj", capacidade, taxaFalsoPositivo, meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        try {
+            long inicio = System.currentTimeMillis();
+            transactionTemplate.executeWithoutResult(status -> {
+                carregar(emails, usuarioRepository::streamEmails);
+                carregar(cpfs, clienteRepository::streamCpfs);
+                carregar(cpfCnpjs, tecnicoRepository::streamCpfCnpj);
+            });
+            pronto = true;
+            logger.info("Filtros de unicidade carregados em {} ms: {} emails, {} CPFs, {} CPF/CNPJs",
+                    System.currentTimeMillis() - inicio, emails.filtro.getAdicionados(),
+                    cpfs.filtro.getAdicionados(), cpfCnpjs.filtro.getAdicionados());
+        } catch (DataAccessException e) {
+            logger.error("Erro ao carregar filtros de unicidade, verificações seguirão pelo banco", e);
+        }
+    }
+
+    private void carregar(Filtro filtro, Supplier<Stream<String>> valores) {
+        try (Stream<String> stream = valores.get()) {
+            stream.forEach(filtro::adicionar);
+        }
+        filtro.avisarSeCheio();
+    }
+
+    public boolean isPronto() {
+        return pronto;
+    }
+
+    /**
+     * Falso só quando o email com certeza não está cadastrado; verdadeiro exige consulta ao banco
+     */
+    public boolean emailPodeExistir(String email) {
+        return podeExistir(emails, normalizarEmail(email));
+    }
+
+    public boolean cpfPodeExistir(String cpf) {
+        return podeExistir(cpfs, normalizarDocumento(cpf));
+    }
+
+    public boolean cpfCnpjPodeExistir(String cpfCnpj) {
+        return podeExistir(cpfCnpjs, normalizarDocumento(cpfCnpj));
+    }
+
+    public void registrarEmail(String email) {
+        emails.adicionar(normalizarEmail(email));
+    }
+
+    public void registrarCpf(String cpf) {
+        cpfs.adicionar(normalizarDocumento(cpf));
+    }
+
+    public void registrarCpfCnpj(String cpfCnpj) {
+        cpfCnpjs.adicionar(normalizarDocumento(cpfCnpj));
+    }
+
+    private boolean podeExistir(Filtro filtro, String valor) {
+        if (!pronto || valor == null) {
+            return true;
+        }
+        return filtro.podeConter(valor);
+    }
+
+    // O SQL Server compara sem diferenciar maiúsculas e ignora espaços à direita:
+    // a chave do filtro precisa ser pelo menos tão abrangente quanto a igualdade do banco
+    private static String normalizarEmail(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // Só letras e dígitos: "123.456.789-09" e "12345678909" caem na mesma chave
+    private static String normalizarDocumento(String documento) {
+        return documento == null ? null : documento.replaceAll("[^0-9A-Za-z]", "").toUpperCase(Locale.ROOT);
+    }
+
+    private static class Filtro {
+
+        private final String campo;
+        private final FiltroBloom filtro;
+        private final Counter descartadas;
+        private final Counter banco;
+        private volatile boolean avisado = false;
+
+        Filtro(String campo, long capacidade, double taxaFalsoPositivo, MeterRegistry meterRegistry) {
+            this.campo = campo;
+            this.filtro = new FiltroBloom(capacidade, taxaFalsoPositivo);
+            this.descartadas = Counter.builder("unicidade.consultas").tag("campo", campo)
+                    .tag("resultado", "descartada").register(meterRegistry);
+            this.banco = Counter.builder("unicidade.consultas").tag("campo", campo)
+                    .tag("resultado", "banco").register(meterRegistry);
+        }
+
+        void adicionar(String valor) {
+            if (valor != null) {
+                filtro.adicionar(valor);
+            }
+        }
+
+        boolean podeConter(String valor) {
+            boolean talvez = filtro.podeConter(valor);
+            (talvez ? banco : descartadas).increment();
+            if (talvez) {
+                avisarSeCheio();
+            }
+            return talvez;
+        }
+
+        // Acima da capacidade o filtro continua correto, só manda mais consultas ao banco
+        void avisarSeCheio() {
+            if (!avisado && filtro.getAdicionados() > filtro.getCapacidade()) {
+                avisado = true;
+                logger.warn("Filtro de unicidade de {} passou da capacidade ({}), taxa de falso positivo estimada {}; " +
+                        "aumente app.unicidade.capacidade", campo, filtro.getCapacidade(),
+                        String.format(Locale.ROOT, "%.3f", filtro.taxaFalsoPositivoEstimada()));
+            }
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.itb.inf2fm.projetoback.service;
+
+import com.itb.inf2fm.projetoback.exception.DatabaseException;
+import com.itb.inf2fm.projetoback.exception.ResourceNotFoundException;
+import com.itb.inf2fm.projetoback.exception.ValidationException;
+import com.itb.inf2fm.projetoback.model.Usuario;
+import com.itb.inf2fm.projetoback.repository.UsuarioRepository;
+import com.itb.inf2fm.projetoback.util.Base64ToByteArrayDeserializer;
+import com.itb.inf2fm.projetoback.util.BufferLimitado;
+import com.itb.inf2fm.projetoback.util.CrudValidationUtils;
+import com.itb.inf2fm.projetoback.util.TransactionUtils;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Usuario Foto Service - Foto do usuário servida só pelo endpoint dedicado
+ *
+ * Otimizações:
+ * - A foto é um atributo LAZY da entidade Usuario (enhancement do Hibernate): login, joins de
+ *   Cliente/Tecnico e agendamentos não leem mais o blob
+ * - Fotos novas vão para o MidiaStore (endereçado por SHA-256, com deduplicação); o Usuario guarda só
+ *   o hash e a resposta é o próprio arquivo, sem passar pelo JDBC
+ * - O ETag é o hash: o 304 não lê nenhum byte da foto
+ * - Upload multipart gravado por stream, sem montar o arquivo em memória;
+ *   o tamanho é conferido antes de ler qualquer byte
+ *
+ * Fotos antigas continuam no blob até a migração (MidiaMigracaoService) e são servidas de lá.
+ */
+@Service
+public class UsuarioFotoService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UsuarioFotoService.class);
+    public static final int TAMANHO_MAXIMO = Base64ToByteArrayDeserializer.LIMITE_BYTES;
+    private static final int TAMANHO_CABECALHO = 8;
+
+    private final UsuarioRepository usuarioRepository;
+    private final CacheService cacheService;
+    private final MiniaturaService miniaturaService;
+    private final MidiaStore midiaStore;
+
+    public UsuarioFotoService(UsuarioRepository usuarioRepository, CacheService cacheService,
+                              MiniaturaService miniaturaService, MidiaStore midiaStore) {
+        this.usuarioRepository = usuarioRepository;
+        this.cacheService = cacheService;
+        this.miniaturaService = miniaturaService;
+        this.midiaStore = midiaStore;
+    }
+
+    /**
+     * Foto do usuário com tipo de imagem e ETag; 404 se o usuário não existir ou não tiver foto
+     */
+    public Foto buscar(Long usuarioId) {
+        CrudValidationUtils.validateId(usuarioId, "Usuário");
+
+        try {
+            String hash = usuarioRepository.findFotoHashById(usuarioId).orElse(null);
+            if (hash != null) {
+                Optional<Resource> arquivo = midiaStore.abrir(hash);
+                if (arquivo.isPresent()) {
+                    return new Foto(arquivo.get(), tipoImagem(cabecalho(arquivo.get())), "\"" + hash + "\"");
+                }
+                logger.error("Foto {} do usuário {} não encontrada no armazenamento de mídia", hash, usuarioId);
+                throw new ResourceNotFoundException("Foto do usuário", "id", usuarioId);
+            }
+
+            byte[] bytes = CrudValidationUtils.validateResourceExists(
+                () -> usuarioRepository.findFotoById(usuarioId).orElse(null),
+                "Foto do usuário", usuarioId
+            );
+            return new Foto(new ByteArrayResource(bytes), tipoImagem(bytes), etag(bytes));
+        } catch (DataAccessException e) {
+            throw new DatabaseException("buscar foto", "Erro ao buscar foto do usuário no banco de dados");
+        }
+    }
+
+    /**
+     * Foto original ou, com tamanho, a miniatura quadrada (cache em memória e disco)
+     */
+    public Foto buscar(Long usuarioId, Integer tamanho) {
+        if (tamanho == null) {
+            return buscar(usuarioId);
+        }
+        CrudValidationUtils.validateId(usuarioId, "Usuário");
+        return miniaturaService.buscar(usuarioId, tamanho);
+    }
+
+    /**
+     * Grava a foto em stream no MidiaStore e guarda o hash no usuário
+     *
+     * @param tamanho tamanho declarado do arquivo, validado antes da leitura
+     */
+    @Transactional
+    public void salvar(Long usuarioId, InputStream conteudo, long tamanho) {
+        CrudValidationUtils.validateId(usuarioId, "Usuário");
+        if (tamanho <= 0) {
+            throw new ValidationException("Arquivo da foto está vazio");
+        }
+        if (tamanho > TAMANHO_MAXIMO) {
+            throw new ValidationException("Foto excede o tamanho máximo de " + (TAMANHO_MAXIMO / (1024 * 1024)) + " MB");
+        }
+        Usuario usuario = CrudValidationUtils.validateResourceExists(
+            () -> usuarioRepository.findById(usuarioId).orElse(null),
+            "Usuário", usuarioId
+        );
+
+        String hash = gravar(conteudo);
+        try {
+            usuarioRepository.atualizarFotoHash(usuarioId, hash);
+        } catch (DataAccessException e) {
+            throw new DatabaseException("salvar foto", "Erro ao salvar foto do usuário no banco de dados");
+        }
+
+        miniaturaService.atualizarAposCommit(usuarioId, true);
+        String email = usuario.getEmail();
+        TransactionUtils.runAfterCommit(() -> {
+            cacheService.remove("user_id_" + usuarioId);
+            if (email != null) {
+                cacheService.remove("user_email_" + email.trim().toLowerCase());
+            }
+        });
+    }
+
+    /**
+     * Grava bytes já em memória (ex: foto em Base64 no JSON do usuário) e devolve o hash
+     */
+    public String gravar(byte[] bytes) {
+        return gravar(new ByteArrayInputStream(bytes));
+    }
+
+    /**
+     * Move para o MidiaStore uma foto que estava no blob, sem validar o formato (fotos antigas)
+     */
+    public String migrar(byte[] bytes) {
+        try {
+            return midiaStore.gravar(new ByteArrayInputStream(bytes), Long.MAX_VALUE);
+        } catch (IOException e) {
+            logger.error("Erro ao migrar foto para o armazenamento de mídia: {}", e.getMessage());
+            throw new DatabaseException("migrar foto", "Erro ao gravar a foto no armazenamento de mídia");
+        }
+    }
+
+    private String gravar(InputStream conteudo) {
+        try (BufferedInputStream entrada = new BufferedInputStream(conteudo)) {
+            entrada.mark(TAMANHO_CABECALHO);
+            byte[] cabecalho = entrada.readNBytes(TAMANHO_CABECALHO);
+            entrada.reset();
+            if (tipoImagem(cabecalho).equals(MediaType.APPLICATION_OCTET_STREAM)) {
+                throw new ValidationException("Formato de imagem não suportado: envie JPEG, PNG ou GIF");
+            }
+            return midiaStore.gravar(entrada, TAMANHO_MAXIMO);
+        } catch (BufferLimitado.LimiteExcedidoException e) {
+            throw new ValidationException("Foto excede o tamanho máximo de " + (TAMANHO_MAXIMO / (1024 * 1024)) + " MB");
+        } catch (IOException e) {
+            logger.error("Erro ao gravar foto no armazenamento de mídia: {}", e.getMessage());
+            throw new DatabaseException("salvar foto", "Erro ao gravar a foto no armazenamento de mídia");
+        }
+    }
+
+    private static byte[] cabecalho(Resource arquivo) {
+        try (InputStream entrada = arquivo.getInputStream()) {
+            return entrada.readNBytes(TAMANHO_CABECALHO);
+        } catch (IOException e) {
+            return new byte[0];
+        }
+    }
+
+    static MediaType tipoImagem(byte[] bytes) {
+        if (bytes.length >= 3 && (bytes[0] & 0xFF) == 0xFF && (bytes[1] & 0xFF) == 0xD8 && (bytes[2] & 0xFF) == 0xFF) {
+            return MediaType.IMAGE_JPEG;
+        }
+        if (bytes.length >= 8 && (bytes[0] & 0xFF) == 0x89 && bytes[1] == 'P' && bytes[2] == 'N' && bytes[3] == 'G') {
+            return MediaType.IMAGE_PNG;
+        }
+        if (bytes.length >= 6 && bytes[0] == 'G' && bytes[1] == 'I' && bytes[2] == 'F') {
+            return MediaType.IMAGE_GIF;
+        }
+        return MediaType.APPLICATION_OCTET_STREAM;
+    }
+
+    // Mesmo formato do hash do MidiaStore: o ETag não muda quando a foto é migrada do blob
+    static String etag(byte[] bytes) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(bytes);
+            return "\"" + HexFormat.of().formatHex(hash) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+
+    public record Foto(Resource conteudo, MediaType tipo, String etag) {
+    }
+}
@@ -9,14 +9,17 @@ import com.itb.inf2fm.projetoback.model.Usuario;
 import com.itb.inf2fm.projetoback.repository.UsuarioRepository;
 import com.itb.inf2fm.projetoback.service.CacheService;
 import com.itb.inf2fm.projetoback.util.CrudValidationUtils;
+import com.itb.inf2fm.projetoback.util.PaginacaoUtils;
+import com.itb.inf2fm.projetoback.util.PlanoValidacao;
 import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -26,17 +29,38 @@ public class UsuarioService {
 
     private static final Logger logger = LoggerFactory.getLogger(UsuarioService.class);
     private static final String STATUS_ATIVO = "ATIVO";
+    private static final Map<String, String> CAMPOS_ORDENACAO = Map.of(
+        "id", "id", "nome", "nome", "email", "email", "dataCadastro", "dataCadastro",
+        "statusUsuario", "statusUsuario", "nivelAcesso", "nivelAcesso");
+    private static final PlanoValidacao<Usuario> VALIDACAO = PlanoValidacao.para(Usuario.class)
+        .obrigatorio("nome", Usuario::getNome)
+        .obrigatorio("email", Usuario::getEmail)
+        .obrigatorioSe("senha", Usuario::getSenha, usuario -> usuario.getId() == null)
+        .email(Usuario::getEmail)
+        .compilar();
 
     private final UsuarioRepository usuarioRepository;
     private final PasswordEncryptService passwordEncryptService;
     private final CacheService cacheService;
+    private final NomeIndexService nomeIndexService;
+    private final MiniaturaService miniaturaService;
+    private final UsuarioFotoService usuarioFotoService;
+    private final UnicidadeService unicidadeService;
     
     public UsuarioService(UsuarioRepository usuarioRepository, 
                          PasswordEncryptService passwordEncryptService,
-                         CacheService cacheService) {
+                         CacheService cacheService,
+                         NomeIndexService nomeIndexService,
+                         MiniaturaService miniaturaService,
+                         UsuarioFotoService usuarioFotoService,
+                         UnicidadeService unicidadeService) {
         this.usuarioRepository = usuarioRepository;
         this.passwordEncryptService = passwordEncryptService;
         this.cacheService = cacheService;
+        this.nomeIndexService = nomeIndexService;
+        this.miniaturaService = miniaturaService;
+        this.usuarioFotoService = usuarioFotoService;
+        this.unicidadeService = unicidadeService;
     }
 
     @Transactional
@@ -46,15 +70,7 @@ public class UsuarioService {
         }
         
         // Validações de campos obrigatórios
-        Map<String, Object> requiredFields = new HashMap<>();
-        requiredFields.put("nome", usuario.getNome());
-        requiredFields.put("email", usuario.getEmail());
-        if (usuario.getId() == null) {
-            requiredFields.put("senha", usuario.getSenha());
-        }
-        
-        CrudValidationUtils.validateRequiredFields(requiredFields);
-        CrudValidationUtils.validateEmail(usuario.getEmail());
+        VALIDACAO.validar(usuario);
         
         // Verifica duplicatas
         CrudValidationUtils.validateResourceNotExists(
@@ -79,12 +95,34 @@ public class UsuarioService {
                 usuario.setNivelAcesso("USER");
             }
             
+            // Foto em Base64 no JSON vai para o MidiaStore; sem foto, uma atualização mantém a atual
+            boolean atualizacao = usuario.getId() != null;
+            boolean fotoNova = usuario.getFoto() != null;
+            String hashNovo = null;
+            if (fotoNova) {
+                hashNovo = usuarioFotoService.gravar(usuario.getFoto());
+                usuario.setFotoHash(hashNovo);
+                usuario.setFoto(null);
+            } else if (atualizacao) {
+                // É a mesma leitura que o merge faria (o blob é LAZY); só mantém a resposta coerente
+                usuarioRepository.findById(usuario.getId()).ifPresent(usuario::manterFotoDe);
+            }
+            
             Usuario saved = usuarioRepository.save(usuario);
+            if (fotoNova && atualizacao) {
+                // foto e fotoHash não entram no UPDATE da entidade
+                usuarioRepository.atualizarFotoHash(saved.getId(), hashNovo);
+            }
+            unicidadeService.registrarEmail(saved.getEmail());
             
             // Invalidar cache após salvar
             if (saved.getEmail() != null) {
                 cacheService.remove("user_email_" + saved.getEmail());
             }
+            nomeIndexService.atualizar(saved.getId(), saved.getNome());
+            if (fotoNova) {
+                miniaturaService.atualizarAposCommit(saved.getId(), true);
+            }
             
             return saved;
         } catch (DataAccessException e) {
@@ -162,6 +200,18 @@ public class UsuarioService {
         }
     }
 
+    /**
+     * Página de usuários; com contar = false não roda o COUNT(*) e a resposta traz só se há próxima página
+     */
+    public Slice<Usuario> listarPaginado(int pagina, int tamanho, String ordenacao, boolean contar) {
+        Pageable pageable = PaginacaoUtils.criar(pagina, tamanho, ordenacao, CAMPOS_ORDENACAO);
+        try {
+            return contar ? usuarioRepository.findAll(pageable) : usuarioRepository.findAllBy(pageable);
+        } catch (DataAccessException e) {
+            throw new DatabaseException("listar usuários", "Erro ao buscar usuários no banco de dados");
+        }
+    }
+
     @Transactional
     public void delete(Long id) {
         CrudValidationUtils.validateId(id, "Usuário");
@@ -173,6 +223,8 @@ public class UsuarioService {
         
         try {
             usuarioRepository.deleteById(id);
+            nomeIndexService.remover(id);
+            miniaturaService.atualizarAposCommit(id, false);
         } catch (DataAccessException e) {
             if (e.getMessage() != null && e.getMessage().contains("foreign key")) {
                 throw new InvalidOperationException("deletar usuário", 
@@ -186,6 +238,9 @@ public class UsuarioService {
         if (email == null || email.trim().isEmpty()) {
             return false;
         }
+        if (!unicidadeService.emailPodeExistir(email)) {
+            return false;
+        }
         try {
             return usuarioRepository.existsByEmail(email.trim());
         } catch (org.springframework.dao.DataAccessException e) {
@@ -251,6 +306,13 @@ public class UsuarioService {
         if (nome == null || nome.trim().isEmpty()) {
             return List.of();
         }
+        if (nomeIndexService.isPronto()) {
+            List<Long> ids = nomeIndexService.buscarUsuarioIds(nome);
+            if (ids.isEmpty()) {
+                return List.of();
+            }
+            return nomeIndexService.ordenar(ids, usuarioRepository.findAllById(ids), Usuario::getId);
+        }
         return usuarioRepository.findByNomeContainingIgnoreCase(nome.trim());
     }
 }
@@ -0,0 +1,248 @@
+package com.itb.inf2fm.projetoback.util;
+
+import java.util.Arrays;
+
+/**
+ * Lista de adjacência imutável no formato CSR (compressed sparse row), em arrays primitivos
+ *
+ * - chaves: ids de origem em ordem crescente
+ * - inicios[i]..inicios[i + 1]: faixa de valores da chave i
+ * - valores: ids de destino, ordenados dentro de cada faixa
+ *
+ * Alterações não reconstroem os arrays: cada {@link #com} / {@link #sem} devolve uma nova instância
+ * que compartilha a base e carrega um delta pequeno (pares adicionados e removidos). Quando o delta
+ * passa de uma fração da base, a base é reconstruída com tudo junto.
+ *
+ * Os pares são codificados em um long (origem nos 32 bits altos), então os ids devem caber em 31 bits.
+ */
+public final class AdjacenciaCsr {
+
+    private static final long[] VAZIO = new long[0];
+    private static final int DELTA_MINIMO = 64;
+
+    private final long[] chaves;
+    private final int[] inicios;
+    private final long[] valores;
+    // Pares codificados, ordenados e sem repetição
+    private final long[] adicionados;
+    private final long[] removidos;
+
+    private AdjacenciaCsr(long[] chaves, int[] inicios, long[] valores, long[] adicionados, long[] removidos) {
+        this.chaves = chaves;
+        this.inicios = inicios;
+        this.valores = valores;
+        this.adicionados = adicionados;
+        this.removidos = removidos;
+    }
+
+    public static AdjacenciaCsr vazia() {
+        return new AdjacenciaCsr(VAZIO, new int[1], VAZIO, VAZIO, VAZIO);
+    }
+
+    /**
+     * Constrói a partir de pares (origens[i], destinos[i]); pares repetidos são ignorados
+     */
+    public static AdjacenciaCsr construir(long[] origens, long[] destinos) {
+        if (origens.length != destinos.length) {
+            throw new IllegalArgumentException("Arrays de origens e destinos com tamanhos diferentes");
+        }
+        long[] pares = new long[origens.length];
+        for (int i = 0; i < pares.length; i++) {
+            pares[i] = codificar(origens[i], destinos[i]);
+        }
+        Arrays.sort(pares);
+        return deParesOrdenados(pares, removerRepetidos(pares));
+    }
+
+    /**
+     * Versão com as direções trocadas (destino -> origem), para o índice reverso
+     */
+    public AdjacenciaCsr inversa() {
+        long[] pares = new long[size()];
+        int n = 0;
+        for (int i = 0; i < chaves.length; i++) {
+            for (int j = inicios[i]; j < inicios[i + 1]; j++) {
+                long par = codificar(chaves[i], valores[j]);
+                if (Arrays.binarySearch(removidos, par) < 0) {
+                    pares[n++] = codificar(valores[j], chaves[i]);
+                }
+            }
+        }
+        for (long par : adicionados) {
+            pares[n++] = codificar(destino(par), origem(par));
+        }
+        Arrays.sort(pares, 0, n);
+        return deParesOrdenados(pares, n);
+    }
+
+    /**
+     * Destinos da chave, em ordem crescente (array novo, pode ser alterado pelo chamador)
+     */
+    public long[] vizinhos(long chave) {
+        int posicao = Arrays.binarySearch(chaves, chave);
+        int inicio = posicao >= 0 ? inicios[posicao] : 0;
+        int fim = posicao >= 0 ? inicios[posicao + 1] : 0;
+        int primeiroAdicionado = primeiroComOrigem(adicionados, chave);
+
+        long[] resultado = new long[fim - inicio + contarComOrigem(adicionados, primeiroAdicionado, chave)];
+        int n = 0;
+        for (int j = inicio; j < fim; j++) {
+            if (removidos.length == 0 || Arrays.binarySearch(removidos, codificar(chave, valores[j])) < 0) {
+                resultado[n++] = valores[j];
+            }
+        }
+        for (int j = primeiroAdicionado; j < adicionados.length && origem(adicionados[j]) == chave; j++) {
+            resultado[n++] = destino(adicionados[j]);
+        }
+        if (n < resultado.length) {
+            resultado = Arrays.copyOf(resultado, n);
+        }
+        if (primeiroAdicionado < adicionados.length) {
+            Arrays.sort(resultado);
+        }
+        return resultado;
+    }
+
+    public boolean contem(long chave, long valor) {
+        long par = codificar(chave, valor);
+        if (Arrays.binarySearch(adicionados, par) >= 0) {
+            return true;
+        }
+        return naBase(chave, valor) && Arrays.binarySearch(removidos, par) < 0;
+    }
+
+    public AdjacenciaCsr com(long chave, long valor) {
+        long par = codificar(chave, valor);
+        if (Arrays.binarySearch(removidos, par) >= 0) {
+            return comDelta(adicionados, semElemento(removidos, par));
+        }
+        if (naBase(chave, valor) || Arrays.binarySearch(adicionados, par) >= 0) {
+            return this;
+        }
+        return comDelta(comElemento(adicionados, par), removidos);
+    }
+
+    public AdjacenciaCsr sem(long chave, long valor) {
+        long par = codificar(chave, valor);
+        if (Arrays.binarySearch(adicionados, par) >= 0) {
+            return comDelta(semElemento(adicionados, par), removidos);
+        }
+        if (!naBase(chave, valor) || Arrays.binarySearch(removidos, par) >= 0) {
+            return this;
+        }
+        return comDelta(adicionados, comElemento(removidos, par));
+    }
+
+    /**
+     * Total de pares (base + adicionados - removidos)
+     */
+    public int size() {
+        return valores.length + adicionados.length - removidos.length;
+    }
+
+    private AdjacenciaCsr comDelta(long[] novosAdicionados, long[] novosRemovidos) {
+        AdjacenciaCsr resultado = new AdjacenciaCsr(chaves, inicios, valores, novosAdicionados, novosRemovidos);
+        int limite = Math.max(DELTA_MINIMO, valores.length / 8);
+        return novosAdicionados.length + novosRemovidos.length > limite ? resultado.compactar() : resultado;
+    }
+
+    private AdjacenciaCsr compactar() {
+        long[] pares = new long[size()];
+        int n = 0;
+        for (int i = 0; i < chaves.length; i++) {
+            for (int j = inicios[i]; j < inicios[i + 1]; j++) {
+                long par = codificar(chaves[i], valores[j]);
+                if (Arrays.binarySearch(removidos, par) < 0) {
+                    pares[n++] = par;
+                }
+            }
+        }
+        System.arraycopy(adicionados, 0, pares, n, adicionados.length);
+        n += adicionados.length;
+        Arrays.sort(pares, 0, n);
+        return deParesOrdenados(pares, n);
+    }
+
+    private boolean naBase(long chave, long valor) {
+        int posicao = Arrays.binarySearch(chaves, chave);
+        return posicao >= 0 && Arrays.binarySearch(valores, inicios[posicao], inicios[posicao + 1], valor) >= 0;
+    }
+
+    // Monta os arrays CSR a partir dos n primeiros pares, já ordenados e sem repetição
+    private static AdjacenciaCsr deParesOrdenados(long[] pares, int n) {
+        int totalChaves = 0;
+        for (int i = 0; i < n; i++) {
+            if (i == 0 || origem(pares[i]) != origem(pares[i - 1])) {
+                totalChaves++;
+            }
+        }
+        long[] chaves = new long[totalChaves];
+        int[] inicios = new int[totalChaves + 1];
+        long[] valores = new long[n];
+        int k = -1;
+        for (int i = 0; i < n; i++) {
+            if (i == 0 || origem(pares[i]) != origem(pares[i - 1])) {
+                chaves[++k] = origem(pares[i]);
+                inicios[k] = i;
+            }
+            valores[i] = destino(pares[i]);
+        }
+        inicios[totalChaves] = n;
+        return new AdjacenciaCsr(chaves, inicios, valores, VAZIO, VAZIO);
+    }
+
+    private static int removerRepetidos(long[] ordenados) {
+        int n = 0;
+        for (int i = 0; i < ordenados.length; i++) {
+            if (i == 0 || ordenados[i] != ordenados[n - 1]) {
+                ordenados[n++] = ordenados[i];
+            }
+        }
+        return n;
+    }
+
+    private static int primeiroComOrigem(long[] pares, long chave) {
+        int posicao = Arrays.binarySearch(pares, codificar(chave, 0));
+        return posicao >= 0 ? posicao : -posicao - 1;
+    }
+
+    private static int contarComOrigem(long[] pares, int inicio, long chave) {
+        int n = 0;
+        for (int j = inicio; j < pares.length && origem(pares[j]) == chave; j++) {
+            n++;
+        }
+        return n;
+    }
+
+    private static long[] comElemento(long[] ordenados, long valor) {
+        int posicao = -Arrays.binarySearch(ordenados, valor) - 1;
+        long[] resultado = new long[ordenados.length + 1];
+        System.arraycopy(ordenados, 0, resultado, 0, posicao);
+        resultado[posicao] = valor;
+        System.arraycopy(ordenados, posicao, resultado, posicao + 1, ordenados.length - posicao);
+        return resultado;
+    }
+
+    private static long[] semElemento(long[] ordenados, long valor) {
+        int posicao = Arrays.binarySearch(ordenados, valor);
+        long[] resultado = new long[ordenados.length - 1];
+        System.arraycopy(ordenados, 0, resultado, 0, posicao);
+        System.arraycopy(ordenados, posicao + 1, resultado, posicao, ordenados.length - posicao - 1);
+        return resultado;
+    }
+
+    private static long codificar(long origem, long destino) {
+        if (origem < 0 || origem > Integer.MAX_VALUE || destino < 0 || destino > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("ID fora do intervalo do índice de adjacência: " + origem + " -> " + destino);
+        }
+        return (origem << 32) | destino;
+    }
+
+    private static long origem(long par) {
+        return par >>> 32;
+    }
+
+    private static long destino(long par) {
+        return par & 0xFFFFFFFFL;
+    }
+}
@@ -3,29 +3,33 @@ package com.itb.inf2fm.projetoback.util;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonMappingException;
 
 import java.io.IOException;
-import java.util.Base64;
 
 /**
  * Deserializador customizado para converter strings Base64 em byte arrays
  * Trata casos de string vazia ou null
+ *
+ * O Base64 é decodificado direto do buffer do parser (readBinaryValue), sem montar a String
+ * inteira, e os bytes vão para um {@link BufferLimitado}: conteúdo acima de {@link #LIMITE_BYTES}
+ * é recusado sem alocar além do limite.
  */
 public class Base64ToByteArrayDeserializer extends JsonDeserializer<byte[]> {
 
+    public static final int LIMITE_BYTES = 5 * 1024 * 1024;
+
     @Override
     public byte[] deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
-        String value = p.getValueAsString();
-        
-        if (value == null || value.trim().isEmpty()) {
-            return null;
-        }
-        
+        BufferLimitado bytes = new BufferLimitado(LIMITE_BYTES);
         try {
-            return Base64.getDecoder().decode(value);
-        } catch (IllegalArgumentException e) {
-            // Se a string não for um Base64 válido, retorna null
-            return null;
+            p.readBinaryValue(ctxt.getBase64Variant(), bytes);
+        } catch (BufferLimitado.LimiteExcedidoException e) {
+            throw JsonMappingException.from(p, "Arquivo excede o tamanho máximo de "
+                    + (LIMITE_BYTES / (1024 * 1024)) + " MB", e);
         }
+
+        // String vazia (ou só espaços) continua sendo tratada como ausência de arquivo
+        return bytes.size() == 0 ? null : bytes.toByteArray();
     }
 }
@@ -0,0 +1,79 @@
+package com.itb.inf2fm.projetoback.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * OutputStream em memória com tamanho máximo
+ *
+ * Diferente do ByteArrayOutputStream, nunca aloca além do limite: o array cresce dobrando,
+ * mas a capacidade é cortada no limite, e uma escrita que o ultrapassaria falha com
+ * {@link LimiteExcedidoException} antes de copiar qualquer byte.
+ */
+public class BufferLimitado extends OutputStream {
+
+    private static final int CAPACIDADE_INICIAL = 8 * 1024;
+
+    private final int limite;
+    private byte[] buffer;
+    private int tamanho;
+
+    public BufferLimitado(int limite) {
+        if (limite < 0) {
+            throw new IllegalArgumentException("Limite negativo: " + limite);
+        }
+        this.limite = limite;
+        this.buffer = new byte[Math.min(CAPACIDADE_INICIAL, limite)];
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        garantirCapacidade(1);
+        buffer[tamanho++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        garantirCapacidade(len);
+        System.arraycopy(b, off, buffer, tamanho, len);
+        tamanho += len;
+    }
+
+    public int size() {
+        return tamanho;
+    }
+
+    public int getLimite() {
+        return limite;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, tamanho);
+    }
+
+    private void garantirCapacidade(int adicionais) throws LimiteExcedidoException {
+        long necessario = (long) tamanho + adicionais;
+        if (necessario > limite) {
+            throw new LimiteExcedidoException(limite);
+        }
+        if (necessario > buffer.length) {
+            int novaCapacidade = (int) Math.min(limite, Math.max(necessario, (long) buffer.length * 2));
+            buffer = Arrays.copyOf(buffer, novaCapacidade);
+        }
+    }
+
+    public static class LimiteExcedidoException extends IOException {
+
+        private final int limite;
+
+        public LimiteExcedidoException(int limite) {
+            super("Conteúdo excede o limite de " + limite + " bytes");
+            this.limite = limite;
+        }
+
+        public int getLimite() {
+            return limite;
+        }
+    }
+}
@@ -47,6 +47,7 @@ public class CrudValidationUtils {
     
     /**
      * Valida campos obrigatórios
+     * Nos saves mais frequentes, prefira um {@link PlanoValidacao} estático, que não monta mapa a cada chamada
      */
     public static void validateRequiredFields(Map<String, Object> fields) {
         Map<String, String> errors = new HashMap<>();
@@ -68,7 +69,7 @@ public class CrudValidationUtils {
      * Valida formato de email
      */
     public static void validateEmail(String email) {
-        if (email != null && !email.matches("^[A-Za-z0-9+_.-]+@(.+)$")) {
+        if (email != null && !DocumentoUtils.emailBasicoValido(email)) {
             throw new ValidationException("Formato de email inválido");
         }
     }
@@ -79,42 +80,12 @@ public class CrudValidationUtils {
     public static void validateCpf(String cpf) {
         if (cpf == null) return;
         
-        // Remove caracteres não numéricos
-        String cleanCpf = cpf.replaceAll("[^0-9]", "");
-        
-        if (cleanCpf.length() != 11) {
+        int resultado = DocumentoUtils.verificarCpf(cpf);
+        if (resultado == DocumentoUtils.TAMANHO_INVALIDO) {
             throw new ValidationException("CPF deve conter 11 dígitos");
         }
-        
-        // Verifica se todos os dígitos são iguais
-        if (cleanCpf.matches("(\\d)\\1{10}")) {
-            throw new ValidationException("CPF inválido");
-        }
-        
-        // Validação dos dígitos verificadores
-        if (!isValidCpf(cleanCpf)) {
+        if (resultado == DocumentoUtils.DIGITOS_INVALIDOS) {
             throw new ValidationException("CPF inválido");
         }
     }
-    
-    private static boolean isValidCpf(String cpf) {
-        // Cálculo do primeiro dígito verificador
-        int sum = 0;
-        for (int i = 0; i < 9; i++) {
-            sum += Character.getNumericValue(cpf.charAt(i)) * (10 - i);
-        }
-        int firstDigit = 11 - (sum % 11);
-        if (firstDigit >= 10) firstDigit = 0;
-        
-        // Cálculo do segundo dígito verificador
-        sum = 0;
-        for (int i = 0; i < 10; i++) {
-            sum += Character.getNumericValue(cpf.charAt(i)) * (11 - i);
-        }
-        int secondDigit = 11 - (sum % 11);
-        if (secondDigit >= 10) secondDigit = 0;
-        
-        return Character.getNumericValue(cpf.charAt(9)) == firstDigit &&
-               Character.getNumericValue(cpf.charAt(10)) == secondDigit;
-    }
 }
\ No newline at end of file
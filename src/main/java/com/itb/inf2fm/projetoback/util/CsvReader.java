@@ -0,0 +1,176 @@
+package com.itb.inf2fm.projetoback.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Leitor incremental de CSV (RFC 4180)
+ *
+ * Lê um registro por vez, sem carregar o arquivo em memória. Suporta campos entre aspas
+ * com separadores, quebras de linha e aspas duplicadas ("") no conteúdo.
+ * O separador (vírgula ou ponto e vírgula) é detectado pela linha de cabeçalho.
+ */
+public class CsvReader {
+
+    private final Reader reader;
+    private char separador = ',';
+    private List<String> cabecalho;
+    private long linhaAtual = 0;
+    private int proximo = -2;
+
+    public CsvReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Lê o cabeçalho, se ainda não lido, e retorna o próximo registro como mapa coluna → valor.
+     * Retorna null no fim do arquivo.
+     */
+    public Map<String, String> proximoRegistro() throws IOException {
+        if (cabecalho == null) {
+            List<String> colunas = lerCabecalho();
+            if (colunas == null) {
+                return null;
+            }
+            cabecalho = colunas;
+        }
+
+        List<String> valores;
+        do {
+            valores = lerCampos();
+            if (valores == null) {
+                return null;
+            }
+        } while (valores.size() == 1 && valores.get(0).isEmpty());
+
+        Map<String, String> registro = new LinkedHashMap<>();
+        for (int i = 0; i < cabecalho.size(); i++) {
+            registro.put(cabecalho.get(i), i < valores.size() ? valores.get(i) : null);
+        }
+        return registro;
+    }
+
+    /**
+     * Número da linha física onde terminou o último registro lido (cabeçalho = 1)
+     */
+    public long getLinhaAtual() {
+        return linhaAtual;
+    }
+
+    private List<String> lerCabecalho() throws IOException {
+        StringBuilder linha = new StringBuilder();
+        int c = ler();
+        if (c == '\uFEFF') {
+            c = ler();
+        }
+        while (c != -1 && c != '\n') {
+            if (c != '\r') {
+                linha.append((char) c);
+            }
+            c = ler();
+        }
+        if (c == -1 && linha.length() == 0) {
+            return null;
+        }
+        linhaAtual++;
+
+        String texto = linha.toString();
+        if (texto.indexOf(';') >= 0 && texto.indexOf(',') < 0) {
+            separador = ';';
+        }
+        List<String> colunas = new ArrayList<>();
+        for (String coluna : dividirCabecalho(texto)) {
+            colunas.add(coluna.trim());
+        }
+        return colunas;
+    }
+
+    private List<String> dividirCabecalho(String texto) {
+        List<String> colunas = new ArrayList<>();
+        StringBuilder atual = new StringBuilder();
+        boolean aspas = false;
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c == '"') {
+                aspas = !aspas;
+            } else if (c == separador && !aspas) {
+                colunas.add(atual.toString());
+                atual.setLength(0);
+            } else {
+                atual.append(c);
+            }
+        }
+        colunas.add(atual.toString());
+        return colunas;
+    }
+
+    private List<String> lerCampos() throws IOException {
+        int c = ler();
+        if (c == -1) {
+            return null;
+        }
+
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean aspas = false;
+        while (true) {
+            if (aspas) {
+                if (c == -1) {
+                    throw new IOException("Aspas não fechadas a partir da linha " + (linhaAtual + 1));
+                }
+                if (c == '"') {
+                    int seguinte = ler();
+                    if (seguinte == '"') {
+                        campo.append('"');
+                    } else {
+                        aspas = false;
+                        c = seguinte;
+                        continue;
+                    }
+                } else {
+                    if (c == '\n') {
+                        linhaAtual++;
+                    }
+                    campo.append((char) c);
+                }
+            } else if (c == '"' && campo.length() == 0) {
+                aspas = true;
+            } else if (c == separador) {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else if (c == '\n' || c == -1) {
+                linhaAtual++;
+                campos.add(campo.toString());
+                return campos;
+            } else if (c == '\r') {
+                int seguinte = ler();
+                if (seguinte != '\n') {
+                    devolver(seguinte);
+                }
+                linhaAtual++;
+                campos.add(campo.toString());
+                return campos;
+            } else {
+                campo.append((char) c);
+            }
+            c = ler();
+        }
+    }
+
+    private int ler() throws IOException {
+        if (proximo != -2) {
+            int c = proximo;
+            proximo = -2;
+            return c;
+        }
+        return reader.read();
+    }
+
+    private void devolver(int c) {
+        proximo = c;
+    }
+}
@@ -0,0 +1,312 @@
+package com.itb.inf2fm.projetoback.util;
+
+/**
+ * Verificadores de CPF, CNPJ, CEP, telefone e email caractere a caractere
+ *
+ * Mesmas regras das expressões regulares de {@link ValidationUtils} e {@link CrudValidationUtils},
+ * sem regex, sem substring e sem array intermediário: uma passada pela string, nenhuma alocação.
+ * Os métodos de formatação e validação antigos delegam para cá.
+ */
+public final class DocumentoUtils {
+
+    public static final int DOCUMENTO_VALIDO = 0;
+    public static final int TAMANHO_INVALIDO = 1;
+    public static final int DIGITOS_INVALIDOS = 2;
+
+    private static final int[] PESOS_CNPJ = {6, 5, 4, 3, 2, 9, 8, 7, 6, 5, 4, 3, 2};
+
+    private DocumentoUtils() {
+    }
+
+    /**
+     * CPF com dígitos verificadores corretos; caracteres que não são dígitos são ignorados
+     */
+    public static boolean cpfValido(CharSequence cpf) {
+        return verificarCpf(cpf) == DOCUMENTO_VALIDO;
+    }
+
+    /**
+     * {@link #DOCUMENTO_VALIDO}, {@link #TAMANHO_INVALIDO} (não tem 11 dígitos) ou
+     * {@link #DIGITOS_INVALIDOS} (dígitos repetidos ou verificadores errados)
+     */
+    public static int verificarCpf(CharSequence cpf) {
+        if (cpf == null) {
+            return TAMANHO_INVALIDO;
+        }
+        int quantidade = 0;
+        int primeiro = -1;
+        boolean todosIguais = true;
+        int soma1 = 0;
+        int soma2 = 0;
+        int verificador1 = 0;
+        int verificador2 = 0;
+        for (int i = 0; i < cpf.length(); i++) {
+            int digito = cpf.charAt(i) - '0';
+            if (digito < 0 || digito > 9) {
+                continue;
+            }
+            if (quantidade == 11) {
+                return TAMANHO_INVALIDO;
+            }
+            if (primeiro < 0) {
+                primeiro = digito;
+            } else if (digito != primeiro) {
+                todosIguais = false;
+            }
+            if (quantidade < 9) {
+                soma1 += digito * (10 - quantidade);
+            }
+            if (quantidade < 10) {
+                soma2 += digito * (11 - quantidade);
+            }
+            if (quantidade == 9) {
+                verificador1 = digito;
+            } else if (quantidade == 10) {
+                verificador2 = digito;
+            }
+            quantidade++;
+        }
+        if (quantidade != 11) {
+            return TAMANHO_INVALIDO;
+        }
+        if (todosIguais || verificador1 != digitoModulo11(soma1) || verificador2 != digitoModulo11(soma2)) {
+            return DIGITOS_INVALIDOS;
+        }
+        return DOCUMENTO_VALIDO;
+    }
+
+    /**
+     * CNPJ com dígitos verificadores corretos; caracteres que não são dígitos são ignorados
+     */
+    public static boolean cnpjValido(CharSequence cnpj) {
+        if (cnpj == null) {
+            return false;
+        }
+        int quantidade = 0;
+        int primeiro = -1;
+        boolean todosIguais = true;
+        int soma1 = 0;
+        int soma2 = 0;
+        int verificador1 = 0;
+        int verificador2 = 0;
+        for (int i = 0; i < cnpj.length(); i++) {
+            int digito = cnpj.charAt(i) - '0';
+            if (digito < 0 || digito > 9) {
+                continue;
+            }
+            if (quantidade == 14) {
+                return false;
+            }
+            if (primeiro < 0) {
+                primeiro = digito;
+            } else if (digito != primeiro) {
+                todosIguais = false;
+            }
+            // Os pesos do primeiro verificador são os do segundo deslocados de uma posição
+            if (quantidade < 12) {
+                soma1 += digito * PESOS_CNPJ[quantidade + 1];
+            }
+            if (quantidade < 13) {
+                soma2 += digito * PESOS_CNPJ[quantidade];
+            }
+            if (quantidade == 12) {
+                verificador1 = digito;
+            } else if (quantidade == 13) {
+                verificador2 = digito;
+            }
+            quantidade++;
+        }
+        return quantidade == 14 && !todosIguais
+                && verificador1 == digitoModulo11(soma1) && verificador2 == digitoModulo11(soma2);
+    }
+
+    /**
+     * CEP no formato 00000-000 ou 00000000 (espaços nas pontas são ignorados)
+     */
+    public static boolean cepValido(CharSequence cep) {
+        if (cep == null) {
+            return false;
+        }
+        int inicio = inicioSemEspacos(cep);
+        int fim = fimSemEspacos(cep, inicio);
+        int tamanho = fim - inicio;
+        if (tamanho == 9) {
+            return digitos(cep, inicio, inicio + 5) && cep.charAt(inicio + 5) == '-' && digitos(cep, inicio + 6, fim);
+        }
+        return tamanho == 8 && digitos(cep, inicio, fim);
+    }
+
+    /**
+     * Telefone brasileiro: DDD com ou sem parênteses, espaço opcional, 9 opcional e
+     * número de 8 dígitos com hífen opcional após os 4 primeiros (ex: (11) 91234-5678, 1112345678)
+     */
+    public static boolean telefoneValido(CharSequence telefone) {
+        if (telefone == null) {
+            return false;
+        }
+        int fim = fimSemEspacos(telefone, 0);
+        int i = inicioSemEspacos(telefone);
+        if (i < fim && telefone.charAt(i) == '(') {
+            i++;
+        }
+        if (fim - i < 2 || !digitos(telefone, i, i + 2)) {
+            return false;
+        }
+        i += 2;
+        if (i < fim && telefone.charAt(i) == ')') {
+            i++;
+        }
+        if (i < fim && espacoRegex(telefone.charAt(i))) {
+            i++;
+        }
+
+        int tamanho = fim - i;
+        int hifen = fim - 5;
+        if (tamanho >= 9 && telefone.charAt(hifen) == '-') {
+            // Prefixo de 4 dígitos ou 9 + 4 dígitos, hífen, 4 dígitos
+            int prefixo = hifen - i;
+            return (prefixo == 4 || (prefixo == 5 && telefone.charAt(i) == '9'))
+                    && digitos(telefone, i, hifen) && digitos(telefone, hifen + 1, fim);
+        }
+        return (tamanho == 8 || (tamanho == 9 && telefone.charAt(i) == '9')) && digitos(telefone, i, fim);
+    }
+
+    /**
+     * Email no formato usuario@dominio.tld: usuário com letras, dígitos e ._%+-, domínio com letras,
+     * dígitos, . e -, terminando em um TLD de pelo menos 2 letras (espaços nas pontas são ignorados)
+     */
+    public static boolean emailValido(CharSequence email) {
+        if (email == null) {
+            return false;
+        }
+        int inicio = inicioSemEspacos(email);
+        int fim = fimSemEspacos(email, inicio);
+        int arroba = -1;
+        int ultimoPonto = -1;
+        for (int i = inicio; i < fim; i++) {
+            char c = email.charAt(i);
+            if (arroba < 0) {
+                if (c == '@') {
+                    arroba = i;
+                } else if (!letraOuDigito(c) && c != '.' && c != '_' && c != '%' && c != '+' && c != '-') {
+                    return false;
+                }
+            } else if (c == '.') {
+                ultimoPonto = i;
+            } else if (!letraOuDigito(c) && c != '-') {
+                return false;
+            }
+        }
+        if (arroba <= inicio || ultimoPonto <= arroba + 1 || fim - ultimoPonto - 1 < 2) {
+            return false;
+        }
+        for (int i = ultimoPonto + 1; i < fim; i++) {
+            char c = email.charAt(i);
+            if (!((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z'))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Verificação básica dos cadastros: ao menos um caractere de [A-Za-z0-9+_.-] antes do primeiro @
+     * e ao menos um caractere (fora quebras de linha) depois dele
+     */
+    public static boolean emailBasicoValido(CharSequence email) {
+        if (email == null) {
+            return false;
+        }
+        int i = 0;
+        while (i < email.length() && email.charAt(i) != '@') {
+            char c = email.charAt(i);
+            if (!letraOuDigito(c) && c != '+' && c != '_' && c != '.' && c != '-') {
+                return false;
+            }
+            i++;
+        }
+        if (i == 0 || i >= email.length() - 1) {
+            return false;
+        }
+        for (int j = i + 1; j < email.length(); j++) {
+            if (quebraDeLinha(email.charAt(j))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Só os dígitos do texto; devolve a própria string, sem copiar, quando ela já não tem formatação
+     */
+    public static String somenteDigitos(String texto) {
+        if (texto == null) {
+            return null;
+        }
+        int digitos = 0;
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digitos++;
+            }
+        }
+        if (digitos == texto.length()) {
+            return texto;
+        }
+        char[] resultado = new char[digitos];
+        int posicao = 0;
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c >= '0' && c <= '9') {
+                resultado[posicao++] = c;
+            }
+        }
+        return new String(resultado);
+    }
+
+    private static int digitoModulo11(int soma) {
+        int digito = 11 - (soma % 11);
+        return digito >= 10 ? 0 : digito;
+    }
+
+    private static boolean digitos(CharSequence texto, int inicio, int fim) {
+        for (int i = inicio; i < fim; i++) {
+            char c = texto.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean letraOuDigito(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+    }
+
+    // \s das expressões regulares do Java: [ \t\n\x0B\f\r]
+    private static boolean espacoRegex(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    // Caracteres que o "." das expressões regulares não aceita
+    private static boolean quebraDeLinha(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+
+    // Mesmos limites de String.trim(): caracteres até ' ' nas pontas
+    private static int inicioSemEspacos(CharSequence texto) {
+        int inicio = 0;
+        while (inicio < texto.length() && texto.charAt(inicio) <= ' ') {
+            inicio++;
+        }
+        return inicio;
+    }
+
+    private static int fimSemEspacos(CharSequence texto, int inicio) {
+        int fim = texto.length();
+        while (fim > inicio && texto.charAt(fim - 1) <= ' ') {
+            fim--;
+        }
+        return fim;
+    }
+}
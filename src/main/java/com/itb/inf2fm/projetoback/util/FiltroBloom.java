@@ -0,0 +1,113 @@
+package com.itb.inf2fm.projetoback.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom para textos: conjunto probabilístico só de inserção
+ *
+ * {@link #podeConter(String)} falso é definitivo (o texto nunca foi adicionado);
+ * verdadeiro é "talvez" e precisa ser confirmado na fonte. O tamanho é fixado na criação
+ * a partir da capacidade e da taxa de falso positivo desejada; passar da capacidade só
+ * aumenta os falsos positivos, nunca gera falso negativo.
+ * Inserções e consultas são thread-safe e não bloqueiam.
+ */
+public class FiltroBloom {
+
+    private static final long SEMENTE_FNV = 0xcbf29ce484222325L;
+    private static final long PRIMO_FNV = 0x100000001b3L;
+
+    private final AtomicLongArray bits;
+    private final long totalBits;
+    private final int funcoesHash;
+    private final long capacidade;
+    private final AtomicLong adicionados = new AtomicLong();
+
+    public FiltroBloom(long capacidade, double taxaFalsoPositivo) {
+        if (capacidade <= 0) {
+            throw new IllegalArgumentException("Capacidade deve ser positiva");
+        }
+        if (taxaFalsoPositivo <= 0 || taxaFalsoPositivo >= 1) {
+            throw new IllegalArgumentException("Taxa de falso positivo deve estar entre 0 e 1");
+        }
+        double ln2 = Math.log(2);
+        long bitsNecessarios = (long) Math.ceil(-capacidade * Math.log(taxaFalsoPositivo) / (ln2 * ln2));
+        int palavras = (int) Math.min(Integer.MAX_VALUE - 8, (bitsNecessarios + 63) / 64);
+        this.bits = new AtomicLongArray(palavras);
+        this.totalBits = (long) palavras * 64;
+        this.funcoesHash = Math.max(1, (int) Math.round((double) totalBits / capacidade * ln2));
+        this.capacidade = capacidade;
+    }
+
+    public void adicionar(String texto) {
+        long h1 = hash(texto);
+        long h2 = misturar(h1 ^ 0x9e3779b97f4a7c15L) | 1;
+        boolean alterou = false;
+        for (int i = 0; i < funcoesHash; i++) {
+            long posicao = Long.remainderUnsigned(h1 + i * h2, totalBits);
+            int palavra = (int) (posicao >>> 6);
+            long mascara = 1L << posicao;
+            long atual = bits.get(palavra);
+            while ((atual & mascara) == 0) {
+                if (bits.compareAndSet(palavra, atual, atual | mascara)) {
+                    alterou = true;
+                    break;
+                }
+                atual = bits.get(palavra);
+            }
+        }
+        if (alterou) {
+            adicionados.incrementAndGet();
+        }
+    }
+
+    public boolean podeConter(String texto) {
+        long h1 = hash(texto);
+        long h2 = misturar(h1 ^ 0x9e3779b97f4a7c15L) | 1;
+        for (int i = 0; i < funcoesHash; i++) {
+            long posicao = Long.remainderUnsigned(h1 + i * h2, totalBits);
+            if ((bits.get((int) (posicao >>> 6)) & (1L << posicao)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Textos distintos adicionados (aproximado: um texto que colide em todos os bits não conta)
+     */
+    public long getAdicionados() {
+        return adicionados.get();
+    }
+
+    public long getCapacidade() {
+        return capacidade;
+    }
+
+    /**
+     * Taxa de falso positivo esperada com a ocupação atual
+     */
+    public double taxaFalsoPositivoEstimada() {
+        double ocupacao = -(double) funcoesHash * adicionados.get() / totalBits;
+        return Math.pow(1 - Math.exp(ocupacao), funcoesHash);
+    }
+
+    // FNV-1a de 64 bits sobre os chars, finalizado com a mistura do MurmurHash3
+    private static long hash(String texto) {
+        long h = SEMENTE_FNV;
+        for (int i = 0; i < texto.length(); i++) {
+            h ^= texto.charAt(i);
+            h *= PRIMO_FNV;
+        }
+        return misturar(h);
+    }
+
+    private static long misturar(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
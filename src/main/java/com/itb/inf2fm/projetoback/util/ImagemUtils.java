@@ -0,0 +1,90 @@
+package com.itb.inf2fm.projetoback.util;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+
+/**
+ * Utilitários de imagem só com o JDK (ImageIO e Java2D)
+ */
+public class ImagemUtils {
+
+    private static final float QUALIDADE_JPEG = 0.85f;
+
+    /**
+     * Lê a imagem (JPEG, PNG ou GIF); null se o formato não for reconhecido
+     */
+    public static BufferedImage ler(byte[] bytes) throws IOException {
+        return ImageIO.read(new ByteArrayInputStream(bytes));
+    }
+
+    /**
+     * Miniatura quadrada de lado x lado: recorta o centro da imagem e reduz em etapas
+     * de no máximo metade do tamanho, o que evita o serrilhado de uma redução direta
+     */
+    public static BufferedImage miniaturaQuadrada(BufferedImage original, int lado) {
+        int menorLado = Math.min(original.getWidth(), original.getHeight());
+        int x = (original.getWidth() - menorLado) / 2;
+        int y = (original.getHeight() - menorLado) / 2;
+
+        // Fundo branco: o JPEG não tem transparência
+        BufferedImage atual = new BufferedImage(menorLado, menorLado, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = atual.createGraphics();
+        try {
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, menorLado, menorLado);
+            g.drawImage(original, 0, 0, menorLado, menorLado, x, y, x + menorLado, y + menorLado, null);
+        } finally {
+            g.dispose();
+        }
+
+        int tamanho = menorLado;
+        while (tamanho != lado) {
+            tamanho = Math.max(lado, tamanho / 2);
+            atual = redimensionar(atual, tamanho);
+        }
+        return atual;
+    }
+
+    public static byte[] paraJpeg(BufferedImage imagem) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName("jpeg");
+        if (!writers.hasNext()) {
+            throw new IOException("Nenhum encoder JPEG disponível");
+        }
+        ImageWriter writer = writers.next();
+        ByteArrayOutputStream saida = new ByteArrayOutputStream(8 * 1024);
+        try (ImageOutputStream imagemSaida = ImageIO.createImageOutputStream(saida)) {
+            ImageWriteParam parametros = writer.getDefaultWriteParam();
+            parametros.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            parametros.setCompressionQuality(QUALIDADE_JPEG);
+            writer.setOutput(imagemSaida);
+            writer.write(null, new IIOImage(imagem, null, null), parametros);
+        } finally {
+            writer.dispose();
+        }
+        return saida.toByteArray();
+    }
+
+    private static BufferedImage redimensionar(BufferedImage imagem, int lado) {
+        BufferedImage destino = new BufferedImage(lado, lado, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = destino.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(imagem, 0, 0, lado, lado, null);
+        } finally {
+            g.dispose();
+        }
+        return destino;
+    }
+}
@@ -0,0 +1,195 @@
+package com.itb.inf2fm.projetoback.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Índice invertido em memória para busca por palavras, com prefixo e relevância
+ *
+ * Cada documento tem campos com pesos diferentes (ex: nome pesa mais que tipo).
+ * Os textos são normalizados (sem acentos, minúsculos) e quebrados em palavras;
+ * as palavras ficam num mapa ordenado, então "elet" encontra "eletrica" e "eletricista"
+ * percorrendo só a faixa de palavras com esse prefixo.
+ *
+ * Todas as palavras da consulta precisam ser encontradas. A pontuação soma, por palavra
+ * da consulta, o peso dos campos onde ela aparece (palavra inteira vale o dobro do prefixo),
+ * mais um bônus quando o primeiro campo começa com a consulta inteira.
+ * Escritas são serializadas; leituras não bloqueiam.
+ */
+public class IndiceInvertido {
+
+    private static final Set<String> STOPWORDS = Set.of("a", "o", "as", "os", "de", "da", "do", "das", "dos",
+            "e", "em", "na", "no", "para", "com");
+
+    private final int[] pesos;
+    // palavra -> (id -> campos onde aparece, um bit por campo)
+    private final NavigableMap<String, Map<Long, Integer>> postings = new ConcurrentSkipListMap<>();
+    private final Map<Long, Set<String>> palavrasPorId = new ConcurrentHashMap<>();
+    private final Map<Long, String> principais = new ConcurrentHashMap<>();
+
+    /**
+     * @param pesos peso de cada campo, na ordem em que os campos são passados para {@link #put}
+     */
+    public IndiceInvertido(int... pesos) {
+        if (pesos.length == 0 || pesos.length > Integer.SIZE) {
+            throw new IllegalArgumentException("Quantidade de campos inválida: " + pesos.length);
+        }
+        this.pesos = pesos.clone();
+    }
+
+    public synchronized void put(Long id, String... campos) {
+        remove(id);
+        Map<String, Integer> palavras = new HashMap<>();
+        for (int campo = 0; campo < campos.length && campo < pesos.length; campo++) {
+            for (String palavra : palavras(campos[campo])) {
+                palavras.merge(palavra, 1 << campo, (a, b) -> a | b);
+            }
+        }
+        palavras.forEach((palavra, bits) ->
+                postings.computeIfAbsent(palavra, p -> new ConcurrentHashMap<>()).put(id, bits));
+        palavrasPorId.put(id, palavras.keySet());
+        principais.put(id, campos.length > 0 ? TextoUtils.normalizar(campos[0]) : "");
+    }
+
+    public synchronized void remove(Long id) {
+        Set<String> anteriores = palavrasPorId.remove(id);
+        principais.remove(id);
+        if (anteriores == null) {
+            return;
+        }
+        for (String palavra : anteriores) {
+            Map<Long, Integer> ids = postings.get(palavra);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(palavra);
+                }
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        postings.clear();
+        palavrasPorId.clear();
+        principais.clear();
+    }
+
+    public int size() {
+        return palavrasPorId.size();
+    }
+
+    /**
+     * Ids que contêm todas as palavras da consulta (inteiras ou como prefixo), da maior
+     * para a menor pontuação; empates ficam com o texto principal mais curto
+     */
+    public List<Long> buscar(String consulta, int limite) {
+        String normalizada = TextoUtils.normalizar(consulta);
+        List<String> termos = termosDaConsulta(normalizada);
+        if (termos.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Integer> pontuacoes = null;
+        for (String termo : termos) {
+            Map<Long, Integer> doTermo = pontuarTermo(termo);
+            if (pontuacoes == null) {
+                pontuacoes = doTermo;
+            } else {
+                Map<Long, Integer> intersecao = new HashMap<>();
+                for (Map.Entry<Long, Integer> entrada : pontuacoes.entrySet()) {
+                    Integer pontos = doTermo.get(entrada.getKey());
+                    if (pontos != null) {
+                        intersecao.put(entrada.getKey(), entrada.getValue() + pontos);
+                    }
+                }
+                pontuacoes = intersecao;
+            }
+            if (pontuacoes.isEmpty()) {
+                return List.of();
+            }
+        }
+
+        int bonus = 0;
+        for (int peso : pesos) {
+            bonus = Math.max(bonus, peso);
+        }
+        List<Resultado> resultados = new ArrayList<>(pontuacoes.size());
+        for (Map.Entry<Long, Integer> entrada : pontuacoes.entrySet()) {
+            String principal = principais.getOrDefault(entrada.getKey(), "");
+            int pontos = entrada.getValue() + (principal.startsWith(normalizada) ? bonus * 2 : 0);
+            resultados.add(new Resultado(entrada.getKey(), pontos, principal.length()));
+        }
+        resultados.sort((a, b) -> a.pontos != b.pontos ? Integer.compare(b.pontos, a.pontos)
+                : a.tamanho != b.tamanho ? Integer.compare(a.tamanho, b.tamanho)
+                : Long.compare(a.id, b.id));
+
+        List<Long> ids = new ArrayList<>(Math.min(limite, resultados.size()));
+        for (int i = 0; i < resultados.size() && i < limite; i++) {
+            ids.add(resultados.get(i).id);
+        }
+        return ids;
+    }
+
+    // Melhor pontuação do termo em cada documento, entre as palavras que começam com ele
+    private Map<Long, Integer> pontuarTermo(String termo) {
+        Map<Long, Integer> pontuacoes = new HashMap<>();
+        for (Map.Entry<String, Map<Long, Integer>> entrada
+                : postings.subMap(termo, true, termo + Character.MAX_VALUE, false).entrySet()) {
+            int multiplicador = entrada.getKey().length() == termo.length() ? 2 : 1;
+            for (Map.Entry<Long, Integer> posting : entrada.getValue().entrySet()) {
+                int pontos = multiplicador * somarPesos(posting.getValue());
+                pontuacoes.merge(posting.getKey(), pontos, Math::max);
+            }
+        }
+        return pontuacoes;
+    }
+
+    private int somarPesos(int bits) {
+        int soma = 0;
+        for (int campo = 0; campo < pesos.length; campo++) {
+            if ((bits & (1 << campo)) != 0) {
+                soma += pesos[campo];
+            }
+        }
+        return soma;
+    }
+
+    // Stopwords são ignoradas, a menos que a consulta só tenha stopwords
+    private static List<String> termosDaConsulta(String normalizada) {
+        Set<String> todos = new LinkedHashSet<>(palavras(normalizada));
+        List<String> termos = new ArrayList<>();
+        for (String termo : todos) {
+            if (!STOPWORDS.contains(termo)) {
+                termos.add(termo);
+            }
+        }
+        return termos.isEmpty() ? new ArrayList<>(todos) : termos;
+    }
+
+    private static Set<String> palavras(String texto) {
+        Set<String> palavras = new HashSet<>();
+        StringBuilder atual = new StringBuilder();
+        String normalizado = TextoUtils.normalizar(texto);
+        for (int i = 0; i <= normalizado.length(); i++) {
+            char c = i < normalizado.length() ? normalizado.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                atual.append(c);
+            } else if (atual.length() > 0) {
+                palavras.add(atual.toString());
+                atual.setLength(0);
+            }
+        }
+        return palavras;
+    }
+
+    private record Resultado(long id, int pontos, int tamanho) {
+    }
+}
@@ -0,0 +1,212 @@
+package com.itb.inf2fm.projetoback.util;
+
+/**
+ * Árvore k-d imutável de pontos geográficos, em arrays primitivos
+ *
+ * Cada ponto (latitude, longitude) é convertido para um vetor unitário 3D: a distância
+ * euclidiana entre vetores (corda) cresce junto com a distância na superfície, então a
+ * busca dos k vizinhos não sofre a distorção de latitude/longitude e vale para qualquer região.
+ *
+ * A árvore é implícita: depois de construída, o nó de [inicio, fim) é o elemento do meio,
+ * com a subárvore esquerda antes dele e a direita depois. Não há objetos por nó.
+ */
+public final class KdTree {
+
+    public static final double RAIO_TERRA_KM = 6371.0;
+    public static final KdTree VAZIA = new KdTree(new long[0], new double[0]);
+
+    private final long[] ids;
+    // x, y, z intercalados por ponto, na ordem da árvore
+    private final double[] coordenadas;
+
+    private KdTree(long[] ids, double[] coordenadas) {
+        this.ids = ids;
+        this.coordenadas = coordenadas;
+    }
+
+    /**
+     * Constrói a árvore; os arrays recebidos não são alterados
+     */
+    public static KdTree construir(long[] ids, double[] latitudes, double[] longitudes) {
+        int n = ids.length;
+        if (latitudes.length != n || longitudes.length != n) {
+            throw new IllegalArgumentException("Arrays de ids e coordenadas com tamanhos diferentes");
+        }
+        long[] idsArvore = ids.clone();
+        double[] coordenadas = new double[n * 3];
+        for (int i = 0; i < n; i++) {
+            paraVetor(latitudes[i], longitudes[i], coordenadas, i * 3);
+        }
+        KdTree arvore = new KdTree(idsArvore, coordenadas);
+        arvore.ordenar(0, n, 0);
+        return arvore;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * Os k pontos mais próximos da coordenada, do mais ao menos próximo
+     */
+    public Vizinhos buscar(double latitude, double longitude, int k) {
+        int limite = Math.min(k, ids.length);
+        Vizinhos vizinhos = new Vizinhos(Math.max(limite, 0));
+        if (limite <= 0) {
+            return vizinhos;
+        }
+        double[] alvo = new double[3];
+        paraVetor(latitude, longitude, alvo, 0);
+        buscar(0, ids.length, 0, alvo, vizinhos);
+        vizinhos.converterParaKm();
+        return vizinhos;
+    }
+
+    private void buscar(int inicio, int fim, int eixo, double[] alvo, Vizinhos vizinhos) {
+        if (inicio >= fim) {
+            return;
+        }
+        int meio = (inicio + fim) >>> 1;
+        int base = meio * 3;
+        double dx = coordenadas[base] - alvo[0];
+        double dy = coordenadas[base + 1] - alvo[1];
+        double dz = coordenadas[base + 2] - alvo[2];
+        vizinhos.oferecer(ids[meio], dx * dx + dy * dy + dz * dz);
+
+        double diferenca = alvo[eixo] - coordenadas[base + eixo];
+        int proximoEixo = eixo == 2 ? 0 : eixo + 1;
+        if (diferenca < 0) {
+            buscar(inicio, meio, proximoEixo, alvo, vizinhos);
+            if (!vizinhos.cheio() || diferenca * diferenca < vizinhos.piorDistancia()) {
+                buscar(meio + 1, fim, proximoEixo, alvo, vizinhos);
+            }
+        } else {
+            buscar(meio + 1, fim, proximoEixo, alvo, vizinhos);
+            if (!vizinhos.cheio() || diferenca * diferenca < vizinhos.piorDistancia()) {
+                buscar(inicio, meio, proximoEixo, alvo, vizinhos);
+            }
+        }
+    }
+
+    /**
+     * Posiciona a mediana do eixo no meio de [inicio, fim) (quickselect) e repete nas metades
+     */
+    private void ordenar(int inicio, int fim, int eixo) {
+        if (fim - inicio <= 1) {
+            return;
+        }
+        int meio = (inicio + fim) >>> 1;
+        int esquerda = inicio;
+        int direita = fim - 1;
+        while (esquerda < direita) {
+            int pivo = particionar(esquerda, direita, (esquerda + direita) >>> 1, eixo);
+            if (pivo == meio) {
+                break;
+            } else if (pivo < meio) {
+                esquerda = pivo + 1;
+            } else {
+                direita = pivo - 1;
+            }
+        }
+        int proximoEixo = eixo == 2 ? 0 : eixo + 1;
+        ordenar(inicio, meio, proximoEixo);
+        ordenar(meio + 1, fim, proximoEixo);
+    }
+
+    private int particionar(int esquerda, int direita, int indicePivo, int eixo) {
+        double pivo = coordenadas[indicePivo * 3 + eixo];
+        trocar(indicePivo, direita);
+        int destino = esquerda;
+        for (int i = esquerda; i < direita; i++) {
+            if (coordenadas[i * 3 + eixo] < pivo) {
+                trocar(i, destino++);
+            }
+        }
+        trocar(destino, direita);
+        return destino;
+    }
+
+    private void trocar(int a, int b) {
+        if (a == b) {
+            return;
+        }
+        long id = ids[a];
+        ids[a] = ids[b];
+        ids[b] = id;
+        for (int c = 0; c < 3; c++) {
+            double valor = coordenadas[a * 3 + c];
+            coordenadas[a * 3 + c] = coordenadas[b * 3 + c];
+            coordenadas[b * 3 + c] = valor;
+        }
+    }
+
+    private static void paraVetor(double latitude, double longitude, double[] destino, int posicao) {
+        double lat = Math.toRadians(latitude);
+        double lon = Math.toRadians(longitude);
+        double cosLat = Math.cos(lat);
+        destino[posicao] = cosLat * Math.cos(lon);
+        destino[posicao + 1] = cosLat * Math.sin(lon);
+        destino[posicao + 2] = Math.sin(lat);
+    }
+
+    /**
+     * Resultado da busca: ids e distâncias em arrays paralelos, ordenados por distância.
+     * Durante a busca guarda o quadrado da corda; ao final, converte para km.
+     */
+    public static final class Vizinhos {
+        private final long[] ids;
+        private final double[] distancias;
+        private int tamanho;
+
+        private Vizinhos(int capacidade) {
+            this.ids = new long[capacidade];
+            this.distancias = new double[capacidade];
+        }
+
+        public int size() {
+            return tamanho;
+        }
+
+        public long id(int i) {
+            return ids[i];
+        }
+
+        public double distanciaKm(int i) {
+            return distancias[i];
+        }
+
+        private boolean cheio() {
+            return tamanho == ids.length;
+        }
+
+        private double piorDistancia() {
+            return distancias[tamanho - 1];
+        }
+
+        // Inserção ordenada: k é pequeno, mais barato que um heap
+        private void oferecer(long id, double distancia) {
+            if (cheio()) {
+                if (distancia >= piorDistancia()) {
+                    return;
+                }
+                tamanho--;
+            }
+            int i = tamanho - 1;
+            while (i >= 0 && distancias[i] > distancia) {
+                ids[i + 1] = ids[i];
+                distancias[i + 1] = distancias[i];
+                i--;
+            }
+            ids[i + 1] = id;
+            distancias[i + 1] = distancia;
+            tamanho++;
+        }
+
+        private void converterParaKm() {
+            for (int i = 0; i < tamanho; i++) {
+                double corda = Math.sqrt(distancias[i]);
+                distancias[i] = 2 * Math.asin(Math.min(1.0, corda / 2)) * RAIO_TERRA_KM;
+            }
+        }
+    }
+}
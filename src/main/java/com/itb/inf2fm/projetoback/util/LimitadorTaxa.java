@@ -0,0 +1,43 @@
+package com.itb.inf2fm.projetoback.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Limita a vazão em linhas por segundo, compartilhado entre threads
+ *
+ * Cada chamada a {@link #adquirir(int)} reserva o tempo que as suas linhas levam na taxa atual e
+ * espera até a reserva anterior terminar: os blocos saem espaçados, no máximo um bloco de rajada.
+ * A taxa é lida a cada reserva (pode mudar com o horário); zero ou negativa desliga o limite.
+ */
+public final class LimitadorTaxa {
+
+    private final LongSupplier taxa;
+    private long proximoLivre = System.nanoTime();
+
+    public LimitadorTaxa(LongSupplier taxa) {
+        this.taxa = taxa;
+    }
+
+    public long getTaxaAtual() {
+        return taxa.getAsLong();
+    }
+
+    public void adquirir(int linhas) throws InterruptedException {
+        long espera = reservar(linhas, System.nanoTime());
+        if (espera > 0) {
+            TimeUnit.NANOSECONDS.sleep(espera);
+        }
+    }
+
+    private synchronized long reservar(int linhas, long agora) {
+        long taxaAtual = taxa.getAsLong();
+        if (taxaAtual <= 0) {
+            proximoLivre = agora;
+            return 0;
+        }
+        long inicio = Math.max(agora, proximoLivre);
+        proximoLivre = inicio + linhas * TimeUnit.SECONDS.toNanos(1) / taxaAtual;
+        return inicio - agora;
+    }
+}
@@ -0,0 +1,71 @@
+package com.itb.inf2fm.projetoback.util;
+
+import com.itb.inf2fm.projetoback.exception.ValidationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Utilitários para os endpoints paginados
+ *
+ * A ordenação vem como "campo" ou "campo,asc|desc", com vários critérios separados por ";"
+ * (ex: "nome,desc;id"). Só os campos do mapa de cada recurso são aceitos: o nome exposto na API
+ * é traduzido para a propriedade da entidade, e nenhum outro caminho chega ao ORDER BY.
+ */
+public class PaginacaoUtils {
+
+    public static final int TAMANHO_PADRAO = 20;
+    public static final int TAMANHO_MAXIMO = 100;
+
+    /**
+     * Monta o Pageable validando página e ordenação; o tamanho é limitado a {@link #TAMANHO_MAXIMO}.
+     * O id entra sempre como último critério, para a ordem ser estável entre páginas.
+     *
+     * @param camposPermitidos nome do campo na API -> propriedade da entidade
+     */
+    public static Pageable criar(int pagina, int tamanho, String ordenacao, Map<String, String> camposPermitidos) {
+        if (pagina < 0) {
+            throw new ValidationException("Página deve ser maior ou igual a zero");
+        }
+        if (tamanho < 1) {
+            throw new ValidationException("Tamanho da página deve ser maior que zero");
+        }
+        return PageRequest.of(pagina, Math.min(tamanho, TAMANHO_MAXIMO), ordenar(ordenacao, camposPermitidos));
+    }
+
+    private static Sort ordenar(String ordenacao, Map<String, String> camposPermitidos) {
+        List<Sort.Order> ordens = new ArrayList<>();
+        boolean temId = false;
+        if (ordenacao != null && !ordenacao.isBlank()) {
+            for (String criterio : ordenacao.split(";")) {
+                String[] partes = criterio.trim().split(",");
+                String campo = partes[0].trim();
+                String propriedade = camposPermitidos.get(campo);
+                if (propriedade == null) {
+                    throw new ValidationException("Não é possível ordenar por '" + campo + "'. Campos permitidos: "
+                            + String.join(", ", new TreeSet<>(camposPermitidos.keySet())));
+                }
+                Sort.Direction direcao = Sort.Direction.ASC;
+                if (partes.length > 1) {
+                    direcao = Sort.Direction.fromOptionalString(partes[1].trim().toUpperCase(Locale.ROOT))
+                            .orElseThrow(() -> new ValidationException("Direção de ordenação inválida: use asc ou desc"));
+                }
+                if (partes.length > 2) {
+                    throw new ValidationException("Ordenação inválida: use campo,asc ou campo,desc");
+                }
+                ordens.add(new Sort.Order(direcao, propriedade));
+                temId |= propriedade.equals("id");
+            }
+        }
+        if (!temId) {
+            ordens.add(Sort.Order.asc("id"));
+        }
+        return Sort.by(ordens);
+    }
+}
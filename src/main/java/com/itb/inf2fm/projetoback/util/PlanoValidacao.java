@@ -0,0 +1,179 @@
+package com.itb.inf2fm.projetoback.util;
+
+import com.itb.inf2fm.projetoback.exception.ValidationException;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Plano de validação de uma entidade, montado uma vez e reutilizado em todo save
+ *
+ * Substitui o HashMap de {@link CrudValidationUtils#validateRequiredFields(Map)}: os campos
+ * obrigatórios e as verificações de formato ficam em arrays com os acessores da entidade, e
+ * {@link #validar(Object)} só percorre esses arrays. Nada é alocado quando a entidade é válida;
+ * o mapa de erros só é criado para montar a exceção.
+ *
+ * Mesmas mensagens e mesma ordem de antes: primeiro todos os obrigatórios (um erro por campo),
+ * depois email e CPF, parando no primeiro formato inválido.
+ *
+ * <pre>
+ * private static final PlanoValidacao&lt;Regiao&gt; VALIDACAO = PlanoValidacao.para(Regiao.class)
+ *         .obrigatorio("nome", Regiao::getNome)
+ *         .obrigatorio("cidade", Regiao::getCidade)
+ *         .compilar();
+ * </pre>
+ */
+public final class PlanoValidacao<T> {
+
+    private static final int EMAIL = 0;
+    private static final int CPF = 1;
+
+    private final String[] campos;
+    private final Function<? super T, ?>[] acessores;
+    private final Predicate<? super T>[] condicoes;
+
+    private final int[] formatos;
+    private final Function<? super T, ?>[] acessoresFormato;
+    private final Predicate<? super T>[] condicoesFormato;
+
+    @SuppressWarnings("unchecked")
+    private PlanoValidacao(Construtor<T> construtor) {
+        this.campos = construtor.campos.toArray(new String[0]);
+        this.acessores = construtor.acessores.toArray(new Function[0]);
+        this.condicoes = construtor.condicoes.toArray(new Predicate[0]);
+        this.formatos = construtor.formatos.stream().mapToInt(Integer::intValue).toArray();
+        this.acessoresFormato = construtor.acessoresFormato.toArray(new Function[0]);
+        this.condicoesFormato = construtor.condicoesFormato.toArray(new Predicate[0]);
+    }
+
+    public static <T> Construtor<T> para(Class<T> tipo) {
+        return new Construtor<>();
+    }
+
+    /**
+     * Lança {@link ValidationException} com os campos obrigatórios ausentes ou, se todos
+     * estiverem preenchidos, com o primeiro formato inválido
+     */
+    public void validar(T entidade) {
+        Map<String, String> erros = null;
+        for (int i = 0; i < campos.length; i++) {
+            if (condicoes[i] != null && !condicoes[i].test(entidade)) {
+                continue;
+            }
+            Object valor = acessores[i].apply(entidade);
+            String erro = null;
+            if (valor == null) {
+                erro = "Campo obrigatório";
+            } else if (valor instanceof CharSequence texto && vazio(texto)) {
+                erro = "Campo não pode estar vazio";
+            }
+            if (erro != null) {
+                if (erros == null) {
+                    erros = new LinkedHashMap<>();
+                }
+                erros.put(campos[i], erro);
+            }
+        }
+        if (erros != null) {
+            throw new ValidationException("Campos obrigatórios não preenchidos", erros);
+        }
+
+        for (int i = 0; i < formatos.length; i++) {
+            if (condicoesFormato[i] != null && !condicoesFormato[i].test(entidade)) {
+                continue;
+            }
+            Object valor = acessoresFormato[i].apply(entidade);
+            if (valor == null) {
+                continue;
+            }
+            CharSequence texto = valor instanceof CharSequence cs ? cs : valor.toString();
+            if (formatos[i] == EMAIL) {
+                if (!DocumentoUtils.emailBasicoValido(texto)) {
+                    throw new ValidationException("Formato de email inválido");
+                }
+            } else {
+                int resultado = DocumentoUtils.verificarCpf(texto);
+                if (resultado == DocumentoUtils.TAMANHO_INVALIDO) {
+                    throw new ValidationException("CPF deve conter 11 dígitos");
+                }
+                if (resultado == DocumentoUtils.DIGITOS_INVALIDOS) {
+                    throw new ValidationException("CPF inválido");
+                }
+            }
+        }
+    }
+
+    // Mesmo critério de String.trim().isEmpty(), sem criar a string aparada
+    private static boolean vazio(CharSequence texto) {
+        for (int i = 0; i < texto.length(); i++) {
+            if (texto.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static final class Construtor<T> {
+
+        private final List<String> campos = new ArrayList<>();
+        private final List<Function<? super T, ?>> acessores = new ArrayList<>();
+        private final List<Predicate<? super T>> condicoes = new ArrayList<>();
+
+        private final List<Integer> formatos = new ArrayList<>();
+        private final List<Function<? super T, ?>> acessoresFormato = new ArrayList<>();
+        private final List<Predicate<? super T>> condicoesFormato = new ArrayList<>();
+
+        private Construtor() {
+        }
+
+        /**
+         * Campo que não pode ser nulo nem, se for texto, vazio ou só espaços
+         */
+        public Construtor<T> obrigatorio(String campo, Function<? super T, ?> acessor) {
+            return obrigatorioSe(campo, acessor, null);
+        }
+
+        /**
+         * Campo obrigatório só quando a condição é verdadeira (ex: senha apenas na criação)
+         */
+        public Construtor<T> obrigatorioSe(String campo, Function<? super T, ?> acessor, Predicate<? super T> condicao) {
+            campos.add(campo);
+            acessores.add(acessor);
+            condicoes.add(condicao);
+            return this;
+        }
+
+        /**
+         * Formato básico de email (o mesmo de {@link CrudValidationUtils#validateEmail(String)}); nulo é ignorado
+         */
+        public Construtor<T> email(Function<? super T, ?> acessor) {
+            return emailSe(acessor, null);
+        }
+
+        public Construtor<T> emailSe(Function<? super T, ?> acessor, Predicate<? super T> condicao) {
+            return formato(EMAIL, acessor, condicao);
+        }
+
+        /**
+         * CPF com 11 dígitos e verificadores corretos (o mesmo de {@link CrudValidationUtils#validateCpf(String)}); nulo é ignorado
+         */
+        public Construtor<T> cpf(Function<? super T, ?> acessor) {
+            return formato(CPF, acessor, null);
+        }
+
+        private Construtor<T> formato(int formato, Function<? super T, ?> acessor, Predicate<? super T> condicao) {
+            formatos.add(formato);
+            acessoresFormato.add(acessor);
+            condicoesFormato.add(condicao);
+            return this;
+        }
+
+        public PlanoValidacao<T> compilar() {
+            return new PlanoValidacao<>(this);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.itb.inf2fm.projetoback.util;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.function.Function;
+
+/**
+ * Descrição tipada de uma tabela para gravação em lote
+ *
+ * Cada coluna tem nome, tipo SQL (java.sql.Types), tamanho e o acessor que tira o valor do objeto
+ * da linha; substitui os Object[] posicionais. Montada uma vez (campo estático) e usada tanto pelo
+ * bulk copy do SQL Server quanto pelo INSERT em lote via JDBC.
+ *
+ * <pre>
+ * private static final TabelaLote&lt;Regiao&gt; REGIOES = TabelaLote.para(Regiao.class, "Regiao")
+ *         .texto("nome", 100, Regiao::getNome)
+ *         .texto("cidade", 100, Regiao::getCidade)
+ *         .compilar();
+ * </pre>
+ */
+public final class TabelaLote<T> {
+
+    private final String nome;
+    private final String[] colunas;
+    private final int[] tiposSql;
+    private final int[] precisoes;
+    private final int[] escalas;
+    private final Function<? super T, ?>[] acessores;
+    private final String sqlInsert;
+
+    @SuppressWarnings("unchecked")
+    private TabelaLote(Construtor<T> construtor) {
+        this.nome = construtor.nome;
+        this.colunas = construtor.colunas.toArray(new String[0]);
+        this.tiposSql = construtor.tiposSql.stream().mapToInt(Integer::intValue).toArray();
+        this.precisoes = construtor.precisoes.stream().mapToInt(Integer::intValue).toArray();
+        this.escalas = construtor.escalas.stream().mapToInt(Integer::intValue).toArray();
+        this.acessores = construtor.acessores.toArray(new Function[0]);
+
+        StringJoiner nomes = new StringJoiner(", ", "INSERT INTO " + nome + " (", ")");
+        StringJoiner parametros = new StringJoiner(", ", " VALUES (", ")");
+        for (String coluna : colunas) {
+            nomes.add(coluna);
+            parametros.add("?");
+        }
+        this.sqlInsert = nomes + parametros.toString();
+    }
+
+    public static <T> Construtor<T> para(Class<T> tipo, String tabela) {
+        return new Construtor<>(tabela);
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public int getQuantidadeColunas() {
+        return colunas.length;
+    }
+
+    /**
+     * Colunas indexadas a partir de 0, na ordem em que foram declaradas
+     */
+    public String getColuna(int indice) {
+        return colunas[indice];
+    }
+
+    public int getTipoSql(int indice) {
+        return tiposSql[indice];
+    }
+
+    public int getPrecisao(int indice) {
+        return precisoes[indice];
+    }
+
+    public int getEscala(int indice) {
+        return escalas[indice];
+    }
+
+    /**
+     * INSERT com um parâmetro por coluna, na ordem das colunas
+     */
+    public String getSqlInsert() {
+        return sqlInsert;
+    }
+
+    /**
+     * Valor da coluna já no tipo JDBC (LocalDate vira java.sql.Date e LocalDateTime vira Timestamp)
+     */
+    public Object valor(int indice, T linha) {
+        Object valor = acessores[indice].apply(linha);
+        if (valor instanceof LocalDate data) {
+            return Date.valueOf(data);
+        }
+        if (valor instanceof LocalDateTime dataHora) {
+            return Timestamp.valueOf(dataHora);
+        }
+        return valor;
+    }
+
+    public static final class Construtor<T> {
+
+        private final String nome;
+        private final List<String> colunas = new ArrayList<>();
+        private final List<Integer> tiposSql = new ArrayList<>();
+        private final List<Integer> precisoes = new ArrayList<>();
+        private final List<Integer> escalas = new ArrayList<>();
+        private final List<Function<? super T, ?>> acessores = new ArrayList<>();
+
+        private Construtor(String nome) {
+            this.nome = nome;
+        }
+
+        public Construtor<T> texto(String coluna, int tamanho, Function<? super T, String> acessor) {
+            return coluna(coluna, Types.NVARCHAR, tamanho, 0, acessor);
+        }
+
+        public Construtor<T> inteiro(String coluna, Function<? super T, Long> acessor) {
+            return coluna(coluna, Types.BIGINT, 19, 0, acessor);
+        }
+
+        public Construtor<T> data(String coluna, Function<? super T, LocalDate> acessor) {
+            return coluna(coluna, Types.DATE, 10, 0, acessor);
+        }
+
+        public Construtor<T> dataHora(String coluna, Function<? super T, LocalDateTime> acessor) {
+            return coluna(coluna, Types.TIMESTAMP, 27, 7, acessor);
+        }
+
+        public Construtor<T> coluna(String coluna, int tipoSql, int precisao, int escala, Function<? super T, ?> acessor) {
+            colunas.add(coluna);
+            tiposSql.add(tipoSql);
+            precisoes.add(precisao);
+            escalas.add(escala);
+            acessores.add(acessor);
+            return this;
+        }
+
+        public TabelaLote<T> compilar() {
+            if (colunas.isEmpty()) {
+                throw new IllegalStateException("Tabela " + nome + " sem colunas");
+            }
+            return new TabelaLote<>(this);
+        }
+    }
+}
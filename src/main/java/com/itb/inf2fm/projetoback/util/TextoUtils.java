@@ -0,0 +1,26 @@
+package com.itb.inf2fm.projetoback.util;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Utilitários para normalização de texto em buscas
+ */
+public class TextoUtils {
+
+    private static final Pattern ACENTOS = Pattern.compile("\\p{M}+");
+    private static final Pattern ESPACOS = Pattern.compile("\\s+");
+
+    /**
+     * Remove acentos, converte para minúsculas e colapsa espaços
+     * Ex: "  José  Conceição " -> "jose conceicao"
+     */
+    public static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String semAcentos = ACENTOS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return ESPACOS.matcher(semAcentos.toLowerCase(Locale.ROOT).trim()).replaceAll(" ");
+    }
+}
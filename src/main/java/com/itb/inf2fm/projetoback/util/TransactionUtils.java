@@ -0,0 +1,44 @@
+package com.itb.inf2fm.projetoback.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Utilitários para executar ações vinculadas à transação corrente
+ */
+public class TransactionUtils {
+
+    /**
+     * Executa a ação após o commit da transação ativa.
+     * Sem transação ativa, a ação é executada imediatamente.
+     */
+    public static void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Executa a ação se a transação ativa for desfeita.
+     * Sem transação ativa, não há o que desfazer e a ação é ignorada.
+     */
+    public static void runAfterRollback(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        action.run();
+                    }
+                }
+            });
+        }
+    }
+}
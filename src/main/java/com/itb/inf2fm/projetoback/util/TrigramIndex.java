@@ -0,0 +1,130 @@
+package com.itb.inf2fm.projetoback.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice de trigramas em memória para busca por substring ("contém")
+ *
+ * Cada texto é normalizado (sem acentos, minúsculo) e quebrado em trigramas.
+ * A busca intersecta as listas dos trigramas da consulta, confirma a substring
+ * e ordena o resultado: igual > começa com > palavra começa com > contém.
+ * Escritas são serializadas; leituras não bloqueiam.
+ */
+public class TrigramIndex {
+
+    private final Map<Long, String> textos = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+
+    public synchronized void put(Long id, String texto) {
+        String normalizado = TextoUtils.normalizar(texto);
+        String anterior = textos.put(id, normalizado);
+        if (normalizado.equals(anterior)) {
+            return;
+        }
+        if (anterior != null) {
+            removerTrigramas(id, anterior);
+        }
+        for (int i = 0; i + 3 <= normalizado.length(); i++) {
+            postings.computeIfAbsent(normalizado.substring(i, i + 3), k -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+    }
+
+    public synchronized void remove(Long id) {
+        String anterior = textos.remove(id);
+        if (anterior != null) {
+            removerTrigramas(id, anterior);
+        }
+    }
+
+    public synchronized void clear() {
+        textos.clear();
+        postings.clear();
+    }
+
+    public int size() {
+        return textos.size();
+    }
+
+    /**
+     * Retorna os ids cujo texto contém a consulta, do mais ao menos relevante
+     */
+    public List<Long> buscar(String consulta, int limite) {
+        String q = TextoUtils.normalizar(consulta);
+        if (q.isEmpty()) {
+            return List.of();
+        }
+
+        List<Candidato> encontrados = new ArrayList<>();
+        if (q.length() < 3) {
+            // Consultas curtas não têm trigrama: varre os textos (ainda em memória)
+            textos.forEach((id, texto) -> avaliar(id, texto, q, encontrados));
+        } else {
+            Set<Long> menor = null;
+            for (int i = 0; i + 3 <= q.length(); i++) {
+                Set<Long> lista = postings.get(q.substring(i, i + 3));
+                if (lista == null) {
+                    return List.of();
+                }
+                if (menor == null || lista.size() < menor.size()) {
+                    menor = lista;
+                }
+            }
+            // Parte da menor lista e confirma a substring no texto completo
+            for (Long id : menor) {
+                String texto = textos.get(id);
+                if (texto != null) {
+                    avaliar(id, texto, q, encontrados);
+                }
+            }
+        }
+
+        encontrados.sort(Comparator.comparingInt(Candidato::rank)
+                .thenComparingInt(Candidato::tamanho)
+                .thenComparing(Candidato::id));
+        int total = Math.min(limite, encontrados.size());
+        List<Long> ids = new ArrayList<>(total);
+        for (int i = 0; i < total; i++) {
+            ids.add(encontrados.get(i).id());
+        }
+        return ids;
+    }
+
+    private void avaliar(Long id, String texto, String q, List<Candidato> encontrados) {
+        int posicao = texto.indexOf(q);
+        if (posicao < 0) {
+            return;
+        }
+        int rank;
+        if (texto.length() == q.length()) {
+            rank = 0;
+        } else if (posicao == 0) {
+            rank = 1;
+        } else if (texto.contains(" " + q)) {
+            rank = 2;
+        } else {
+            rank = 3;
+        }
+        encontrados.add(new Candidato(id, rank, texto.length()));
+    }
+
+    private void removerTrigramas(Long id, String texto) {
+        for (int i = 0; i + 3 <= texto.length(); i++) {
+            String trigrama = texto.substring(i, i + 3);
+            Set<Long> lista = postings.get(trigrama);
+            if (lista != null) {
+                lista.remove(id);
+                if (lista.isEmpty()) {
+                    postings.remove(trigrama);
+                }
+            }
+        }
+    }
+
+    private record Candidato(Long id, int rank, int tamanho) {
+    }
+}
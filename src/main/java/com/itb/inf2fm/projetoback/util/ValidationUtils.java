@@ -1,136 +1,47 @@
 package com.itb.inf2fm.projetoback.util;
 
-import java.util.regex.Pattern;
-
 /**
  * Utilitários para validação de dados
  * Centraliza validações comuns utilizadas em toda a aplicação
+ *
+ * CPF, CNPJ, telefone, CEP e email são verificados caractere a caractere por {@link DocumentoUtils},
+ * sem regex e sem cópias da string.
  */
 public class ValidationUtils {
 
-    // Padrões de validação
-    private static final Pattern EMAIL_PATTERN = Pattern.compile(
-        "^[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}$"
-    );
-
-    private static final Pattern CPF_PATTERN = Pattern.compile(
-        "^\\d{3}\\.\\d{3}\\.\\d{3}-\\d{2}$|^\\d{11}$"
-    );
-
-    private static final Pattern CNPJ_PATTERN = Pattern.compile(
-        "^\\d{2}\\.\\d{3}\\.\\d{3}/\\d{4}-\\d{2}$|^\\d{14}$"
-    );
-
-    private static final Pattern PHONE_PATTERN = Pattern.compile(
-        "^\\(?\\d{2}\\)?\\s?9?\\d{4}-?\\d{4}$"
-    );
-
-    private static final Pattern CEP_PATTERN = Pattern.compile(
-        "^\\d{5}-?\\d{3}$"
-    );
-
     /**
      * Valida formato de email
      */
     public static boolean isValidEmail(String email) {
-        return email != null && EMAIL_PATTERN.matcher(email.trim()).matches();
+        return DocumentoUtils.emailValido(email);
     }
 
     /**
      * Valida CPF com verificação de dígitos
      */
     public static boolean isValidCPF(String cpf) {
-        if (cpf == null) return false;
-        
-        // Remove formatação
-        cpf = cpf.replaceAll("[^\\d]", "");
-        
-        // Verifica se tem 11 dígitos
-        if (cpf.length() != 11) return false;
-        
-        // Verifica se todos os dígitos são iguais
-        if (cpf.matches("(\\d)\\1{10}")) return false;
-        
-        // Validação dos dígitos verificadores
-        try {
-            int[] digits = cpf.chars().map(c -> c - '0').toArray();
-            
-            // Primeiro dígito
-            int sum1 = 0;
-            for (int i = 0; i < 9; i++) {
-                sum1 += digits[i] * (10 - i);
-            }
-            int digit1 = 11 - (sum1 % 11);
-            if (digit1 >= 10) digit1 = 0;
-            
-            // Segundo dígito
-            int sum2 = 0;
-            for (int i = 0; i < 10; i++) {
-                sum2 += digits[i] * (11 - i);
-            }
-            int digit2 = 11 - (sum2 % 11);
-            if (digit2 >= 10) digit2 = 0;
-            
-            return digits[9] == digit1 && digits[10] == digit2;
-        } catch (Exception e) {
-            return false;
-        }
+        return DocumentoUtils.cpfValido(cpf);
     }
 
     /**
      * Valida CNPJ com verificação de dígitos
      */
     public static boolean isValidCNPJ(String cnpj) {
-        if (cnpj == null) return false;
-        
-        // Remove formatação
-        cnpj = cnpj.replaceAll("[^\\d]", "");
-        
-        // Verifica se tem 14 dígitos
-        if (cnpj.length() != 14) return false;
-        
-        // Verifica se todos os dígitos são iguais
-        if (cnpj.matches("(\\d)\\1{13}")) return false;
-        
-        try {
-            int[] digits = cnpj.chars().map(c -> c - '0').toArray();
-            
-            // Primeiro dígito
-            int[] weight1 = {5, 4, 3, 2, 9, 8, 7, 6, 5, 4, 3, 2};
-            int sum1 = 0;
-            for (int i = 0; i < 12; i++) {
-                sum1 += digits[i] * weight1[i];
-            }
-            int digit1 = 11 - (sum1 % 11);
-            if (digit1 >= 10) digit1 = 0;
-            
-            // Segundo dígito
-            int[] weight2 = {6, 5, 4, 3, 2, 9, 8, 7, 6, 5, 4, 3, 2};
-            int sum2 = 0;
-            for (int i = 0; i < 13; i++) {
-                sum2 += digits[i] * weight2[i];
-            }
-            int digit2 = 11 - (sum2 % 11);
-            if (digit2 >= 10) digit2 = 0;
-            
-            return digits[12] == digit1 && digits[13] == digit2;
-        } catch (Exception e) {
-            return false;
-        }
+        return DocumentoUtils.cnpjValido(cnpj);
     }
 
     /**
      * Valida formato de telefone brasileiro
      */
     public static boolean isValidPhone(String phone) {
-        return phone != null && PHONE_PATTERN.matcher(phone.trim()).matches();
+        return DocumentoUtils.telefoneValido(phone);
     }
 
     /**
      * Valida formato de CEP
      */
     public static boolean isValidCEP(String cep) {
-        return cep != null && CEP_PATTERN.matcher(cep.trim()).matches();
+        return DocumentoUtils.cepValido(cep);
     }
 
     /**
@@ -169,7 +80,7 @@ public class ValidationUtils {
      * Remove formatação de CPF/CNPJ
      */
     public static String removeFormatting(String document) {
-        return document != null ? document.replaceAll("[^\\d]", "") : null;
+        return DocumentoUtils.somenteDigitos(document);
     }
 
     /**
@@ -0,0 +1,145 @@
+package com.itb.inf2fm.projetoback.controller;
+
+import com.itb.inf2fm.projetoback.model.Regiao;
+import com.itb.inf2fm.projetoback.model.Tecnico;
+import com.itb.inf2fm.projetoback.model.TecnicoRegiao;
+import com.itb.inf2fm.projetoback.model.Usuario;
+import com.itb.inf2fm.projetoback.repository.RegiaoRepository;
+import com.itb.inf2fm.projetoback.repository.TecnicoRegiaoRepository;
+import com.itb.inf2fm.projetoback.repository.TecnicoRepository;
+import com.itb.inf2fm.projetoback.repository.UsuarioRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Regressão de N+1 nos endpoints de técnico: o número de consultas de cada endpoint
+ * não pode crescer com o número de técnicos (cada um com duas regiões)
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TecnicoConsultasTest {
+
+    private static final int TAMANHO_PAGINA = 100;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationAvailability disponibilidade;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private TecnicoRepository tecnicoRepository;
+
+    @Autowired
+    private RegiaoRepository regiaoRepository;
+
+    @Autowired
+    private TecnicoRegiaoRepository tecnicoRegiaoRepository;
+
+    private Statistics estatisticas;
+    private List<Regiao> regioes;
+    private int cadastrados;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        // O DataInitializer grava as regiões padrão em background; espera para não contar as consultas dele
+        long limite = System.currentTimeMillis() + 30_000;
+        while (disponibilidade.getReadinessState() != ReadinessState.ACCEPTING_TRAFFIC
+                && System.currentTimeMillis() < limite) {
+            Thread.sleep(50);
+        }
+        assertThat(disponibilidade.getReadinessState()).isEqualTo(ReadinessState.ACCEPTING_TRAFFIC);
+
+        estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        regioes = regiaoRepository.saveAll(List.of(
+                new Regiao("São Paulo", "Zona Teste Norte", "Região de teste", "ATIVO"),
+                new Regiao("São Paulo", "Zona Teste Sul", "Região de teste", "ATIVO")));
+    }
+
+    @Test
+    void consultasNaoCrescemComONumeroDeTecnicos() throws Exception {
+        Long primeiroId = cadastrarTecnicos(5);
+        Map<String, Long> comPoucos = medir(primeiroId);
+
+        cadastrarTecnicos(25);
+        Map<String, Long> comMuitos = medir(primeiroId);
+
+        assertThat(comMuitos).isEqualTo(comPoucos);
+    }
+
+    private Map<String, Long> medir(Long tecnicoId) throws Exception {
+        Map<String, Long> consultas = new LinkedHashMap<>();
+        consultas.put("GET /tecnico", consultas("/tecnico", "$", cadastrados));
+        consultas.put("GET /tecnico/{id}", consultas("/tecnico/" + tecnicoId, "$.regioes", regioes.size()));
+        consultas.put("GET /admin/tecnicos", consultas("/admin/tecnicos", "$", cadastrados));
+        consultas.put("GET /tecnico/paginado",
+                consultas("/tecnico/paginado?size=" + TAMANHO_PAGINA, "$.content", cadastrados));
+        consultas.put("GET /tecnico/paginado?count=false",
+                consultas("/tecnico/paginado?count=false&size=" + TAMANHO_PAGINA, "$.content", cadastrados));
+        consultas.put("GET /admin/tecnicos/paginado",
+                consultas("/admin/tecnicos/paginado?size=" + TAMANHO_PAGINA, "$.content", cadastrados));
+        return consultas;
+    }
+
+    // Confere o tamanho da lista para garantir que a resposta veio completa do banco, e não de um cache
+    private long consultas(String url, String lista, int tamanho) throws Exception {
+        estatisticas.clear();
+        mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath(lista + ".length()").value(tamanho));
+        return estatisticas.getPrepareStatementCount();
+    }
+
+    private Long cadastrarTecnicos(int quantidade) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            Long primeiroId = null;
+            for (int i = 0; i < quantidade; i++) {
+                int numero = ++cadastrados;
+                Usuario usuario = usuarioRepository.save(new Usuario("Técnico " + numero,
+                        "tecnico" + numero + "@teste.com", "senha123", "USER", "ATIVO"));
+                Tecnico tecnico = tecnicoRepository.save(new Tecnico(String.format("%011d", numero),
+                        LocalDate.of(1990, 1, 1), "11999999999", "01001000", "100", "", "Técnico de teste",
+                        "Elétrica", usuario, "ATIVO"));
+                for (Regiao regiao : regioes) {
+                    tecnicoRegiaoRepository.save(new TecnicoRegiao(tecnico, regiao, "ATIVO"));
+                }
+                if (primeiroId == null) {
+                    primeiroId = tecnico.getId();
+                }
+            }
+            return primeiroId;
+        });
+    }
+}
@@ -0,0 +1,156 @@
+package com.itb.inf2fm.projetoback.service;
+
+import com.itb.inf2fm.projetoback.dto.AgendamentoEvento;
+import com.itb.inf2fm.projetoback.exception.ResourceNotFoundException;
+import com.itb.inf2fm.projetoback.model.Agendamento;
+import com.itb.inf2fm.projetoback.repository.AgendamentoRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Garantias da fila write-behind de situações: coalescência, nova tentativa após falha,
+ * aplicação síncrona com a fila cheia e flush no desligamento
+ */
+class AgendamentoSituacaoServiceTest {
+
+    // Intervalo longo: o flusher em background não interfere nos testes
+    private static final long INTERVALO_FLUSH = 60_000;
+
+    private AgendamentoRepository agendamentoRepository;
+    private AgendamentoEventoService agendamentoEventoService;
+    private AtribuicaoService atribuicaoService;
+    private AgendamentoSituacaoService service;
+
+    @BeforeEach
+    void setUp() {
+        agendamentoRepository = mock(AgendamentoRepository.class);
+        agendamentoEventoService = mock(AgendamentoEventoService.class);
+        atribuicaoService = mock(AtribuicaoService.class);
+        when(agendamentoRepository.existsById(anyLong())).thenReturn(true);
+        when(agendamentoRepository.atualizarSituacao(anyString(), anyCollection()))
+                .thenAnswer(invocacao -> invocacao.<List<Long>>getArgument(1).size());
+        service = novoService(10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    private AgendamentoSituacaoService novoService(int capacidade) {
+        return new AgendamentoSituacaoService(agendamentoRepository, agendamentoEventoService, atribuicaoService,
+                capacidade, INTERVALO_FLUSH);
+    }
+
+    @Test
+    void ultimaTransicaoDoMesmoAgendamentoVence() {
+        assertThat(service.enfileirar(1L, "EM_ANDAMENTO")).isTrue();
+        assertThat(service.enfileirar(1L, "CONCLUIDO")).isTrue();
+        assertThat(service.getTotalPendentes()).isEqualTo(1);
+
+        service.flush();
+
+        verify(agendamentoRepository).atualizarSituacao("CONCLUIDO", List.of(1L));
+        verify(agendamentoRepository, never()).atualizarSituacao(eq("EM_ANDAMENTO"), anyCollection());
+        assertThat(service.getTotalPendentes()).isZero();
+    }
+
+    @Test
+    void flushComFalhaDevolveAFilaSemSobrescreverTransicaoMaisNova() {
+        service.enfileirar(1L, "EM_ANDAMENTO");
+        service.enfileirar(2L, "EM_ANDAMENTO");
+        AtomicBoolean primeiraChamada = new AtomicBoolean(true);
+        when(agendamentoRepository.atualizarSituacao(anyString(), anyCollection())).thenAnswer(invocacao -> {
+            if (primeiraChamada.getAndSet(false)) {
+                // Uma transição mais nova chega enquanto o flush falha
+                service.enfileirar(1L, "CANCELADO");
+                throw new DataAccessResourceFailureException("banco indisponível");
+            }
+            return invocacao.<List<Long>>getArgument(1).size();
+        });
+
+        assertThatThrownBy(service::flush).isInstanceOf(DataAccessResourceFailureException.class);
+        assertThat(service.getTotalPendentes()).isEqualTo(2);
+
+        service.flush();
+
+        verify(agendamentoRepository).atualizarSituacao("CANCELADO", List.of(1L));
+        verify(agendamentoRepository).atualizarSituacao("EM_ANDAMENTO", List.of(2L));
+        assertThat(service.getTotalPendentes()).isZero();
+    }
+
+    @Test
+    void filaCheiaAplicaATransicaoNaRequisicao() {
+        service.shutdown();
+        service = novoService(1);
+
+        assertThat(service.enfileirar(1L, "EM_ANDAMENTO")).isTrue();
+        assertThat(service.enfileirar(2L, "EM_ANDAMENTO")).isFalse();
+        verify(agendamentoRepository).atualizarSituacao("EM_ANDAMENTO", List.of(2L));
+
+        // Substituir uma transição pendente não precisa de espaço novo
+        assertThat(service.enfileirar(1L, "CONCLUIDO")).isTrue();
+        assertThat(service.getTotalPendentes()).isEqualTo(1);
+    }
+
+    @Test
+    void desligamentoAplicaAsTransicoesPendentes() {
+        service.enfileirar(1L, "EM_ANDAMENTO");
+        service.enfileirar(2L, "EM_ANDAMENTO");
+
+        service.shutdown();
+
+        verify(agendamentoRepository, times(1)).atualizarSituacao(eq("EM_ANDAMENTO"), anyCollection());
+        assertThat(service.getTotalPendentes()).isZero();
+    }
+
+    @Test
+    void agendamentoInexistenteNaoEntraNaFila() {
+        when(agendamentoRepository.existsById(99L)).thenReturn(false);
+
+        assertThatThrownBy(() -> service.enfileirar(99L, "EM_ANDAMENTO"))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThat(service.getTotalPendentes()).isZero();
+    }
+
+    @Test
+    void descartarRemoveATransicaoPendente() {
+        service.enfileirar(1L, "EM_ANDAMENTO");
+
+        service.descartar(1L);
+        service.flush();
+
+        verify(agendamentoRepository, never()).atualizarSituacao(anyString(), anyCollection());
+    }
+
+    @Test
+    void flushPublicaNoHistoricoMesmoSemConexoes() {
+        Agendamento agendamento = new Agendamento();
+        agendamento.setId(1L);
+        when(agendamentoEventoService.getTotalConexoes()).thenReturn(0);
+        when(agendamentoRepository.findAllById(List.of(1L))).thenReturn(List.of(agendamento));
+        service.enfileirar(1L, "EM_ANDAMENTO");
+
+        service.flush();
+
+        verify(agendamentoEventoService).publicar(any(Agendamento.class), eq(AgendamentoEvento.Tipo.ATUALIZADO));
+    }
+}